@@ -0,0 +1,115 @@
+package com.studentmanagement.bench;
+
+import com.studentmanagement.analytics.AttendanceColumns;
+import com.studentmanagement.analytics.AttendanceTotals;
+import com.studentmanagement.analytics.StudentRates;
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.database.EpochDays;
+import com.studentmanagement.metrics.Metrics;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.StudentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Attendance % for every student over the last year": the in-memory columnar store against an
+ * SQL GROUP BY and against counting the boxed rows from {@code getAttendanceByDateRange}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class AnalyticsBenchmark {
+    @Param({"10000"})
+    public int students;
+
+    @Param({"50"})
+    public int courses;
+
+    @Param({"1"})
+    public int years;
+
+    private File file;
+    private DatabaseHandler db;
+    private AttendanceService attendanceService;
+    private AttendanceColumns columns;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        Metrics.setEnabled(false);
+        file = SyntheticData.freshCopy(students, courses, years);
+        db = new DatabaseHandler("jdbc:sqlite:" + file.getPath(), 4);
+        StudentService studentService = new StudentService(db);
+        attendanceService = new AttendanceService(db);
+        long start = System.nanoTime();
+        columns = AttendanceColumns.attach(db, studentService, attendanceService);
+        System.out.printf("%nLoaded %d records, %d KB, in %d ms%n", columns.getRecordCount(),
+            columns.getMemoryBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        to = SyntheticData.FIRST_DAY.plusYears(years).minusDays(1);
+        from = to.minusYears(1).plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        db.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public StudentRates columnarRatesByStudent() {
+        return columns.ratesByStudent(from, to);
+    }
+
+    @Benchmark
+    public SortedMap<String, AttendanceTotals> columnarTotalsByCourse() {
+        return columns.totalsByCourse(from, to);
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> columnarAbsenceStreaks() {
+        return columns.longestAbsenceStreaks(from, to, 3);
+    }
+
+    @Benchmark
+    public int sqlGroupByStudent() throws Exception {
+        return db.withReader(conn -> {
+            PreparedStatement pstmt = db.prepare(conn,
+                "SELECT student_id, SUM(status), COUNT(*) FROM attendance WHERE date BETWEEN ? AND ? GROUP BY student_id;");
+            pstmt.setLong(1, from.toEpochDay());
+            pstmt.setLong(2, to.toEpochDay());
+            int rows = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) rows += rs.getInt(2) <= rs.getInt(3) ? 1 : 0;
+            }
+            return rows;
+        });
+    }
+
+    @Benchmark
+    public Map<Integer, int[]> boxedDateRange() throws Exception {
+        List<Attendance> rows = attendanceService.getAttendanceByDateRange(EpochDays.toIso(from.toEpochDay()),
+            EpochDays.toIso(to.toEpochDay()));
+        Map<Integer, int[]> counts = new HashMap<>();
+        for (Attendance a : rows) {
+            int[] c = counts.computeIfAbsent(a.getStudentId(), id -> new int[2]);
+            if (a.getStatus() == AttendanceStatus.PRESENT) c[0]++;
+            c[1]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,124 @@
+package com.studentmanagement.bench;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.http.ApiServer;
+import com.studentmanagement.metrics.Metrics;
+import com.studentmanagement.metrics.OperationStats;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.ReportService;
+import com.studentmanagement.services.StudentService;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load test for the HTTP API: {@code clients} virtual threads each issue read
+ * requests back to back for {@code seconds}, and per-endpoint throughput and latency
+ * percentiles are printed at the end. Without {@code --url} it serves a synthetic database
+ * in-process (same data as the JMH benchmarks). Run from the bench build:
+ * <pre>
+ *   java -cp target/benchmarks.jar com.studentmanagement.bench.ApiLoadTest \
+ *       [--clients 2000] [--seconds 20] [--students 10000] [--readers 4] [--url http://host:port]
+ *       [--endpoints student,search,summary,roster]
+ * </pre>
+ */
+public class ApiLoadTest {
+    private static final String ALL_ENDPOINTS = "student,search,summary,roster";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        int clients = Integer.parseInt(options.getOrDefault("clients", "2000"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "20"));
+        int students = Integer.parseInt(options.getOrDefault("students", "10000"));
+        int readers = Integer.parseInt(options.getOrDefault("readers", String.valueOf(DatabaseHandler.DEFAULT_READERS)));
+        String url = options.get("url");
+        String[] endpoints = options.getOrDefault("endpoints", ALL_ENDPOINTS).split(",");
+
+        File file = null;
+        DatabaseHandler db = null;
+        ApiServer server = null;
+        ReportService reportService = null;
+        if (url == null) {
+            Metrics.setEnabled(false);
+            file = SyntheticData.freshCopy(students, 50, 1);
+            db = new DatabaseHandler("jdbc:sqlite:" + file.getPath(), readers);
+            StudentService studentService = new StudentService(db);
+            AttendanceService attendanceService = new AttendanceService(db);
+            reportService = new ReportService(db, studentService, attendanceService);
+            server = new ApiServer(new InetSocketAddress("127.0.0.1", 0), db, studentService, attendanceService, reportService);
+            server.start();
+            url = "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+        System.out.printf("%d clients for %d s against %s (%d students)%n", clients, seconds, url, students);
+        try {
+            run(url + "/api", endpoints, clients, seconds, students);
+        } finally {
+            if (server != null) server.close();
+            if (reportService != null) reportService.close();
+            if (db != null) db.close();
+            if (file != null) file.delete();
+        }
+    }
+
+    private static void run(String base, String[] endpoints, int clients, int seconds, int students) throws Exception {
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        for (String e : endpoints) stats.put(e, new OperationStats(e));
+        LongAdder errors = new LongAdder();
+        HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(Math.min(5, seconds / 4)).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                threads.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start > end) return null;
+                        String endpoint = endpoints[random.nextInt(endpoints.length)];
+                        int id = random.nextInt(1, students + 1);
+                        String path;
+                        switch (endpoint) {
+                            case "student": path = "/students/" + id; break;
+                            case "search": path = "/students?limit=20&q=" + SyntheticData.name(id).replace(' ', '+'); break;
+                            case "summary": path = "/students/" + id + "/summary"; break;
+                            case "roster": path = "/students?course=" + SyntheticData.course(id % 50); break;
+                            default: throw new IllegalArgumentException("Unknown endpoint: " + endpoint);
+                        }
+                        try {
+                            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(base + path)).build(),
+                                HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() != 200) errors.increment();
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        long now = System.nanoTime();
+                        if (now > warmupEnd) stats.get(endpoint).record(now - start);
+                    }
+                });
+            }
+        }
+        long total = 0;
+        System.out.printf("%-10s %10s %10s %10s %10s %10s%n", "endpoint", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (OperationStats s : stats.values()) {
+            total += s.getCount();
+            System.out.printf("%-10s %10.0f %10.2f %10.2f %10.2f %10.2f%n", s.getName(), s.getCount() / (double) seconds,
+                s.getPercentileNanos(50) / 1e6, s.getPercentileNanos(99) / 1e6, s.getPercentileNanos(99.9) / 1e6,
+                s.getMaxNanos() / 1e6);
+        }
+        System.out.printf("total      %10.0f req/s, %d errors%n", total / (double) seconds, errors.sum());
+    }
+}
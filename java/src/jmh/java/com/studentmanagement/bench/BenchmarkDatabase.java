@@ -0,0 +1,50 @@
+package com.studentmanagement.bench;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.metrics.Metrics;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.ReportService;
+import com.studentmanagement.services.StudentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.List;
+
+/** Shared per-trial state: a freshly copied synthetic database and the services over it. */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+    @Param({"1000"})
+    public int students;
+
+    @Param({"20"})
+    public int courses;
+
+    @Param({"1"})
+    public int years;
+
+    public File file;
+    public DatabaseHandler db;
+    public StudentService studentService;
+    public AttendanceService attendanceService;
+    public ReportService reportService;
+    public List<LocalDate> schoolDays;
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        Metrics.setEnabled(false);
+        file = SyntheticData.freshCopy(students, courses, years);
+        db = new DatabaseHandler("jdbc:sqlite:" + file.getPath(), 4);
+        studentService = new StudentService(db);
+        attendanceService = new AttendanceService(db);
+        reportService = new ReportService(db, studentService, attendanceService);
+        schoolDays = SyntheticData.schoolDays(years);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        reportService.close();
+        db.close();
+        file.delete();
+    }
+}
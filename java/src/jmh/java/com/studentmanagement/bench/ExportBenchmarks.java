@@ -0,0 +1,66 @@
+package com.studentmanagement.bench;
+
+import com.studentmanagement.services.ExportFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExportBenchmarks {
+    @Param({"CSV", "JSON", "PDF"})
+    public ExportFormat format;
+
+    private File target;
+
+    @Setup(Level.Trial)
+    public void createTarget() throws IOException {
+        target = File.createTempFile("sm-export-", "");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTarget() {
+        new File(format.withExtension(target.getPath())).delete();
+        target.delete();
+    }
+
+    @Benchmark
+    public String exportDailyReport(BenchmarkDatabase state) throws Exception {
+        return state.reportService.exportDailyReport(state.schoolDays.get(0).toString(), format, target.getPath());
+    }
+
+    @Benchmark
+    public String exportCourseReport(BenchmarkDatabase state) throws Exception {
+        return state.reportService.exportCourseReport(SyntheticData.course(0), format, target.getPath());
+    }
+
+    @Benchmark
+    public String exportStudentAttendance(BenchmarkDatabase state) throws Exception {
+        return state.reportService.exportStudentAttendance(1, format, target.getPath());
+    }
+
+    // One month of the whole institution's raw attendance rows
+    @Benchmark
+    public String exportAttendanceRange(BenchmarkDatabase state) throws Exception {
+        LocalDate from = SyntheticData.FIRST_DAY;
+        return state.reportService.exportAttendanceRange(from.toString(), from.plusMonths(1).toString(), format, target.getPath());
+    }
+
+    @Benchmark
+    public String exportMonthlyReport(BenchmarkDatabase state) throws Exception {
+        LocalDate day = SyntheticData.FIRST_DAY;
+        var report = state.reportService.generateMonthlyAttendanceReport(day.getYear(), day.getMonthValue());
+        return switch (format) {
+            case CSV -> state.reportService.exportReportToCSV(report, target.getPath());
+            case JSON -> state.reportService.exportReportToJSON(report, target.getPath());
+            case PDF -> state.reportService.exportReportToPDF(report, target.getPath());
+        };
+    }
+}
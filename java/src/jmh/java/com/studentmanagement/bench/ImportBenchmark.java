@@ -0,0 +1,131 @@
+package com.studentmanagement.bench;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.importer.ImportResult;
+import com.studentmanagement.importer.ImportService;
+import com.studentmanagement.metrics.Metrics;
+import com.studentmanagement.models.Student;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.StudentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk loads into a fresh database per invocation: a registrar attendance feed of
+ * {@code students x days} rows in CSV and JSON, and a roster through the importer versus the
+ * per-row {@code addStudent} loop it replaces.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class ImportBenchmark {
+    @Param({"10000"})
+    public int students;
+
+    @Param({"100"})
+    public int days;
+
+    @Param({"50"})
+    public int courses;
+
+    private File attendanceCsv;
+    private File attendanceJson;
+    private File rosterCsv;
+    private File file;
+    private DatabaseHandler db;
+    private StudentService studentService;
+    private ImportService importService;
+
+    @Setup(Level.Trial)
+    public void writeInputs() throws IOException {
+        attendanceCsv = File.createTempFile("sm-bench-attendance-", ".csv");
+        attendanceJson = File.createTempFile("sm-bench-attendance-", ".json");
+        rosterCsv = File.createTempFile("sm-bench-roster-", ".csv");
+        List<LocalDate> schoolDays = SyntheticData.schoolDays(1).subList(0, days);
+        Random random = new Random(42L);
+        try (Writer csv = writer(attendanceCsv); Writer json = writer(attendanceJson)) {
+            csv.write("student_id,date,status\n");
+            json.write("[");
+            boolean first = true;
+            for (LocalDate day : schoolDays) {
+                for (int id = 1; id <= students; id++) {
+                    String status = random.nextDouble() < 0.9 ? "Present" : "Absent";
+                    csv.write(id + "," + day + "," + status + "\n");
+                    json.write((first ? "" : ",\n") + "{\"student_id\":" + id + ",\"date\":\"" + day
+                        + "\",\"status\":\"" + status + "\"}");
+                    first = false;
+                }
+            }
+            json.write("]\n");
+        }
+        try (Writer csv = writer(rosterCsv)) {
+            csv.write("name,course\n");
+            for (int i = 1; i <= students; i++) {
+                csv.write("Imported " + i + "," + SyntheticData.course(i % courses) + "\n");
+            }
+        }
+    }
+
+    private static Writer writer(File f) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(f), StandardCharsets.UTF_8));
+    }
+
+    @Setup(Level.Invocation)
+    public void open() throws Exception {
+        Metrics.setEnabled(false);
+        file = SyntheticData.freshCopy(students, courses, 0);
+        db = new DatabaseHandler("jdbc:sqlite:" + file.getPath(), 4);
+        studentService = new StudentService(db);
+        importService = new ImportService(db, studentService, new AttendanceService(db));
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() {
+        db.close();
+        file.delete();
+        new File(file.getPath() + "-wal").delete();
+        new File(file.getPath() + "-shm").delete();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteInputs() throws IOException {
+        Files.deleteIfExists(attendanceCsv.toPath());
+        Files.deleteIfExists(attendanceJson.toPath());
+        Files.deleteIfExists(rosterCsv.toPath());
+    }
+
+    @Benchmark
+    public ImportResult attendanceCsv() throws Exception {
+        return importService.importAttendance(attendanceCsv, null, null, ImportService.DEFAULT_BATCH_SIZE);
+    }
+
+    @Benchmark
+    public ImportResult attendanceJson() throws Exception {
+        return importService.importAttendance(attendanceJson, null, null, ImportService.DEFAULT_BATCH_SIZE);
+    }
+
+    @Benchmark
+    public ImportResult rosterImport() throws Exception {
+        return importService.importStudents(rosterCsv, null, null, ImportService.DEFAULT_BATCH_SIZE);
+    }
+
+    @Benchmark
+    public int rosterAddStudentLoop() throws Exception {
+        int n = 0;
+        for (int i = 1; i <= students; i++) {
+            studentService.addStudent(new Student("Imported " + i, SyntheticData.course(i % courses)));
+            n++;
+        }
+        return n;
+    }
+}
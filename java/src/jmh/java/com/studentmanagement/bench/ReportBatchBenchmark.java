@@ -0,0 +1,99 @@
+package com.studentmanagement.bench;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.metrics.Metrics;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.ExportFormat;
+import com.studentmanagement.services.ReportBatch;
+import com.studentmanagement.services.ReportService;
+import com.studentmanagement.services.StudentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** End-of-term batches: every course exported, and a slice of per-student reports, serially and in parallel. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class ReportBatchBenchmark {
+    @Param({"10000"})
+    public int students;
+
+    @Param({"50"})
+    public int courses;
+
+    @Param({"1"})
+    public int years;
+
+    @Param({"4"})
+    public int readers;
+
+    @Param({"500"})
+    public int studentReports;
+
+    private File file;
+    private File outDir;
+    private DatabaseHandler db;
+    private ReportService reportService;
+    private List<String> courseNames;
+    private List<Integer> studentIds;
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        Metrics.setEnabled(false);
+        file = SyntheticData.freshCopy(students, courses, years);
+        outDir = Files.createTempDirectory("sm-bench-reports").toFile();
+        db = new DatabaseHandler("jdbc:sqlite:" + file.getPath(), readers);
+        StudentService studentService = new StudentService(db);
+        reportService = new ReportService(db, studentService, new AttendanceService(db));
+        courseNames = studentService.getAllCourses();
+        studentIds = new ArrayList<>();
+        for (int i = 1; i <= studentReports; i++) studentIds.add(i * (students / studentReports));
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        reportService.close();
+        db.close();
+        File[] files = outDir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        outDir.delete();
+        file.delete();
+    }
+
+    @Benchmark
+    public int exportCoursesSerial() throws Exception {
+        int n = 0;
+        for (String course : courseNames) {
+            reportService.exportCourseReport(course, ExportFormat.CSV, new File(outDir, course).getPath());
+            n++;
+        }
+        return n;
+    }
+
+    @Benchmark
+    public int exportCoursesParallel() throws Exception {
+        return reportService.exportCourseReports(courseNames, ExportFormat.CSV, outDir).awaitAll().size();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> studentReportsSerial() throws Exception {
+        // Kept, as a batch caller would, so both sides retain the same reports
+        List<Map<String, Object>> reports = new ArrayList<>();
+        for (int id : studentIds) reports.add(reportService.generateStudentAttendanceReport(id));
+        return reports;
+    }
+
+    @Benchmark
+    public List<ReportBatch.Outcome<Integer, Map<String, Object>>> studentReportsParallel() throws Exception {
+        return reportService.generateStudentReports(studentIds).awaitAll();
+    }
+}
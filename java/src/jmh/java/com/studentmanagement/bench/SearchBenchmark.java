@@ -0,0 +1,62 @@
+package com.studentmanagement.bench;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.metrics.Metrics;
+import com.studentmanagement.models.Page;
+import com.studentmanagement.models.Student;
+import com.studentmanagement.services.StudentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/** First-page latency of the ranked student search over a large student body (no attendance history). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"500000"})
+    public int students;
+
+    @Param({"200"})
+    public int courses;
+
+    private File file;
+    private DatabaseHandler db;
+    private StudentService studentService;
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        Metrics.setEnabled(false);
+        file = SyntheticData.freshCopy(students, courses, 0);
+        db = new DatabaseHandler("jdbc:sqlite:" + file.getPath(), 4);
+        studentService = new StudentService(db);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        db.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public Page<Student> firstPageByName() throws Exception {
+        return studentService.searchStudents(SyntheticData.name(ThreadLocalRandom.current().nextInt(1, students + 1)), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<Student> firstPageByCourse() throws Exception {
+        return studentService.searchStudents(SyntheticData.course(ThreadLocalRandom.current().nextInt(courses)), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<Student> firstPageShortTerm() throws Exception {
+        return studentService.searchStudents(String.valueOf(ThreadLocalRandom.current().nextInt(10, 100)), 0, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,69 @@
+package com.studentmanagement.bench;
+
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmarks {
+
+    @Benchmark
+    public Student getStudentById(BenchmarkDatabase state) throws Exception {
+        return state.studentService.getStudentById(ThreadLocalRandom.current().nextInt(1, state.students + 1));
+    }
+
+    @Benchmark
+    public List<Student> searchStudents(BenchmarkDatabase state) throws Exception {
+        return state.studentService.searchStudents("Student " + ThreadLocalRandom.current().nextInt(1, state.students + 1));
+    }
+
+    @Benchmark
+    public Attendance recordAttendance(BenchmarkDatabase state) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate day = state.schoolDays.get(random.nextInt(state.schoolDays.size()));
+        AttendanceStatus status = random.nextBoolean() ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT;
+        return state.attendanceService.recordAttendance(new Attendance(random.nextInt(1, state.students + 1), day.toString(), status));
+    }
+
+    @Benchmark
+    public Map<String, Object> getMonthlyAttendanceReport(BenchmarkDatabase state) throws Exception {
+        LocalDate day = state.schoolDays.get(ThreadLocalRandom.current().nextInt(state.schoolDays.size()));
+        return state.attendanceService.getMonthlyAttendanceReport(day.getYear(), day.getMonthValue());
+    }
+
+    @Benchmark
+    public Map<String, Object> generateDailyAttendanceReport(BenchmarkDatabase state) throws Exception {
+        LocalDate day = state.schoolDays.get(ThreadLocalRandom.current().nextInt(state.schoolDays.size()));
+        return state.reportService.generateDailyAttendanceReport(day.toString());
+    }
+
+    @Benchmark
+    public Map<String, Object> generateDailyAttendanceSummary(BenchmarkDatabase state) throws Exception {
+        LocalDate day = state.schoolDays.get(ThreadLocalRandom.current().nextInt(state.schoolDays.size()));
+        return state.reportService.generateDailyAttendanceReport(day.toString(), false);
+    }
+
+    @Benchmark
+    public Map<String, Object> generateAbsentEveryDayReport(BenchmarkDatabase state) throws Exception {
+        // A school week: five bitmap ANDs
+        int start = ThreadLocalRandom.current().nextInt(state.schoolDays.size() - 5);
+        return state.reportService.generateAbsentEveryDayReport(state.schoolDays.get(start).toString(),
+            state.schoolDays.get(start + 4).toString());
+    }
+
+    @Benchmark
+    public Map<String, Object> generateCourseAttendanceReport(BenchmarkDatabase state) throws Exception {
+        return state.reportService.generateCourseAttendanceReport(SyntheticData.course(ThreadLocalRandom.current().nextInt(state.courses)));
+    }
+}
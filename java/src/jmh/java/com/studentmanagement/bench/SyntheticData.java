@@ -0,0 +1,93 @@
+package com.studentmanagement.bench;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.services.AttendanceService;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Generates a deterministic student body and daily (weekday) attendance history. Generated
+ * databases are kept as templates in the temp directory and copied per trial, so repeated
+ * runs with the same parameters skip generation and write benchmarks never share state.
+ */
+public final class SyntheticData {
+    public static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 6);
+    private static final double PRESENT_RATE = 0.9;
+
+    private SyntheticData() {
+    }
+
+    public static String course(int index) {
+        return (char) ('A' + index / 26 % 26) + "" + (char) ('A' + index % 26) + (100 + index / 676 % 900);
+    }
+
+    public static String name(int index) {
+        return "Student " + index;
+    }
+
+    public static List<LocalDate> schoolDays(int years) {
+        List<LocalDate> days = new ArrayList<>();
+        LocalDate end = FIRST_DAY.plusYears(years);
+        for (LocalDate d = FIRST_DAY; d.isBefore(end); d = d.plusDays(1)) {
+            if (d.getDayOfWeek() != DayOfWeek.SATURDAY && d.getDayOfWeek() != DayOfWeek.SUNDAY) days.add(d);
+        }
+        return days;
+    }
+
+    /** Returns a fresh copy of a database holding the requested data, generating the template if needed. */
+    public static File freshCopy(int students, int courses, int years) throws IOException, SQLException {
+        File template = new File(System.getProperty("java.io.tmpdir"),
+            String.format("sm-bench-%d-%d-%d.db", students, courses, years));
+        if (!template.exists()) {
+            File partial = new File(template.getPath() + ".tmp");
+            Files.deleteIfExists(partial.toPath());
+            try (DatabaseHandler db = new DatabaseHandler("jdbc:sqlite:" + partial.getPath(), 1)) {
+                populate(db, students, courses, years, 42L);
+            }
+            Files.move(partial.toPath(), template.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } else {
+            // Templates written by an older build are migrated once here instead of in every trial
+            new DatabaseHandler("jdbc:sqlite:" + template.getPath(), 1).close();
+        }
+        File copy = File.createTempFile("sm-bench-", ".db");
+        copy.deleteOnExit();
+        Files.copy(template.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return copy;
+    }
+
+    public static void populate(DatabaseHandler db, int students, int courses, int years, long seed) throws SQLException {
+        db.inTransaction(conn -> {
+            PreparedStatement insert = db.prepare(conn, "INSERT INTO students (name, course, enrollment_date) VALUES (?, ?, ?);");
+            for (int i = 1; i <= students; i++) {
+                insert.setString(1, name(i));
+                insert.setString(2, course(i % courses));
+                insert.setString(3, FIRST_DAY.toString());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            return null;
+        });
+
+        AttendanceService attendance = new AttendanceService(db);
+        Random random = new Random(seed);
+        List<Attendance> roll = new ArrayList<>(students);
+        for (LocalDate day : schoolDays(years)) {
+            String date = day.toString();
+            roll.clear();
+            for (int id = 1; id <= students; id++) {
+                AttendanceStatus status = random.nextDouble() < PRESENT_RATE ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT;
+                roll.add(new Attendance(id, date, status));
+            }
+            attendance.recordAttendanceBatch(roll);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.studentmanagement.bench;
+
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.Student;
+import com.studentmanagement.validation.RecordValidator;
+import com.studentmanagement.validation.ValidationResult;
+import com.studentmanagement.validation.Validators;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Per-row cost of input validation: the course check as {@code String.matches} (a Pattern
+ * compiled per call), as a precompiled Pattern and as the hand-written scanner; ISO dates via
+ * {@code LocalDate.parse} against the scanner; and whole batches collecting per-row errors against
+ * throwing per bad row. Every batch has {@link #ROWS} rows, one in ten invalid, and scores are per row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+    private static final int ROWS = 1000;
+    private static final Pattern COURSE_PATTERN = Pattern.compile("[A-Za-z]{2}\\d{1,3}");
+    private static final String[] BAD_COURSES = {"CS1010", "C5101", "cs", "", "CS 101"};
+    private static final String[] BAD_DATES = {"2024-02-30", "2024-13-01", "2024/01/05", "24-01-05", ""};
+
+    private String[] courses;
+    private String[] dates;
+    private String[] statuses;
+    private List<Student> students;
+    private List<Attendance> records;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        courses = new String[ROWS];
+        dates = new String[ROWS];
+        statuses = new String[ROWS];
+        students = new ArrayList<>(ROWS);
+        records = new ArrayList<>(ROWS);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < ROWS; i++) {
+            boolean bad = i % 10 == 9;
+            courses[i] = bad ? BAD_COURSES[random.nextInt(BAD_COURSES.length)] : SyntheticData.course(random.nextInt(50));
+            dates[i] = bad ? BAD_DATES[random.nextInt(BAD_DATES.length)] : start.plusDays(random.nextInt(365)).toString();
+            statuses[i] = bad ? "Late" : random.nextBoolean() ? "Present" : "absent";
+            students.add(new Student(null, bad && random.nextBoolean() ? " " : SyntheticData.name(i + 1), courses[i], null));
+            records.add(new Attendance(bad ? null : i + 1, dates[i], AttendanceStatus.parse(statuses[i])));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int courseStringMatches() {
+        int ok = 0;
+        for (String c : courses) if (c.matches("^[A-Za-z]{2}\\d{1,3}$")) ok++;
+        return ok;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int coursePrecompiledPattern() {
+        int ok = 0;
+        for (String c : courses) if (COURSE_PATTERN.matcher(c).matches()) ok++;
+        return ok;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int courseScanner() {
+        int ok = 0;
+        for (String c : courses) if (Validators.isValidCourse(c)) ok++;
+        return ok;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int dateLocalDateParse() {
+        int ok = 0;
+        for (String d : dates) {
+            try {
+                LocalDate.parse(d);
+                ok++;
+            } catch (DateTimeParseException e) {
+                // rejected
+            }
+        }
+        return ok;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int dateScanner() {
+        int ok = 0;
+        for (String d : dates) if (Validators.isValidIsoDate(d)) ok++;
+        return ok;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int statusFromValue() {
+        int ok = 0;
+        for (String s : statuses) {
+            try {
+                AttendanceStatus.fromValue(s);
+                ok++;
+            } catch (IllegalArgumentException e) {
+                // rejected
+            }
+        }
+        return ok;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int statusParse() {
+        int ok = 0;
+        for (String s : statuses) if (AttendanceStatus.parse(s) != null) ok++;
+        return ok;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ValidationResult<Student> validateStudentBatch() {
+        return RecordValidator.validateStudents(students);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void validateStudentsThrowingPerRow(Blackhole bh) {
+        for (Student s : students) {
+            try {
+                RecordValidator.requireValid(s);
+                bh.consume(s);
+            } catch (IllegalArgumentException e) {
+                bh.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ValidationResult<Attendance> validateAttendanceBatch() {
+        return RecordValidator.validateAttendance(records);
+    }
+}
@@ -0,0 +1,69 @@
+package com.studentmanagement.bench;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.database.SqliteProfile;
+import com.studentmanagement.metrics.Metrics;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.WriteDurability;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent single attendance writes, each caller waiting on its own future: synchronous
+ * upserts ({@code OFF}) against the write-behind queue in each durability mode.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class WriteBehindBenchmark {
+    private static final int STUDENTS = 1000;
+
+    @Param({"OFF", "ACCEPTED", "COMMITTED", "SYNCED"})
+    public String writeBehind;
+
+    @Param({"BALANCED"})
+    public SqliteProfile profile;
+
+    private File file;
+    private DatabaseHandler db;
+    private AttendanceService attendanceService;
+    private List<LocalDate> days;
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        Metrics.setEnabled(false);
+        file = SyntheticData.freshCopy(STUDENTS, 20, 1);
+        db = new DatabaseHandler("jdbc:sqlite:" + file.getPath(), 4, profile);
+        attendanceService = new AttendanceService(db);
+        if (!writeBehind.equals("OFF")) attendanceService.enableWriteBehind(WriteDurability.fromValue(writeBehind));
+        days = SyntheticData.schoolDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        attendanceService.disableWriteBehind();
+        db.close();
+        file.delete();
+        new File(file.getPath() + "-wal").delete();
+        new File(file.getPath() + "-shm").delete();
+    }
+
+    @Benchmark
+    public Attendance record() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String date = days.get(random.nextInt(days.size())).toString();
+        AttendanceStatus status = random.nextBoolean() ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT;
+        return attendanceService.recordAttendanceAsync(new Attendance(random.nextInt(1, STUDENTS + 1), date, status)).join();
+    }
+}
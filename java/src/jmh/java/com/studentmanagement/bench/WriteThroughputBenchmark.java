@@ -0,0 +1,73 @@
+package com.studentmanagement.bench;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.database.SqliteProfile;
+import com.studentmanagement.metrics.Metrics;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceBatchResult;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.services.AttendanceService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Attendance write throughput under each connection profile, for single upserts and roll-call batches. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WriteThroughputBenchmark {
+    private static final int STUDENTS = 1000;
+
+    @Param({"LEGACY", "DURABLE", "BALANCED", "FAST"})
+    public SqliteProfile profile;
+
+    private File file;
+    private DatabaseHandler db;
+    private AttendanceService attendanceService;
+    private List<LocalDate> days;
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        Metrics.setEnabled(false);
+        file = SyntheticData.freshCopy(STUDENTS, 20, 1);
+        db = new DatabaseHandler("jdbc:sqlite:" + file.getPath(), 4, profile);
+        attendanceService = new AttendanceService(db);
+        days = SyntheticData.schoolDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        db.close();
+        file.delete();
+        new File(file.getPath() + "-wal").delete();
+        new File(file.getPath() + "-shm").delete();
+    }
+
+    @Benchmark
+    public Attendance singleUpsert() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String date = days.get(random.nextInt(days.size())).toString();
+        AttendanceStatus status = random.nextBoolean() ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT;
+        return attendanceService.recordAttendance(new Attendance(random.nextInt(1, STUDENTS + 1), date, status));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STUDENTS)
+    public AttendanceBatchResult rollCallBatch() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String date = days.get(random.nextInt(days.size())).toString();
+        List<Attendance> roll = new ArrayList<>(STUDENTS);
+        for (int id = 1; id <= STUDENTS; id++) {
+            roll.add(new Attendance(id, date, random.nextBoolean() ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT));
+        }
+        return attendanceService.recordAttendanceBatch(roll);
+    }
+}
@@ -1,16 +1,62 @@
 package com.studentmanagement;
 
 import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.database.SqliteProfile;
 import com.studentmanagement.cli.CLI;
+import com.studentmanagement.cli.CommandRunner;
+import com.studentmanagement.services.WriteDurability;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class Main {
     public static void main(String[] args) {
         try {
-            // Initialize database schema
-            new DatabaseHandler();
+            SqliteProfile profile = SqliteProfile.fromSystemProperty();
+            boolean explain = false;
+            WriteDurability writeBehind = null;
+            String dbFile = null;
+            int readers = DatabaseHandler.DEFAULT_READERS;
+            // Anything that isn't a global option is a headless command and its arguments
+            List<String> command = new ArrayList<>();
+            for (String arg : args) {
+                if (arg.startsWith("--db-profile=")) {
+                    profile = SqliteProfile.fromValue(arg.substring("--db-profile=".length()));
+                } else if (arg.startsWith("--db=")) {
+                    dbFile = arg.substring("--db=".length());
+                } else if (arg.startsWith("--db-readers=")) {
+                    readers = Integer.parseInt(arg.substring("--db-readers=".length()));
+                } else if (arg.startsWith("--write-behind=")) {
+                    writeBehind = WriteDurability.fromValue(arg.substring("--write-behind=".length()));
+                } else if (arg.equals("--explain")) {
+                    explain = true;
+                } else {
+                    command.add(arg);
+                }
+            }
+
+            // Initialize database schema and the shared connection pool
+            DatabaseHandler dbHandler = new DatabaseHandler("jdbc:sqlite:" + (dbFile == null ? DatabaseHandler.DEFAULT_DB_FILE : dbFile),
+                readers, profile);
+            if (explain) dbHandler.setExplainQueryPlans(true);
 
-            // Start the command-line interface
-            CLI cli = new CLI();
+            if (!command.isEmpty()) {
+                int status;
+                CommandRunner runner = new CommandRunner(dbHandler, writeBehind);
+                try {
+                    status = runner.run(command);
+                } finally {
+                    runner.shutdown();
+                    dbHandler.close();
+                }
+                System.exit(status);
+            }
+            // Start the command-line interface; queued attendance writes are flushed before the database closes
+            CLI cli = new CLI(dbHandler, writeBehind);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                cli.shutdown();
+                dbHandler.close();
+            }, "db-shutdown"));
             cli.start();
         } catch (Exception e) {
             System.err.println("Fatal error: " + e.getMessage());
@@ -18,4 +64,4 @@ public class Main {
             System.exit(1);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,462 @@
+package com.studentmanagement.analytics;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.database.EpochDays;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.ChangeListener;
+import com.studentmanagement.services.StudentService;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory, day-major columnar copy of attendance for ad-hoc analytics. Every epoch day holds two
+ * bitsets indexed by student id, one marking students with a record that day and one marking the
+ * present ones, so a record costs two bits and every scan is a loop over primitive words. Course
+ * membership is one bitset per course, which turns per-course counts into AND + bitCount.
+ *
+ * <p>{@link #attach} registers with the services before loading, so no write made through them is
+ * missed; writes that bypass the services (raw SQL, other processes) are only picked up by
+ * {@link #reload}.
+ */
+public class AttendanceColumns implements ChangeListener {
+    private final DatabaseHandler db;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Slot i holds epoch day baseDay + i; slots for days without records stay null
+    private long baseDay;
+    private long[][] recorded = new long[0][];
+    private long[][] present = new long[0][];
+    private int words;
+    private long rows;
+    // By student id: dense course index, or -1 for unknown students
+    private int[] courseOf = new int[0];
+    private List<String> courseNames = new ArrayList<>();
+    private Map<String, Integer> courseIndex = new HashMap<>();
+    private List<long[]> courseMembers = new ArrayList<>();
+    // Changes that arrive while a reload reads the database, replayed on top of its snapshot
+    private List<Runnable> pending;
+
+    private AttendanceColumns(DatabaseHandler db) {
+        this.db = db;
+    }
+
+    /** Loads the store and keeps it current with writes made through the given services. */
+    public static AttendanceColumns attach(DatabaseHandler db, StudentService students, AttendanceService attendance)
+            throws SQLException {
+        AttendanceColumns columns = new AttendanceColumns(db);
+        students.addChangeListener(columns);
+        attendance.addChangeListener(columns);
+        try {
+            columns.reload();
+        } catch (SQLException e) {
+            students.removeChangeListener(columns);
+            attendance.removeChangeListener(columns);
+            throw e;
+        }
+        return columns;
+    }
+
+    /** Re-reads everything from the database in one read snapshot, without blocking queries meanwhile. */
+    public synchronized void reload() throws SQLException {
+        write(() -> pending = new ArrayList<>());
+        AttendanceColumns fresh = new AttendanceColumns(db);
+        boolean loaded = false;
+        try {
+            db.withReader(conn -> {
+                conn.setAutoCommit(false);
+                try {
+                    fresh.readAll(conn);
+                } finally {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                }
+                return null;
+            });
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // On failure the old state is kept and merely brought forward
+                if (loaded) {
+                    baseDay = fresh.baseDay;
+                    recorded = fresh.recorded;
+                    present = fresh.present;
+                    words = fresh.words;
+                    rows = fresh.rows;
+                    courseOf = fresh.courseOf;
+                    courseNames = fresh.courseNames;
+                    courseIndex = fresh.courseIndex;
+                    courseMembers = fresh.courseMembers;
+                }
+                List<Runnable> changes = pending;
+                pending = null;
+                for (Runnable change : changes) change.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void readAll(Connection conn) throws SQLException {
+        try (ResultSet rs = db.prepare(conn, "SELECT MAX(student_id) FROM students;").executeQuery()) {
+            if (rs.next()) words = (rs.getInt(1) >>> 6) + 1;
+        }
+        try (ResultSet rs = db.prepare(conn, "SELECT MIN(date), MAX(date) FROM attendance;").executeQuery()) {
+            if (rs.next() && rs.getObject(1) != null) {
+                slot(rs.getLong(1));
+                slot(rs.getLong(2));
+            }
+        }
+        PreparedStatement students = db.prepare(conn, "SELECT student_id, course FROM students;");
+        students.setFetchSize(db.getFetchSize());
+        try (ResultSet rs = students.executeQuery()) {
+            while (rs.next()) applyStudent(rs.getInt(1), rs.getString(2));
+        }
+        PreparedStatement attendance = db.prepare(conn, "SELECT student_id, date, status FROM attendance;");
+        attendance.setFetchSize(db.getFetchSize());
+        try (ResultSet rs = attendance.executeQuery()) {
+            while (rs.next()) applyRecord(rs.getInt(1), rs.getLong(2), rs.getInt(3) == AttendanceStatus.PRESENT.getCode());
+        }
+    }
+
+    // ========== Change tracking ==========
+
+    @Override
+    public void studentSaved(int studentId, String course) {
+        write(() -> applyStudent(studentId, course));
+    }
+
+    @Override
+    public void studentDeleted(int studentId) {
+        write(() -> applyStudentDeleted(studentId));
+    }
+
+    @Override
+    public void attendanceRecorded(int studentId, String date, AttendanceStatus status) {
+        long day = EpochDays.fromIso(date);
+        boolean isPresent = status == AttendanceStatus.PRESENT;
+        write(() -> applyRecord(studentId, day, isPresent));
+    }
+
+    @Override
+    public void attendanceDeleted(int studentId, String date) {
+        long day = EpochDays.fromIso(date);
+        write(() -> applyDelete(studentId, day));
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) pending.add(change);
+            else change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyRecord(int studentId, long day, boolean isPresent) {
+        int s = slot(day);
+        int w = studentId >>> 6;
+        long bit = 1L << studentId;
+        if (recorded[s] == null || recorded[s].length <= w) {
+            int size = Math.max(Math.max(words, w + 1), recorded[s] == null ? 0 : recorded[s].length);
+            recorded[s] = recorded[s] == null ? new long[size] : Arrays.copyOf(recorded[s], size);
+            present[s] = present[s] == null ? new long[size] : Arrays.copyOf(present[s], size);
+            words = Math.max(words, size);
+        }
+        if ((recorded[s][w] & bit) == 0) rows++;
+        recorded[s][w] |= bit;
+        if (isPresent) present[s][w] |= bit;
+        else present[s][w] &= ~bit;
+    }
+
+    private void applyDelete(int studentId, long day) {
+        long offset = day - baseDay;
+        if (offset < 0 || offset >= recorded.length) return;
+        clear((int) offset, studentId);
+    }
+
+    private void clear(int s, int studentId) {
+        int w = studentId >>> 6;
+        if (recorded[s] == null || recorded[s].length <= w) return;
+        long bit = 1L << studentId;
+        if ((recorded[s][w] & bit) != 0) rows--;
+        recorded[s][w] &= ~bit;
+        present[s][w] &= ~bit;
+    }
+
+    private void applyStudent(int studentId, String course) {
+        if (courseOf.length <= studentId) {
+            int old = courseOf.length;
+            courseOf = Arrays.copyOf(courseOf, Math.max(studentId + 1, old + old / 2));
+            Arrays.fill(courseOf, old, courseOf.length, -1);
+        }
+        Integer index = courseIndex.get(course);
+        if (index == null) {
+            index = courseNames.size();
+            courseIndex.put(course, index);
+            courseNames.add(course);
+            courseMembers.add(new long[0]);
+        }
+        int previous = courseOf[studentId];
+        if (previous == index) return;
+        if (previous >= 0) courseMembers.get(previous)[studentId >>> 6] &= ~(1L << studentId);
+        long[] members = courseMembers.get(index);
+        if (members.length <= studentId >>> 6) {
+            members = Arrays.copyOf(members, Math.max(words, (studentId >>> 6) + 1));
+            courseMembers.set(index, members);
+        }
+        members[studentId >>> 6] |= 1L << studentId;
+        courseOf[studentId] = index;
+    }
+
+    private void applyStudentDeleted(int studentId) {
+        if (studentId < courseOf.length && courseOf[studentId] >= 0) {
+            courseMembers.get(courseOf[studentId])[studentId >>> 6] &= ~(1L << studentId);
+            courseOf[studentId] = -1;
+        }
+        for (int s = 0; s < recorded.length; s++) clear(s, studentId);
+    }
+
+    // Slot index for a day, growing the day axis in either direction as needed
+    private int slot(long day) {
+        if (recorded.length == 0) {
+            baseDay = day;
+            recorded = new long[1][];
+            present = new long[1][];
+            return 0;
+        }
+        long offset = day - baseDay;
+        if (offset < 0) {
+            int shift = Math.toIntExact(-offset);
+            long[][] r = new long[recorded.length + shift][];
+            long[][] p = new long[present.length + shift][];
+            System.arraycopy(recorded, 0, r, shift, recorded.length);
+            System.arraycopy(present, 0, p, shift, present.length);
+            recorded = r;
+            present = p;
+            baseDay = day;
+            return 0;
+        }
+        if (offset >= recorded.length) {
+            int size = Math.toIntExact(Math.max(offset + 1, recorded.length + recorded.length / 2));
+            recorded = Arrays.copyOf(recorded, size);
+            present = Arrays.copyOf(present, size);
+        }
+        return (int) offset;
+    }
+
+    // ========== Queries ==========
+
+    /** Attendance of every student with records between {@code from} and {@code to}, inclusive. */
+    public StudentRates ratesByStudent(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            int[] recordedDays = new int[words << 6];
+            int[] presentDays = new int[words << 6];
+            for (int s = firstSlot(from), last = lastSlot(to); s <= last; s++) {
+                long[] r = recorded[s];
+                if (r == null) continue;
+                long[] p = present[s];
+                for (int w = 0; w < r.length; w++) {
+                    long bits = r[w];
+                    long presentBits = p[w];
+                    while (bits != 0) {
+                        int b = Long.numberOfTrailingZeros(bits);
+                        int id = (w << 6) | b;
+                        recordedDays[id]++;
+                        presentDays[id] += (int) (presentBits >>> b) & 1;
+                        bits &= bits - 1;
+                    }
+                }
+            }
+            int n = 0;
+            for (int count : recordedDays) if (count > 0) n++;
+            int[] ids = new int[n], pres = new int[n], recs = new int[n];
+            for (int id = 0, i = 0; id < recordedDays.length; id++) {
+                if (recordedDays[id] == 0) continue;
+                ids[i] = id;
+                pres[i] = presentDays[id];
+                recs[i++] = recordedDays[id];
+            }
+            return new StudentRates(ids, pres, recs);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Totals per course between {@code from} and {@code to}, by course name. */
+    public SortedMap<String, AttendanceTotals> totalsByCourse(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            int courses = courseNames.size();
+            long[] total = new long[courses];
+            long[] presentTotal = new long[courses];
+            for (int s = firstSlot(from), last = lastSlot(to); s <= last; s++) {
+                long[] r = recorded[s];
+                if (r == null) continue;
+                long[] p = present[s];
+                for (int c = 0; c < courses; c++) {
+                    long[] m = courseMembers.get(c);
+                    int n = Math.min(m.length, r.length);
+                    long t = 0, pr = 0;
+                    for (int w = 0; w < n; w++) {
+                        t += Long.bitCount(r[w] & m[w]);
+                        pr += Long.bitCount(p[w] & m[w]);
+                    }
+                    total[c] += t;
+                    presentTotal[c] += pr;
+                }
+            }
+            SortedMap<String, AttendanceTotals> result = new TreeMap<>();
+            for (int c = 0; c < courses; c++) {
+                if (total[c] > 0) result.put(courseNames.get(c), new AttendanceTotals(presentTotal[c], total[c]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Totals per calendar day that has records, in date order. */
+    public SortedMap<LocalDate, AttendanceTotals> totalsByDay(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            SortedMap<LocalDate, AttendanceTotals> result = new TreeMap<>();
+            for (int s = firstSlot(from), last = lastSlot(to); s <= last; s++) {
+                if (recorded[s] == null) continue;
+                long t = popCount(recorded[s]);
+                if (t > 0) result.put(LocalDate.ofEpochDay(baseDay + s), new AttendanceTotals(popCount(present[s]), t));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Totals per day of the week, for spotting weekday patterns. */
+    public Map<DayOfWeek, AttendanceTotals> totalsByWeekday(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            long[] total = new long[7];
+            long[] presentTotal = new long[7];
+            for (int s = firstSlot(from), last = lastSlot(to); s <= last; s++) {
+                if (recorded[s] == null) continue;
+                // Epoch day 0 was a Thursday
+                int weekday = (int) Math.floorMod(baseDay + s + 3, 7L);
+                total[weekday] += popCount(recorded[s]);
+                presentTotal[weekday] += popCount(present[s]);
+            }
+            Map<DayOfWeek, AttendanceTotals> result = new EnumMap<>(DayOfWeek.class);
+            for (int d = 0; d < 7; d++) {
+                if (total[d] > 0) result.put(DayOfWeek.of(d + 1), new AttendanceTotals(presentTotal[d], total[d]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Students below {@code maxPercentage} attendance with at least {@code minDays} recorded days, worst first. */
+    public List<Integer> chronicAbsentees(LocalDate from, LocalDate to, double maxPercentage, int minDays) {
+        StudentRates rates = ratesByStudent(from, to);
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < rates.size(); i++) {
+            if (rates.getRecordedDays(i) >= minDays && rates.getPercentage(i) < maxPercentage) result.add(i);
+        }
+        result.sort(Comparator.comparingDouble(rates::getPercentage));
+        result.replaceAll(rates::getStudentId);
+        return result;
+    }
+
+    /**
+     * Longest run of consecutive recorded absences per student (days without a record do not
+     * break a run), for students whose longest run is at least {@code minLength}.
+     */
+    public Map<Integer, Integer> longestAbsenceStreaks(LocalDate from, LocalDate to, int minLength) {
+        lock.readLock().lock();
+        try {
+            int[] run = new int[words << 6];
+            int[] longest = new int[words << 6];
+            for (int s = firstSlot(from), last = lastSlot(to); s <= last; s++) {
+                long[] r = recorded[s];
+                if (r == null) continue;
+                long[] p = present[s];
+                for (int w = 0; w < r.length; w++) {
+                    long bits = r[w];
+                    while (bits != 0) {
+                        int b = Long.numberOfTrailingZeros(bits);
+                        int id = (w << 6) | b;
+                        if ((p[w] >>> b & 1) != 0) run[id] = 0;
+                        else if (++run[id] > longest[id]) longest[id] = run[id];
+                        bits &= bits - 1;
+                    }
+                }
+            }
+            Map<Integer, Integer> result = new TreeMap<>();
+            for (int id = 0; id < longest.length; id++) {
+                if (longest[id] >= Math.max(1, minLength)) result.put(id, longest[id]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public AttendanceTotals totals(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            long t = 0, p = 0;
+            for (int s = firstSlot(from), last = lastSlot(to); s <= last; s++) {
+                if (recorded[s] == null) continue;
+                t += popCount(recorded[s]);
+                p += popCount(present[s]);
+            }
+            return new AttendanceTotals(p, t);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getRecordCount() {
+        lock.readLock().lock();
+        try {
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Approximate heap used by the bitsets. */
+    public long getMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 16L * recorded.length + 4L * courseOf.length;
+            for (long[] r : recorded) if (r != null) bytes += 16L * r.length;
+            for (long[] m : courseMembers) bytes += 8L * m.length;
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int firstSlot(LocalDate from) {
+        return (int) Math.max(0, Math.min(from.toEpochDay() - baseDay, recorded.length));
+    }
+
+    private int lastSlot(LocalDate to) {
+        return (int) Math.min(recorded.length - 1L, to.toEpochDay() - baseDay);
+    }
+
+    private static long popCount(long[] bits) {
+        long count = 0;
+        for (long word : bits) count += Long.bitCount(word);
+        return count;
+    }
+}
@@ -0,0 +1,33 @@
+package com.studentmanagement.analytics;
+
+/** Present and recorded day counts for some group of attendance records. */
+public final class AttendanceTotals {
+    private final long present;
+    private final long total;
+
+    public AttendanceTotals(long present, long total) {
+        this.present = present;
+        this.total = total;
+    }
+
+    public long getPresent() {
+        return present;
+    }
+
+    public long getAbsent() {
+        return total - present;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public double getPercentage() {
+        return total > 0 ? Math.round(present * 100.0 / total * 100.0) / 100.0 : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return present + "/" + total + " (" + getPercentage() + "%)";
+    }
+}
@@ -0,0 +1,44 @@
+package com.studentmanagement.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Per-student attendance over a date range as parallel primitive arrays, ordered by student id.
+ * Only students with at least one recorded day are included.
+ */
+public final class StudentRates {
+    private final int[] studentIds;
+    private final int[] presentDays;
+    private final int[] recordedDays;
+
+    StudentRates(int[] studentIds, int[] presentDays, int[] recordedDays) {
+        this.studentIds = studentIds;
+        this.presentDays = presentDays;
+        this.recordedDays = recordedDays;
+    }
+
+    public int size() {
+        return studentIds.length;
+    }
+
+    public int getStudentId(int index) {
+        return studentIds[index];
+    }
+
+    public int getPresentDays(int index) {
+        return presentDays[index];
+    }
+
+    public int getRecordedDays(int index) {
+        return recordedDays[index];
+    }
+
+    public double getPercentage(int index) {
+        return Math.round(presentDays[index] * 100.0 / recordedDays[index] * 100.0) / 100.0;
+    }
+
+    /** Index of {@code studentId}, or a negative value if the student has no recorded days in range. */
+    public int indexOf(int studentId) {
+        return Arrays.binarySearch(studentIds, studentId);
+    }
+}
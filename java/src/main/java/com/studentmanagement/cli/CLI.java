@@ -1,29 +1,63 @@
 package com.studentmanagement.cli;
 
+import com.studentmanagement.analytics.AttendanceColumns;
+import com.studentmanagement.analytics.AttendanceTotals;
+import com.studentmanagement.analytics.StudentRates;
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.database.QueryPlanLog;
+import com.studentmanagement.metrics.Metrics;
+import com.studentmanagement.metrics.OperationStats;
+import com.studentmanagement.models.CursorPage;
+import com.studentmanagement.models.Page;
 import com.studentmanagement.models.Student;
 import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceBatchResult;
 import com.studentmanagement.models.AttendanceStatus;
 import com.studentmanagement.services.StudentService;
 import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.ExportFormat;
+import com.studentmanagement.services.ReportBatch;
 import com.studentmanagement.services.ReportService;
+import com.studentmanagement.services.StudentCache;
+import com.studentmanagement.services.WriteDurability;
+import java.io.File;
 import java.util.*;
+import java.util.function.Consumer;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
 
 
 public class CLI {
+    private final DatabaseHandler dbHandler;
     private final StudentService studentService;
     private final AttendanceService attendanceService;
     private final ReportService reportService;
     private final Scanner scanner;
     private final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int SEARCH_PAGE_SIZE = 20;
+    private static final int LIST_PAGE_SIZE = 20;
+    private AttendanceColumns analytics;
 
-    public CLI() throws Exception {
-        this.studentService = new StudentService(new com.studentmanagement.database.DatabaseHandler());
-        this.attendanceService = new AttendanceService(new com.studentmanagement.database.DatabaseHandler());
-        this.reportService = new ReportService(new com.studentmanagement.database.DatabaseHandler(), studentService, attendanceService);
+    public CLI(DatabaseHandler dbHandler) {
+        this(dbHandler, null);
+    }
+
+    /** With a non-null {@code writeBehind}, single attendance records go through the write-behind queue. */
+    public CLI(DatabaseHandler dbHandler, WriteDurability writeBehind) {
+        this.dbHandler = dbHandler;
+        this.studentService = new StudentService(dbHandler);
+        this.attendanceService = new AttendanceService(dbHandler);
+        this.reportService = new ReportService(dbHandler, studentService, attendanceService);
         this.scanner = new Scanner(System.in);
+        if (writeBehind != null) attendanceService.enableWriteBehind(writeBehind);
+    }
+
+    /** Commits any queued attendance writes and stops report workers; call before closing the database. */
+    public void shutdown() {
+        attendanceService.disableWriteBehind();
+        reportService.close();
     }
 
     public void start() {
@@ -45,6 +79,7 @@ public class CLI {
             System.out.println("1. Student Management");
             System.out.println("2. Attendance Management");
             System.out.println("3. Reports");
+            System.out.println("4. Performance Metrics");
             System.out.println("9. Exit");
             System.out.print("\nEnter your choice: ");
             String choice = scanner.nextLine().trim();
@@ -53,6 +88,7 @@ public class CLI {
                     case "1" -> showStudentMenu();
                     case "2" -> showAttendanceMenu();
                     case "3" -> showReportsMenu();
+                    case "4" -> showMetricsMenu();
                     case "9" -> { exitProgram(); return; }
                     default -> System.out.println("Invalid choice. Please try again.");
                 }
@@ -97,6 +133,7 @@ public class CLI {
             System.out.println("1. Record Attendance for a Student");
             System.out.println("2. Record Attendance for Multiple Students");
             System.out.println("3. View Attendance");
+            System.out.println("4. Students Absent Every Day in a Range");
             System.out.println("9. Back to Main Menu");
             System.out.print("\nEnter your choice: ");
             String choice = scanner.nextLine().trim();
@@ -105,6 +142,7 @@ public class CLI {
                 case "1" -> recordAttendance();
                 case "2" -> recordAttendanceBatch();
                 case "3" -> viewAttendance();
+                case "4" -> absentEveryDay();
                 default -> System.out.println("Invalid choice. Please try again.");
             }
         }
@@ -118,6 +156,9 @@ public class CLI {
             System.out.println("3. Course Attendance Report");
             System.out.println("4. Monthly Attendance Report");
             System.out.println("5. Export Report");
+            System.out.println("6. All Courses Overview");
+            System.out.println("7. Attendance Analytics");
+            System.out.println("8. Export All Course Reports");
             System.out.println("9. Back to Main Menu");
             System.out.print("\nEnter your choice: ");
             String choice = scanner.nextLine().trim();
@@ -128,11 +169,65 @@ public class CLI {
                 case "3" -> courseAttendanceReport();
                 case "4" -> monthlyAttendanceReport();
                 case "5" -> exportReport();
+                case "6" -> coursesOverview();
+                case "7" -> attendanceAnalytics();
+                case "8" -> exportAllCourseReports();
+                default -> System.out.println("Invalid choice. Please try again.");
+            }
+        }
+    }
+
+    private void showMetricsMenu() throws Exception {
+        while (true) {
+            System.out.println("\n=== Performance Metrics ===");
+            System.out.println("Collection is " + (Metrics.isEnabled() ? "ON" : "OFF"));
+            System.out.println("1. Show Metrics");
+            System.out.println("2. Reset Metrics");
+            System.out.println("3. " + (Metrics.isEnabled() ? "Disable" : "Enable") + " Collection");
+            System.out.println("4. Rebuild Attendance Rollups");
+            System.out.println("9. Back to Main Menu");
+            System.out.print("\nEnter your choice: ");
+            String choice = scanner.nextLine().trim();
+            if (choice.equals("9")) return;
+            switch (choice) {
+                case "1" -> showMetrics();
+                case "2" -> { Metrics.registry().reset(); System.out.println("Metrics reset."); }
+                case "3" -> Metrics.setEnabled(!Metrics.isEnabled());
+                case "4" -> {
+                    attendanceService.rebuildRollups();
+                    System.out.println("Attendance rollups rebuilt from raw records.");
+                }
                 default -> System.out.println("Invalid choice. Please try again.");
             }
         }
     }
 
+    private void showMetrics() {
+        List<OperationStats> stats = Metrics.registry().snapshot();
+        if (stats.isEmpty()) System.out.println("No metrics recorded yet.");
+        else {
+            System.out.printf("%-50s %10s %12s %12s %12s%n", "Operation", "Calls", "p50 (ms)", "p99 (ms)", "max (ms)");
+            System.out.println("-".repeat(100));
+            for (OperationStats op : stats) {
+                System.out.printf("%-50s %10d %12.3f %12.3f %12.3f%n", op.getName(), op.getCount(),
+                    op.getPercentileNanos(50) / 1e6, op.getPercentileNanos(99) / 1e6, op.getMaxNanos() / 1e6);
+            }
+        }
+        System.out.printf("%nDatabase profile: %s (journal=%s, synchronous=%s)%n", dbHandler.getProfile(),
+            dbHandler.getProfile().getJournalMode(), dbHandler.getProfile().getSynchronous());
+        System.out.printf("Statement cache: %d hits, %d misses%n", dbHandler.getStatementCacheHits(), dbHandler.getStatementCacheMisses());
+        QueryPlanLog plans = dbHandler.getQueryPlanLog();
+        if (plans != null) {
+            System.out.printf("Query plans: %d statements explained, %d with full scans%n", plans.getExplainedCount(), plans.getFullScans().size());
+            plans.getFullScans().forEach(sql -> System.out.println("  " + sql));
+        }
+        StudentCache cache = studentService.getCache();
+        System.out.printf("Student cache: %d/%d entries%s, %d hits, %d misses, %d evictions, hit ratio %.1f%%%n",
+            cache.size(), cache.getMaxEntries(), cache.isComplete() ? " (complete)" : "",
+            cache.getHits(), cache.getMisses(), cache.getEvictions(), cache.getHitRatio() * 100);
+        pause();
+    }
+
     // ========== Student Commands ==========
     private void addStudent() throws Exception {
         System.out.println("\n--- Add New Student ---");
@@ -161,14 +256,12 @@ public class CLI {
 
     private void listStudents() throws Exception {
         System.out.println("\n--- Student List ---");
-        List<Student> list = studentService.getAllStudents();
-        if (list.isEmpty()) { System.out.println("No students found."); pause(); return; }
-        System.out.printf("Total: %d students\n", list.size());
-        System.out.printf("%-5s %-30s %-10s\n", "ID", "Name", "Course");
-        for (Student s : list) {
-            System.out.printf("%-5d %-30s %-10s\n", s.getStudentId(), s.getName(), s.getCourse());
-        }
-        pause();
+        showPages(token -> studentService.getStudentsPage(token, LIST_PAGE_SIZE), page -> {
+            System.out.printf("%-5s %-30s %-10s\n", "ID", "Name", "Course");
+            for (Student s : page) {
+                System.out.printf("%-5d %-30s %-10s\n", s.getStudentId(), s.getName(), s.getCourse());
+            }
+        }, "No students found.");
     }
 
     private void updateStudent() throws Exception {
@@ -222,13 +315,17 @@ public class CLI {
         System.out.println("\n--- Search Students ---");
         System.out.print("Enter search term: ");
         String term = scanner.nextLine().trim();
-        List<Student> results = studentService.searchStudents(term);
-        if (results.isEmpty()) System.out.println("No students found.");
-        else {
+        Page<Student> page = studentService.searchStudents(term, 0, SEARCH_PAGE_SIZE);
+        if (page.isEmpty()) System.out.println("No students found.");
+        while (!page.isEmpty()) {
             System.out.printf("%-5s %-30s %-10s\n", "ID", "Name", "Course");
-            for (Student s : results) {
+            for (Student s : page.getItems()) {
                 System.out.printf("%-5d %-30s %-10s\n", s.getStudentId(), s.getName(), s.getCourse());
             }
+            if (!page.hasMore()) break;
+            System.out.print("Press Enter for more results, or 'q' to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) return;
+            page = studentService.searchStudents(term, page.getNextOffset(), SEARCH_PAGE_SIZE);
         }
         pause();
     }
@@ -310,10 +407,11 @@ public class CLI {
                 System.out.println("Select status: 1=Present, 2=Absent"); System.out.print("Choice: ");
                 String stCh = scanner.nextLine().trim();
                 AttendanceStatus stat = stCh.equals("1") ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT;
+                List<Attendance> roll = new ArrayList<>();
                 for (Integer id : studentIds) {
-                    attendanceService.recordAttendance(new Attendance(id, date, stat));
+                    roll.add(new Attendance(id, date, stat));
                 }
-                System.out.printf("Recorded attendance for %d students\n", studentIds.size());
+                printBatchResult(attendanceService.recordAttendanceBatch(roll));
                 break;
             default:
                 System.out.println("Invalid operation.");
@@ -333,8 +431,16 @@ public class CLI {
         System.out.println("1. Present\n2. Absent"); System.out.print("Choice: ");
         String ch = scanner.nextLine().trim();
         AttendanceStatus st = ch.equals("1") ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT;
-        attendanceService.recordAttendance(new Attendance(id, date, st));
-        System.out.println("Recorded " + st.getValue() + " for " + s.getName() + " on " + date);
+        if (attendanceService.getWriteBehindDurability() == null) {
+            attendanceService.recordAttendance(new Attendance(id, date, st));
+            System.out.println("Recorded " + st.getValue() + " for " + s.getName() + " on " + date);
+        } else {
+            String label = st.getValue() + " for " + s.getName() + " on " + date;
+            attendanceService.recordAttendanceAsync(new Attendance(id, date, st)).whenComplete((a, e) -> {
+                if (e != null) System.out.println("\nFailed to record " + label + ": " + e.getMessage());
+            });
+            System.out.println("Queued " + label);
+        }
         pause();
     }
 
@@ -344,27 +450,38 @@ public class CLI {
         String date = scanner.nextLine().trim(); if (date.isEmpty()) date = LocalDate.now().format(DATE_FORMAT);
         List<Student> students = studentService.getAllStudents();
         if (students.isEmpty()) { System.out.println("No students found"); pause(); return; }
+        List<Attendance> roll = new ArrayList<>();
         for (Student s : students) {
             System.out.print(s.getName() + " (" + s.getStudentId() + "): [P/A/-]: ");
             String in = scanner.nextLine().trim().toUpperCase(); if (in.equals("-")) continue;
-            if (in.equals("CANCEL")) { System.out.println("Cancelled"); pause(); return; }
+            if (in.equals("CANCEL")) { System.out.println("Cancelled, nothing recorded"); pause(); return; }
             AttendanceStatus st = in.equals("P") ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT;
-            attendanceService.recordAttendance(new Attendance(s.getStudentId(), date, st));
+            roll.add(new Attendance(s.getStudentId(), date, st));
         }
+        printBatchResult(attendanceService.recordAttendanceBatch(roll));
         System.out.println("Batch recording complete for " + date);
         pause();
     }
 
+    private void printBatchResult(AttendanceBatchResult result) {
+        System.out.printf("Recorded attendance: %d new, %d updated, %d failed%n",
+            result.getInserted(), result.getUpdated(), result.getFailedCount());
+        for (AttendanceBatchResult.Failure f : result.getFailures()) {
+            System.out.printf("  Student %s on %s: %s%n", f.getAttendance().getStudentId(), f.getAttendance().getDate(), f.getReason());
+        }
+    }
+
     private void viewAttendance() throws Exception {
         System.out.println("\n--- View Attendance ---");
         System.out.println("1. By student\n2. By date"); System.out.print("Choice: ");
         String c = scanner.nextLine().trim();
         if (c.equals("1")) {
             System.out.print("Enter student ID: "); int id = Integer.parseInt(scanner.nextLine().trim());
-            List<Attendance> recs = attendanceService.getStudentAttendance(id);
-            if (recs.isEmpty()) { System.out.println("No records"); pause(); return; }
-            System.out.printf("%-12s %-10s\n", "Date", "Status");
-            recs.forEach(a -> System.out.printf("%-12s %-10s\n", a.getDate(), a.getStatus().getValue()));
+            showPages(token -> attendanceService.getStudentAttendancePage(id, token, LIST_PAGE_SIZE), page -> {
+                System.out.printf("%-12s %-10s\n", "Date", "Status");
+                page.forEach(a -> System.out.printf("%-12s %-10s\n", a.getDate(), a.getStatus().getValue()));
+            }, "No records");
+            return;
         } else {
             System.out.print("Enter date (YYYY-MM-DD): "); String date = scanner.nextLine().trim();
             List<Attendance> recs = attendanceService.getAttendanceByDate(date);
@@ -408,11 +525,27 @@ public class CLI {
         pause();
     }
 
+    private void absentEveryDay() throws Exception {
+        System.out.println("\n--- Students Absent Every Day ---");
+        System.out.print("Start date (YYYY-MM-DD): "); String from = scanner.nextLine().trim();
+        System.out.print("End date (YYYY-MM-DD): "); String to = scanner.nextLine().trim();
+        Map<String,Object> rep = reportService.generateAbsentEveryDayReport(from, to);
+        List<Map<String,Object>> students = ReportService.section(rep, "students");
+        System.out.printf("%d students absent on all %d recorded days from %s to %s%n",
+            students.size(), ((Number) rep.get("recorded_days")).intValue(), from, to);
+        if (!students.isEmpty()) {
+            System.out.printf("%-5s %-30s %-10s%n", "ID", "Name", "Course");
+            for (Map<String,Object> st : students) {
+                System.out.printf("%-5s %-30s %-10s%n", st.get("student_id"), st.get("name"), st.get("course"));
+            }
+        }
+        pause();
+    }
+
     private void dailyAttendanceReport() throws Exception {
         System.out.println("\n--- Daily Attendance Report ---");
         System.out.print("Enter date (YYYY-MM-DD): "); String date = scanner.nextLine().trim();
-        Map<String,Object> rep = reportService.generateDailyAttendanceReport(date);
-        List<Map<String,Object>> entries = (List<Map<String,Object>>) rep.get("entries");
+        Map<String,Object> rep = reportService.generateDailyAttendanceReport(date, false);
         int present = ((Number) rep.get("present_count")).intValue();
         int absent = ((Number) rep.get("absent_count")).intValue();
         int notRecorded = ((Number) rep.get("not_recorded")).intValue();
@@ -427,6 +560,9 @@ public class CLI {
         System.out.printf("Absent: %d%n", absent);
         System.out.printf("Not recorded: %d%n", notRecorded);
         System.out.printf("Attendance percentage: %.2f%%%n", perc);
+        System.out.print("\nShow details for all " + total + " students? (y/n): ");
+        if (!scanner.nextLine().trim().toLowerCase().startsWith("y")) return;
+        List<Map<String,Object>> entries = ReportService.section(reportService.generateDailyAttendanceReport(date), "entries");
         System.out.println("\nAttendance Details:");
         System.out.printf("%-5s %-30s %-10s%n", "ID", "Name", "Status");
         System.out.println("--------------------------------------------------");
@@ -462,6 +598,61 @@ public class CLI {
         pause();
     }
 
+    private void coursesOverview() throws Exception {
+        System.out.println("\n--- All Courses Overview ---");
+        Map<String,Object> rep = reportService.generateCoursesOverview();
+        List<Map<String,Object>> courses = ReportService.section(rep, "courses");
+        System.out.printf("Generated: %s%n", rep.get("generated_at"));
+        System.out.println("--------------------------------------------------");
+        System.out.printf("%-10s %-10s %-10s %-10s %-10s %-10s%n", "Course", "Students", "Records", "Present", "Absent", "%");
+        System.out.println("--------------------------------------------------");
+        for (Map<String,Object> c : courses) {
+            System.out.printf("%-10s %-10s %-10s %-10s %-10s %-10s%n",
+                c.get("course"), c.get("student_count"), c.get("total_records"),
+                c.get("present"), c.get("absent"), c.get("attendance_percentage") + "%");
+        }
+        pause();
+    }
+
+    private void attendanceAnalytics() throws Exception {
+        System.out.println("\n--- Attendance Analytics ---");
+        if (analytics == null) {
+            long start = System.nanoTime();
+            analytics = AttendanceColumns.attach(dbHandler, studentService, attendanceService);
+            System.out.printf("Loaded %d records into memory (%d KB, %d ms)%n", analytics.getRecordCount(),
+                analytics.getMemoryBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        }
+        LocalDate to = LocalDate.now();
+        System.out.print("Enter start date (yyyy-MM-dd, blank for the last year): ");
+        String input = scanner.nextLine().trim();
+        LocalDate from = input.isEmpty() ? to.minusYears(1) : LocalDate.parse(input, DATE_FORMAT);
+        System.out.print("Chronic absence threshold % (blank for 80): ");
+        input = scanner.nextLine().trim();
+        double threshold = input.isEmpty() ? 80 : Double.parseDouble(input);
+
+        System.out.printf("%nOverall %s to %s: %s%n", from, to, analytics.totals(from, to));
+        System.out.println("\nBy weekday:");
+        for (Map.Entry<DayOfWeek, AttendanceTotals> e : analytics.totalsByWeekday(from, to).entrySet()) {
+            System.out.printf("%-10s %s%n", e.getKey(), e.getValue());
+        }
+        System.out.println("\nBy course:");
+        for (Map.Entry<String, AttendanceTotals> e : analytics.totalsByCourse(from, to).entrySet()) {
+            System.out.printf("%-10s %s%n", e.getKey(), e.getValue());
+        }
+        StudentRates rates = analytics.ratesByStudent(from, to);
+        Map<Integer, Integer> streaks = analytics.longestAbsenceStreaks(from, to, 1);
+        List<Integer> chronic = analytics.chronicAbsentees(from, to, threshold, 5);
+        System.out.printf("%nChronic absentees (below %.0f%%, at least 5 days recorded): %d of %d students%n",
+            threshold, chronic.size(), rates.size());
+        System.out.printf("%-8s %-10s %-10s %-10s%n", "ID", "Days", "%", "Streak");
+        for (int id : chronic.subList(0, Math.min(chronic.size(), SEARCH_PAGE_SIZE))) {
+            int i = rates.indexOf(id);
+            System.out.printf("%-8d %-10d %-10.2f %-10d%n", id, rates.getRecordedDays(i), rates.getPercentage(i),
+                streaks.getOrDefault(id, 0));
+        }
+        pause();
+    }
+
     private void monthlyAttendanceReport() throws Exception {
         System.out.println("\n--- Monthly Attendance Report ---");
         System.out.print("Enter year: "); int year = Integer.parseInt(scanner.nextLine().trim());
@@ -496,45 +687,110 @@ public class CLI {
         System.out.println("2. Daily Attendance Report");
         System.out.println("3. Course Attendance Report");
         System.out.println("4. Monthly Attendance Report");
-        System.out.print("Enter choice (1-4): ");
+        System.out.println("5. Attendance Records (date range)");
+        System.out.print("Enter choice (1-5): ");
         String choice = scanner.nextLine().trim();
-        Map<String, Object> reportData;
+        String path;
         switch (choice) {
-            case "1":
+            case "1": {
                 System.out.print("Student ID: ");
                 int sid = Integer.parseInt(scanner.nextLine().trim());
-                reportData = reportService.generateStudentAttendanceReport(sid);
+                ExportFormat format = promptExportFormat();
+                path = reportService.exportStudentAttendance(sid, format, promptFilename());
                 break;
-            case "2":
+            }
+            case "2": {
                 System.out.print("Date (YYYY-MM-DD): ");
                 String date = scanner.nextLine().trim();
-                reportData = reportService.generateDailyAttendanceReport(date);
+                ExportFormat format = promptExportFormat();
+                path = reportService.exportDailyReport(date, format, promptFilename());
                 break;
-            case "3":
+            }
+            case "3": {
                 System.out.print("Course: ");
                 String course = scanner.nextLine().trim();
-                reportData = reportService.generateCourseAttendanceReport(course);
+                ExportFormat format = promptExportFormat();
+                path = reportService.exportCourseReport(course, format, promptFilename());
                 break;
-            case "4":
+            }
+            case "4": {
                 System.out.print("Year: "); int yr = Integer.parseInt(scanner.nextLine().trim());
                 System.out.print("Month (1-12): "); int mo = Integer.parseInt(scanner.nextLine().trim());
-                reportData = reportService.generateMonthlyAttendanceReport(yr, mo);
+                Map<String, Object> reportData = reportService.generateMonthlyAttendanceReport(yr, mo);
+                ExportFormat format = promptExportFormat();
+                String fn = promptFilename();
+                path = reportService.exportReport(reportData, format, fn);
                 break;
+            }
+            case "5": {
+                System.out.print("From date (YYYY-MM-DD): ");
+                String from = scanner.nextLine().trim();
+                System.out.print("To date (YYYY-MM-DD): ");
+                String to = scanner.nextLine().trim();
+                ExportFormat format = promptExportFormat();
+                path = reportService.exportAttendanceRange(from, to, format, promptFilename());
+                break;
+            }
             default:
                 System.out.println("Invalid choice."); pause(); return;
         }
+        System.out.println("Exported to: " + path);
+        pause();
+    }
+
+    private void exportAllCourseReports() throws Exception {
+        System.out.println("\n--- Export All Course Reports ---");
+        List<String> courses = studentService.getAllCourses();
+        if (courses.isEmpty()) { System.out.println("No courses found."); pause(); return; }
+        ExportFormat format = promptExportFormat();
+        System.out.print("Output directory [reports]: ");
+        String dir = scanner.nextLine().trim();
+        File directory = new File(dir.isEmpty() ? "reports" : dir);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            System.out.println("Cannot create directory " + directory.getAbsolutePath()); pause(); return;
+        }
+        long start = System.nanoTime();
+        ReportBatch<String, String> batch = reportService.exportCourseReports(courses, format, directory);
+        System.out.printf("Exporting %d course reports on %d threads. Press Enter to cancel.%n",
+            courses.size(), reportService.batchParallelism());
+        // Results print in course order from a helper thread while this one waits for Enter
+        Thread printer = new Thread(() -> {
+            try {
+                int[] counts = new int[3];
+                batch.forEachInOrder(o -> {
+                    if (o.isSuccess()) { counts[0]++; System.out.println("  " + o.getKey() + " -> " + o.getResult()); }
+                    else if (o.isCancelled()) counts[2]++;
+                    else { counts[1]++; System.out.println("  " + o.getKey() + " FAILED: " + o.getError().getMessage()); }
+                });
+                System.out.printf("Exported %d, failed %d, cancelled %d (%d ms). Press Enter to continue.%n",
+                    counts[0], counts[1], counts[2], (System.nanoTime() - start) / 1_000_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "report-progress");
+        printer.setDaemon(true);
+        printer.start();
+        scanner.nextLine();
+        if (!batch.isDone()) {
+            batch.cancel();
+            System.out.println("Cancelling; reports already running will finish.");
+        }
+        printer.join();
+    }
+
+    private ExportFormat promptExportFormat() {
         System.out.print("Export format: 1=CSV, 2=JSON, 3=PDF: ");
         String fmt = scanner.nextLine().trim();
-        System.out.print("Filename [no extension]: ");
-        String fn = scanner.nextLine().trim();
-        String path;
         switch (fmt) {
-            case "1": path = reportService.exportReportToCSV(reportData, fn); break;
-            case "2": path = reportService.exportReportToJSON(reportData, fn); break;
-            case "3": default: path = reportService.exportReportToPDF(reportData, fn); break;
+            case "1": return ExportFormat.CSV;
+            case "2": return ExportFormat.JSON;
+            case "3": default: return ExportFormat.PDF;
         }
-        System.out.println("Exported to: " + path);
-        pause();
+    }
+
+    private String promptFilename() {
+        System.out.print("Filename [no extension]: ");
+        return scanner.nextLine().trim();
     }
 
     private void showHelp() {
@@ -554,5 +810,34 @@ public class CLI {
         scanner.nextLine();
     }
 
+    private interface PageFetcher<T> {
+        CursorPage<T> fetch(String pageToken) throws Exception;
+    }
+
+    // Pages through a keyset listing. Only the tokens of pages already shown are kept, so going back
+    // re-fetches a page by its token instead of holding every row seen so far.
+    private <T> void showPages(PageFetcher<T> fetcher, Consumer<List<T>> printer, String emptyMessage) throws Exception {
+        Deque<String> previous = new ArrayDeque<>();
+        String token = "";  // a blank token is the first page
+        CursorPage<T> page = fetcher.fetch(token);
+        if (page.isEmpty()) { System.out.println(emptyMessage); pause(); return; }
+        while (true) {
+            printer.accept(page.getItems());
+            System.out.printf("-- page %d%s --\n", previous.size() + 1, page.hasMore() ? "" : " (last)");
+            System.out.print((previous.isEmpty() ? "" : "[p] previous, ") + (page.hasMore() ? "[Enter] next, [q] back: " : "[Enter] back: "));
+            String choice = scanner.nextLine().trim().toLowerCase();
+            if (choice.equals("q") || (choice.isEmpty() && !page.hasMore())) return;
+            if (choice.equals("p") && !previous.isEmpty()) {
+                token = previous.pop();
+            } else if (choice.isEmpty() && page.hasMore()) {
+                previous.push(token);
+                token = page.getNextToken();
+            } else {
+                continue;
+            }
+            page = fetcher.fetch(token);
+        }
+    }
+
     
 } 
\ No newline at end of file
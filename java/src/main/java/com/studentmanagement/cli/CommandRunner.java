@@ -0,0 +1,345 @@
+package com.studentmanagement.cli;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.http.ApiServer;
+import com.studentmanagement.importer.ImportProgress;
+import com.studentmanagement.importer.ImportResult;
+import com.studentmanagement.importer.ImportService;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.CursorPage;
+import com.studentmanagement.models.Page;
+import com.studentmanagement.models.Student;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.ExportFormat;
+import com.studentmanagement.services.ReportBatch;
+import com.studentmanagement.services.ReportService;
+import com.studentmanagement.services.StudentService;
+import com.studentmanagement.services.WriteDurability;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs one command given on the command line and returns an exit status, for scripts and nightly
+ * jobs that shouldn't drive the interactive menu. Input files are streamed (use {@code -} for
+ * stdin); reports go to stdout unless {@code --out} names a file, and diagnostics go to stderr.
+ * Exit status is 0 on success, 1 when the command failed or rejected rows, 2 on bad usage.
+ */
+public class CommandRunner {
+    public static final int OK = 0;
+    public static final int FAILED = 1;
+    public static final int USAGE = 2;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final long PROGRESS_INTERVAL_NANOS = 2_000_000_000L;
+    private static final String USAGE_TEXT = String.join(System.lineSeparator(),
+        "Usage: Main [--db=FILE] [--db-profile=NAME] [--db-readers=N] [--write-behind=accepted|committed|synced] [--explain] <command> [args]",
+        "Commands:",
+        "  add-student <name> <course>",
+        "  record <student-id> <date> <Present|Absent>",
+        "  import-students <file|-> [--format csv|json] [--rejects FILE] [--batch-size N]",
+        "         columns: name, course, enrollment_date (optional)",
+        "  import-attendance <file|-> [--format csv|json] [--rejects FILE] [--batch-size N]",
+        "         columns: student_id, date, status",
+        "  report student <id> | daily <date> | course <course> | range <from> <to>",
+        "         | monthly <yyyy-mm> | courses | absent <from> <to>   [--format csv|json|pdf] [--out FILE]",
+        "  export-courses <directory> [--format csv|json|pdf]",
+        "  search <term> [--limit N]",
+        "  list-students [--limit N] [--page-token T]",
+        "  list-attendance <from> <to> [--limit N] [--page-token T]",
+        "         one page as CSV; the token for the next page goes to stderr",
+        "  serve [--host HOST] [--port N]   HTTP/JSON API under /api until stopped",
+        "  rebuild-rollups",
+        "  help");
+
+    private final DatabaseHandler dbHandler;
+    private final StudentService studentService;
+    private final AttendanceService attendanceService;
+    private final ReportService reportService;
+    private final ImportService importService;
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public CommandRunner(DatabaseHandler dbHandler) {
+        this(dbHandler, null);
+    }
+
+    /** With a non-null {@code writeBehind}, single attendance records go through the write-behind queue. */
+    public CommandRunner(DatabaseHandler dbHandler, WriteDurability writeBehind) {
+        this(dbHandler, System.in, System.out, System.err);
+        if (writeBehind != null) attendanceService.enableWriteBehind(writeBehind);
+    }
+
+    public CommandRunner(DatabaseHandler dbHandler, InputStream in, PrintStream out, PrintStream err) {
+        this.dbHandler = dbHandler;
+        this.studentService = new StudentService(dbHandler);
+        this.attendanceService = new AttendanceService(dbHandler);
+        this.reportService = new ReportService(dbHandler, studentService, attendanceService);
+        this.importService = new ImportService(dbHandler, studentService, attendanceService);
+        this.in = in;
+        this.out = out;
+        this.err = err;
+    }
+
+    public int run(List<String> args) {
+        List<String> positional = new ArrayList<>();
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            if (!arg.startsWith("--")) {
+                positional.add(arg);
+            } else if (arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else if (i + 1 < args.size()) {
+                options.put(arg.substring(2), args.get(++i));
+            } else {
+                return usage("Missing value for " + arg);
+            }
+        }
+        if (positional.isEmpty()) return usage(null);
+        String command = positional.get(0);
+        List<String> params = positional.subList(1, positional.size());
+        try {
+            switch (command) {
+                case "add-student": return addStudent(params);
+                case "record": return record(params);
+                case "import-students": return importStudents(params, options);
+                case "import-attendance": return importAttendance(params, options);
+                case "report": return report(params, options);
+                case "export-courses": return exportCourses(params, options);
+                case "search": return search(params, options);
+                case "list-students": return listStudents(params, options);
+                case "list-attendance": return listAttendance(params, options);
+                case "serve": return serve(params, options);
+                case "rebuild-rollups":
+                    attendanceService.rebuildRollups();
+                    err.println("Attendance rollups rebuilt.");
+                    return OK;
+                case "help":
+                    out.println(USAGE_TEXT);
+                    return OK;
+                default:
+                    return usage("Unknown command: " + command);
+            }
+        } catch (IllegalArgumentException e) {
+            err.println("Error: " + e.getMessage());
+            return FAILED;
+        } catch (Exception e) {
+            err.println("Error: " + e.getMessage());
+            e.printStackTrace(err);
+            return FAILED;
+        }
+    }
+
+    /** Commits any queued attendance writes and stops report workers; call before closing the database. */
+    public void shutdown() {
+        attendanceService.disableWriteBehind();
+        reportService.close();
+    }
+
+    private int usage(String problem) {
+        if (problem != null) err.println(problem);
+        err.println(USAGE_TEXT);
+        return USAGE;
+    }
+
+    private int addStudent(List<String> params) throws Exception {
+        if (params.size() != 2) return usage("add-student takes <name> <course>");
+        Student student = studentService.addStudent(new Student(params.get(0), params.get(1)));
+        out.println(student.getStudentId());
+        return OK;
+    }
+
+    private int record(List<String> params) throws Exception {
+        if (params.size() != 3) return usage("record takes <student-id> <date> <Present|Absent>");
+        Attendance attendance = new Attendance(Integer.parseInt(params.get(0)), params.get(1),
+            AttendanceStatus.fromValue(params.get(2)));
+        // The interactive menu's path: queued when --write-behind is on, a direct upsert otherwise
+        try {
+            attendanceService.recordAttendanceAsync(attendance).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        }
+        return OK;
+    }
+
+    private int importStudents(List<String> params, Map<String, String> options) throws Exception {
+        if (params.size() != 1) return usage("import-students takes <file|->");
+        return importFile(params.get(0), options, true);
+    }
+
+    private int importAttendance(List<String> params, Map<String, String> options) throws Exception {
+        if (params.size() != 1) return usage("import-attendance takes <file|->");
+        return importFile(params.get(0), options, false);
+    }
+
+    private int importFile(String path, Map<String, String> options, boolean students) throws Exception {
+        int batchSize = Integer.parseInt(options.getOrDefault("batch-size", String.valueOf(ImportService.DEFAULT_BATCH_SIZE)));
+        if (batchSize < 1) return usage("--batch-size must be at least 1");
+        boolean stdin = path.equals("-");
+        ExportFormat format = options.containsKey("format") ? ExportFormat.fromValue(options.get("format"))
+            : stdin ? ExportFormat.CSV : ImportService.formatOf(path);
+        String rejectsPath = options.getOrDefault("rejects", stdin ? null : path + ".rejects.csv");
+        File rejects = rejectsPath == null ? null : new File(rejectsPath);
+        ImportProgress progress = new ImportProgress() {
+            private long lastReport = System.nanoTime();
+
+            @Override
+            public void update(long read, long written, long rejected) {
+                long now = System.nanoTime();
+                if (now - lastReport < PROGRESS_INTERVAL_NANOS) return;
+                lastReport = now;
+                err.printf("... %d read, %d written, %d rejected%n", read, written, rejected);
+            }
+        };
+        ImportResult result;
+        try (InputStream input = stdin ? in : new FileInputStream(path)) {
+            result = students
+                ? importService.importStudents(input, format, rejects, progress, batchSize)
+                : importService.importAttendance(input, format, rejects, progress, batchSize);
+        }
+        err.printf("Imported %d rows: %d inserted, %d updated, %d rejected (%d ms)%n", result.getRead(),
+            result.getInserted(), result.getUpdated(), result.getRejected(), result.getElapsedMillis());
+        if (result.getRejectsFile() != null) err.println("Rejected rows written to " + result.getRejectsFile());
+        return result.getRejected() == 0 ? OK : FAILED;
+    }
+
+    private int report(List<String> params, Map<String, String> options) throws Exception {
+        if (params.isEmpty()) return usage("report needs a type");
+        ExportFormat format = ExportFormat.fromValue(options.getOrDefault("format", "csv"));
+        String type = params.get(0);
+        int expected = type.equals("courses") ? 1 : type.equals("range") || type.equals("absent") ? 3 : 2;
+        if (params.size() != expected) return usage("Wrong number of arguments for report " + type);
+        // Files are opened only once the report's arguments check out, so a failed report leaves no empty file
+        String path = options.get("out");
+        if ("-".equals(path)) path = null;
+        switch (type) {
+            case "student": {
+                int studentId = Integer.parseInt(params.get(1));
+                if (path != null) reportService.exportStudentAttendance(studentId, format, path);
+                else reportService.writeStudentAttendance(studentId, format, stdout());
+                break;
+            }
+            case "daily":
+                if (path != null) reportService.exportDailyReport(params.get(1), format, path);
+                else reportService.writeDailyReport(params.get(1), format, stdout());
+                break;
+            case "course":
+                if (path != null) reportService.exportCourseReport(params.get(1), format, path);
+                else reportService.writeCourseReport(params.get(1), format, stdout());
+                break;
+            case "range":
+                if (path != null) reportService.exportAttendanceRange(params.get(1), params.get(2), format, path);
+                else reportService.writeAttendanceRange(params.get(1), params.get(2), format, stdout());
+                break;
+            case "monthly": {
+                YearMonth month = YearMonth.parse(params.get(1));
+                writeReport(reportService.generateMonthlyAttendanceReport(month.getYear(), month.getMonthValue()),
+                    format, path);
+                break;
+            }
+            case "courses": writeReport(reportService.generateCoursesOverview(), format, path); break;
+            case "absent": writeReport(reportService.generateAbsentEveryDayReport(params.get(1), params.get(2)), format, path); break;
+            default: return usage("Unknown report type: " + type);
+        }
+        return OK;
+    }
+
+    // The report is already generated, so opening the output here can't strand an empty file on bad arguments
+    private void writeReport(Map<String, Object> report, ExportFormat format, String path) throws Exception {
+        OutputStream target = path != null ? new FileOutputStream(format.withExtension(path)) : stdout();
+        reportService.writeReport(report, format, target);
+    }
+
+    private int exportCourses(List<String> params, Map<String, String> options) throws Exception {
+        if (params.size() != 1) return usage("export-courses takes <directory>");
+        ExportFormat format = ExportFormat.fromValue(options.getOrDefault("format", "csv"));
+        File directory = new File(params.get(0));
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory.getAbsolutePath());
+        }
+        ReportBatch<String, String> batch = reportService.exportCourseReports(studentService.getAllCourses(), format, directory);
+        int[] failed = new int[1];
+        batch.forEachInOrder(o -> {
+            if (o.isSuccess()) out.println(o.getResult());
+            else {
+                failed[0]++;
+                err.println(o.getKey() + ": " + o.getError().getMessage());
+            }
+        });
+        return failed[0] == 0 ? OK : FAILED;
+    }
+
+    private int search(List<String> params, Map<String, String> options) throws Exception {
+        if (params.size() != 1) return usage("search takes <term>");
+        int limit = Integer.parseInt(options.getOrDefault("limit", "20"));
+        Page<Student> page = studentService.searchStudents(params.get(0), 0, limit);
+        for (Student s : page.getItems()) out.println(s.getStudentId() + "," + s.getName() + "," + s.getCourse());
+        return OK;
+    }
+
+    private int listStudents(List<String> params, Map<String, String> options) throws Exception {
+        if (!params.isEmpty()) return usage("list-students takes no arguments");
+        CursorPage<Student> page = studentService.getStudentsPage(options.get("page-token"), pageLimit(options));
+        for (Student s : page.getItems()) out.println(s.getStudentId() + "," + s.getName() + "," + s.getCourse());
+        printNextToken(page);
+        return OK;
+    }
+
+    private int listAttendance(List<String> params, Map<String, String> options) throws Exception {
+        if (params.size() != 2) return usage("list-attendance takes <from> <to>");
+        CursorPage<Attendance> page = attendanceService.getAttendancePage(params.get(0), params.get(1),
+            options.get("page-token"), pageLimit(options));
+        for (Attendance a : page.getItems()) out.println(a.getStudentId() + "," + a.getDate() + "," + a.getStatus().getValue());
+        printNextToken(page);
+        return OK;
+    }
+
+    private static int pageLimit(Map<String, String> options) {
+        return Integer.parseInt(options.getOrDefault("limit", String.valueOf(DEFAULT_PAGE_SIZE)));
+    }
+
+    // On stderr so stdout stays plain CSV for pipelines that loop until no token is printed
+    private void printNextToken(CursorPage<?> page) {
+        if (page.hasMore()) err.println("next-page-token: " + page.getNextToken());
+    }
+
+    private int serve(List<String> params, Map<String, String> options) throws Exception {
+        if (!params.isEmpty()) return usage("serve takes no arguments");
+        String host = options.getOrDefault("host", "127.0.0.1");
+        int port = Integer.parseInt(options.getOrDefault("port", String.valueOf(ApiServer.DEFAULT_PORT)));
+        ApiServer server = new ApiServer(new InetSocketAddress(host, port), dbHandler, studentService,
+            attendanceService, reportService);
+        // Runs until the process is stopped: the hook lets in-flight requests and queued writes finish
+        // before the database closes, so this method never returns normally
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            shutdown();
+            dbHandler.close();
+        }, "http-shutdown"));
+        server.start();
+        err.println("Listening on http://" + host + ":" + server.getAddress().getPort() + "/api");
+        Thread.currentThread().join();
+        return OK;
+    }
+
+    // Reports close the stream they write; stdout is shielded so later output still works
+    private OutputStream stdout() {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package com.studentmanagement.database;
+
+import java.sql.*;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of long-lived SQLite connections: one writer shared under a lock
+ * (SQLite only allows a single writer anyway) and up to {@code maxReaders} readers
+ * opened lazily and handed out one caller at a time.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final long BORROW_TIMEOUT_SECONDS = 30;
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    private final String url;
+    private final SqliteProfile profile;
+    private final int maxReaders;
+    private final Connection writer;
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final BlockingQueue<Connection> idleReaders;
+    private final Semaphore readerPermits;
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, int maxReaders, SqliteProfile profile) throws SQLException {
+        if (maxReaders < 1) throw new IllegalArgumentException("maxReaders must be at least 1");
+        this.url = url;
+        this.profile = profile;
+        this.maxReaders = maxReaders;
+        this.idleReaders = new ArrayBlockingQueue<>(maxReaders);
+        this.readerPermits = new Semaphore(maxReaders, true);
+        this.writer = open(true);
+    }
+
+    private Connection open(boolean isWriter) throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try {
+            profile.apply(conn, isWriter);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        statementCaches.put(conn, new StatementCache(conn, STATEMENT_CACHE_SIZE));
+        return conn;
+    }
+
+    public StatementCache statements(Connection conn) {
+        StatementCache cache = statementCaches.get(conn);
+        if (cache == null) throw new IllegalArgumentException("Connection is not owned by this pool");
+        return cache;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCaches.values().stream().mapToLong(StatementCache::getHits).sum();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCaches.values().stream().mapToLong(StatementCache::getMisses).sum();
+    }
+
+    public SqliteProfile getProfile() {
+        return profile;
+    }
+
+    public int getMaxReaders() {
+        return maxReaders;
+    }
+
+    public Connection acquireWriter() throws SQLException {
+        ensureOpen();
+        writerLock.lock();
+        if (closed) {
+            writerLock.unlock();
+            throw new SQLException("Connection pool is closed");
+        }
+        return writer;
+    }
+
+    public void releaseWriter(Connection conn) {
+        if (conn != writer) throw new IllegalArgumentException("Not the pooled writer connection");
+        writerLock.unlock();
+    }
+
+    public Connection acquireReader() throws SQLException {
+        ensureOpen();
+        try {
+            if (!readerPermits.tryAcquire(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new SQLException("Timed out waiting for a read connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a read connection", e);
+        }
+        Connection conn = idleReaders.poll();
+        if (conn != null) return conn;
+        try {
+            return open(false);
+        } catch (SQLException e) {
+            readerPermits.release();
+            throw e;
+        }
+    }
+
+    public void releaseReader(Connection conn) {
+        if (closed) {
+            closeQuietly(conn);
+        } else {
+            idleReaders.offer(conn);
+        }
+        readerPermits.release();
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        // Idle readers can go immediately; borrowed ones are closed when released
+        Connection conn;
+        while ((conn = idleReaders.poll()) != null) closeQuietly(conn);
+        writerLock.lock();
+        try {
+            closeQuietly(writer);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    private void closeQuietly(Connection conn) {
+        StatementCache cache = statementCaches.remove(conn);
+        if (cache != null) cache.close();
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing connection: " + e.getMessage());
+        }
+    }
+}
@@ -1,54 +1,164 @@
 package com.studentmanagement.database;
 
+import com.studentmanagement.metrics.Metrics;
 import java.sql.*;
 import java.util.*;
-import java.lang.Runtime;
-
-public class DatabaseHandler {
-    private static final String DB_URL = "jdbc:sqlite:student_management.db";
-    private static final String CREATE_STUDENTS_TABLE =
-        "CREATE TABLE IF NOT EXISTS students (" +
-        "student_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-        "name TEXT NOT NULL, " +
-        "course TEXT NOT NULL, " +
-        "enrollment_date TEXT DEFAULT CURRENT_DATE" +
-        ");";
-    private static final String CREATE_ATTENDANCE_TABLE =
-        "CREATE TABLE IF NOT EXISTS attendance (" +
-        "attendance_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-        "student_id INTEGER NOT NULL, " +
-        "date TEXT NOT NULL, " +
-        "status TEXT NOT NULL CHECK(status IN ('Present','Absent')), " +
-        "FOREIGN KEY(student_id) REFERENCES students(student_id) ON DELETE CASCADE, " +
-        "UNIQUE(student_id, date)" +
-        ");";
-    private static final String CREATE_ATTENDANCE_DATE_INDEX =
-        "CREATE INDEX IF NOT EXISTS idx_attendance_date ON attendance(date);";
-    private static final String CREATE_ATTENDANCE_STUDENT_INDEX =
-        "CREATE INDEX IF NOT EXISTS idx_attendance_student_id ON attendance(student_id);";
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class DatabaseHandler implements AutoCloseable {
+    public static final String DEFAULT_DB_FILE = "student_management.db";
+    private static final String DB_URL = "jdbc:sqlite:" + DEFAULT_DB_FILE;
+    public static final int DEFAULT_READERS = 4;
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+    public static final int MAX_IN_LIST = 512;
+    private static final String[] IN_LIST_PLACEHOLDERS = new String[Integer.numberOfTrailingZeros(MAX_IN_LIST) + 1];
+    static {
+        for (int i = 0; i < IN_LIST_PLACEHOLDERS.length; i++) {
+            IN_LIST_PLACEHOLDERS[i] = String.join(",", Collections.nCopies(1 << i, "?"));
+        }
+    }
+
+    private final ConnectionPool pool;
+    private volatile int fetchSize = DEFAULT_FETCH_SIZE;
+    private boolean fullTextSearch;
+    private volatile QueryPlanLog queryPlans;
+    private final AtomicBoolean closed = new AtomicBoolean();
 
     public DatabaseHandler() throws SQLException {
-        initializeDatabase();
+        this(SqliteProfile.fromSystemProperty());
+    }
+
+    public DatabaseHandler(SqliteProfile profile) throws SQLException {
+        this(DB_URL, DEFAULT_READERS, profile);
+    }
+
+    public DatabaseHandler(String dbUrl, int readers) throws SQLException {
+        this(dbUrl, readers, SqliteProfile.fromSystemProperty());
+    }
+
+    public DatabaseHandler(String dbUrl, int readers, SqliteProfile profile) throws SQLException {
+        this.pool = new ConnectionPool(dbUrl, readers, profile);
+        if (Boolean.getBoolean("sm.db.explain")) setExplainQueryPlans(true);
+        try {
+            initializeDatabase();
+        } catch (SQLException e) {
+            pool.close();
+            throw e;
+        }
     }
 
     private void initializeDatabase() throws SQLException {
-        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
-            stmt.execute(CREATE_STUDENTS_TABLE);
-            stmt.execute(CREATE_ATTENDANCE_TABLE);
-            stmt.execute(CREATE_ATTENDANCE_DATE_INDEX);
-            stmt.execute(CREATE_ATTENDANCE_STUDENT_INDEX);
+        new MigrationRunner(this, Migrations.all()).migrate();
+        fullTextSearch = withReader(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeQuery("SELECT rowid FROM students_fts LIMIT 0;").close();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        });
+    }
+
+    /** The schema version recorded in {@code PRAGMA user_version}. */
+    public int getSchemaVersion() throws SQLException {
+        return new MigrationRunner(this, Migrations.all()).getCurrentVersion();
+    }
+
+    /** Whether the students_fts index is present and kept in sync; when false, searches scan with LIKE. */
+    public boolean hasFullTextSearch() {
+        return fullTextSearch;
+    }
+
+    public <T> T withReader(SqlFunction<T> work) throws SQLException {
+        Connection conn = pool.acquireReader();
+        try {
+            return work.apply(conn);
+        } finally {
+            pool.releaseReader(conn);
+        }
+    }
+
+    public <T> T withWriter(SqlFunction<T> work) throws SQLException {
+        Connection conn = pool.acquireWriter();
+        try {
+            return work.apply(conn);
+        } finally {
+            pool.releaseWriter(conn);
+        }
+    }
+
+    /**
+     * Runs {@code work} on the writer connection inside a single transaction, committing on
+     * success and rolling back on any exception. Nested calls join the outer transaction.
+     */
+    public <T> T inTransaction(SqlFunction<T> work) throws SQLException {
+        return withWriter(conn -> {
+            if (!conn.getAutoCommit()) return work.apply(conn);
+            conn.setAutoCommit(false);
+            try {
+                T result = work.apply(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        });
+    }
+
+    public SqliteProfile getProfile() {
+        return pool.getProfile();
+    }
+
+    public int getReaderCount() {
+        return pool.getMaxReaders();
+    }
+
+    /** Optimizes and closes the pool; later calls do nothing, so shutdown paths may overlap. */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        try {
+            withWriter(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA optimize;");
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            System.err.println("PRAGMA optimize failed: " + e.getMessage());
         }
+        pool.close();
+    }
+
+    /**
+     * Debug mode: log {@code EXPLAIN QUERY PLAN} to stderr the first time each distinct statement
+     * is prepared. Also enabled by the {@code sm.db.explain} system property.
+     */
+    public void setExplainQueryPlans(boolean enabled) {
+        queryPlans = enabled ? new QueryPlanLog(System.err) : null;
+    }
+
+    /** The active plan log, or null when plan logging is off. */
+    public QueryPlanLog getQueryPlanLog() {
+        return queryPlans;
     }
 
-    public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+    /** The query plan for {@code sql}, one step per line, without executing it. */
+    public List<String> explainQueryPlan(String sql) throws SQLException {
+        return withReader(conn -> QueryPlanLog.explain(conn, sql));
     }
 
     public List<Map<String, Object>> executeQuery(String sql, Object... params) throws SQLException {
-        long startTime = System.nanoTime();
-        long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        List<Map<String, Object>> rows = new ArrayList<>();
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        long startTime = Metrics.start();
+        List<Map<String, Object>> rows = withReader(conn -> {
+            List<Map<String, Object>> result = new ArrayList<>();
+            PreparedStatement pstmt = prepare(conn, sql);
             setParameters(pstmt, params);
             try (ResultSet rs = pstmt.executeQuery()) {
                 ResultSetMetaData meta = rs.getMetaData();
@@ -58,37 +168,168 @@ public class DatabaseHandler {
                     for (int i = 1; i <= colCount; i++) {
                         row.put(meta.getColumnName(i), rs.getObject(i));
                     }
-                    rows.add(row);
+                    result.add(row);
                 }
             }
-        }
-        long endTime = System.nanoTime();
-        long endMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        System.out.printf("[PROFILE] executeQuery: time=%.3fs, memDelta=%.2fKB%n", (endTime - startTime)/1e9, (endMem - startMem)/1024.0);
+            return result;
+        });
+        Metrics.record("DatabaseHandler", "executeQuery", startTime);
         return rows;
     }
 
-    public int executeUpdate(String sql, Object... params) throws SQLException {
-        long startTime = System.nanoTime();
-        long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    /** Runs a query and maps each row straight from the result set, without an intermediate map. */
+    public <T> List<T> query(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        long startTime = Metrics.start();
+        List<T> rows = withReader(conn -> {
+            List<T> result = new ArrayList<>();
+            PreparedStatement pstmt = prepare(conn, sql);
             setParameters(pstmt, params);
-            int affected = pstmt.executeUpdate();
-            if (sql.trim().toUpperCase().startsWith("INSERT")) {
-                try (ResultSet keys = pstmt.getGeneratedKeys()) {
-                    if (keys.next()) {
-                        long endTime = System.nanoTime();
-                        long endMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-                        System.out.printf("[PROFILE] executeUpdate (insert): time=%.3fs, memDelta=%.2fKB%n", (endTime - startTime)/1e9, (endMem - startMem)/1024.0);
-                        return keys.getInt(1);
-                    }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) result.add(mapper.mapRow(rs));
+            }
+            return result;
+        });
+        Metrics.record("DatabaseHandler", "query", startTime);
+        return rows;
+    }
+
+    /** Like {@link #query} but returns only the first row, or null when there is none. */
+    public <T> T queryOne(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        long startTime = Metrics.start();
+        T row = withReader(conn -> {
+            PreparedStatement pstmt = prepare(conn, sql);
+            setParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapper.mapRow(rs) : null;
+            }
+        });
+        Metrics.record("DatabaseHandler", "queryOne", startTime);
+        return row;
+    }
+
+    /**
+     * Streams mapped rows straight off the cursor, holding one read connection until the stream
+     * is closed. Always use try-with-resources. Row errors surface as {@link UncheckedSQLException}.
+     */
+    public <T> Stream<T> stream(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        long startTime = Metrics.start();
+        Connection conn = pool.acquireReader();
+        ResultSet rs;
+        try {
+            PreparedStatement pstmt = prepare(conn, sql);
+            setParameters(pstmt, params);
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            pool.releaseReader(conn);
+            throw e;
+        }
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) return false;
+                    action.accept(mapper.mapRow(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(e);
                 }
             }
-            long endTime = System.nanoTime();
-            long endMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-            System.out.printf("[PROFILE] executeUpdate: time=%.3fs, memDelta=%.2fKB%n", (endTime - startTime)/1e9, (endMem - startMem)/1024.0);
-            return affected;
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing result set: " + e.getMessage());
+            } finally {
+                pool.releaseReader(conn);
+                Metrics.record("DatabaseHandler", "stream", startTime);
+            }
+        });
+    }
+
+    /** Callback form of {@link #stream}: hands each row to {@code action} and returns the row count. */
+    public <T> long forEach(String sql, RowMapper<T> mapper, Consumer<? super T> action, Object... params) throws SQLException {
+        long count = 0;
+        try (Stream<T> rows = stream(sql, mapper, params)) {
+            Iterator<T> it = rows.iterator();
+            while (it.hasNext()) {
+                action.accept(it.next());
+                count++;
+            }
+        } catch (UncheckedSQLException e) {
+            throw e.getCause();
         }
+        return count;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 1) throw new IllegalArgumentException("Fetch size must be positive");
+        this.fetchSize = fetchSize;
+    }
+
+    public int executeUpdate(String sql, Object... params) throws SQLException {
+        return withWriter(conn -> executeUpdate(conn, sql, params));
+    }
+
+    private int executeUpdate(Connection conn, String sql, Object... params) throws SQLException {
+        long startTime = Metrics.start();
+        PreparedStatement pstmt = prepare(conn, sql);
+        setParameters(pstmt, params);
+        int affected = pstmt.executeUpdate();
+        // Only a row this statement inserted has a key of its own: an upsert that took its DO UPDATE
+        // branch, or an insert that was ignored, leaves the connection's previous last_insert_rowid
+        if (affected > 0 && StatementCache.isInsert(sql) && !StatementCache.isUpsert(sql)) {
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    Metrics.record("DatabaseHandler", "executeUpdate", startTime);
+                    return keys.getInt(1);
+                }
+            }
+        }
+        Metrics.record("DatabaseHandler", "executeUpdate", startTime);
+        return affected;
+    }
+
+    /**
+     * Returns the cached prepared statement for {@code sql} on a connection obtained from
+     * {@link #withReader} or {@link #withWriter}. The statement belongs to the cache; do not close it.
+     */
+    public PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        QueryPlanLog plans = queryPlans;
+        if (plans != null) plans.check(conn, sql);
+        return pool.statements(conn).prepare(sql);
+    }
+
+    public long getStatementCacheHits() {
+        return pool.getStatementCacheHits();
+    }
+
+    public long getStatementCacheMisses() {
+        return pool.getStatementCacheMisses();
+    }
+
+    // IN (...) lists are padded up to a power-of-two arity so the statement cache sees
+    // at most a handful of distinct shapes instead of one per list length.
+    public static int inListBucket(int size) {
+        if (size <= 0) throw new IllegalArgumentException("IN list must not be empty");
+        if (size > MAX_IN_LIST) throw new IllegalArgumentException("IN list larger than " + MAX_IN_LIST);
+        return Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1;
+    }
+
+    public static String inListPlaceholders(int bucket) {
+        return IN_LIST_PLACEHOLDERS[Integer.numberOfTrailingZeros(bucket)];
+    }
+
+    /** Appends {@code values} to {@code params}, repeating the last value to fill the bucket. */
+    public static void addInListParams(List<Object> params, List<?> values, int bucket) {
+        params.addAll(values);
+        Object last = values.get(values.size() - 1);
+        for (int i = values.size(); i < bucket; i++) params.add(last);
     }
 
     private void setParameters(PreparedStatement pstmt, Object... params) throws SQLException {
@@ -0,0 +1,26 @@
+package com.studentmanagement.database;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Storage encoding for attendance dates: days since 1970-01-01 as an INTEGER column. The model
+ * keeps ISO yyyy-MM-dd strings; conversion happens only at the SQL boundary.
+ */
+public final class EpochDays {
+    private EpochDays() {
+    }
+
+    /** Epoch day of an ISO date; rejects anything that is not a valid calendar date. */
+    public static long fromIso(String isoDate) {
+        try {
+            return RowMappers.parseIsoDate(isoDate).toEpochDay();
+        } catch (DateTimeException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid date (expected YYYY-MM-DD): " + isoDate);
+        }
+    }
+
+    public static String toIso(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).toString();
+    }
+}
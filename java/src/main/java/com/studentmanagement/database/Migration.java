@@ -0,0 +1,117 @@
+package com.studentmanagement.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * One versioned schema change. The schema step runs inside a single transaction together with
+ * the {@code PRAGMA user_version} bump; an optional {@link Backfill} then moves existing rows in
+ * small key-ordered chunks, each in its own short transaction, so the writer is never held for
+ * the whole table.
+ *
+ * <p>An {@linkplain #asOptional optional} migration may fail without stopping the upgrade: its
+ * changes are rolled back, it is recorded as skipped, and it is retried on every later run until
+ * it succeeds, for features that depend on how the SQLite driver was built.
+ */
+public final class Migration {
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Chunked data move over {@code table} ordered by the integer {@code keyColumn}. {@code rangeSql}
+     * takes two parameters, the exclusive lower and inclusive upper key of the chunk.
+     */
+    public static final class Backfill {
+        private final String name;
+        private final String table;
+        private final String keyColumn;
+        private final String rangeSql;
+
+        public Backfill(String name, String table, String keyColumn, String rangeSql) {
+            this.name = name;
+            this.table = table;
+            this.keyColumn = keyColumn;
+            this.rangeSql = rangeSql;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public String getKeyColumn() {
+            return keyColumn;
+        }
+
+        public String getRangeSql() {
+            return rangeSql;
+        }
+    }
+
+    private final int version;
+    private final String description;
+    private final Step step;
+    private final Backfill backfill;
+    private final boolean optional;
+
+    private Migration(int version, String description, Step step, Backfill backfill, boolean optional) {
+        if (version < 1) throw new IllegalArgumentException("Migration versions start at 1");
+        if (optional && backfill != null) throw new IllegalArgumentException("Optional migrations cannot have a backfill");
+        this.version = version;
+        this.description = description;
+        this.step = step;
+        this.backfill = backfill;
+        this.optional = optional;
+    }
+
+    public static Migration of(int version, String description, Step step) {
+        return new Migration(version, description, step, null, false);
+    }
+
+    public static Migration sql(int version, String description, String... statements) {
+        return of(version, description, conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : statements) stmt.execute(sql);
+            }
+        });
+    }
+
+    public Migration withBackfill(Backfill backfill) {
+        return new Migration(version, description, step, backfill, optional);
+    }
+
+    public Migration asOptional() {
+        return new Migration(version, description, step, backfill, true);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Backfill getBackfill() {
+        return backfill;
+    }
+
+    public boolean isOptional() {
+        return optional;
+    }
+
+    void apply(Connection conn) throws SQLException {
+        step.apply(conn);
+    }
+
+    @Override
+    public String toString() {
+        return version + ": " + description;
+    }
+}
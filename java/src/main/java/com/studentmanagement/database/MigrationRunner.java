@@ -0,0 +1,253 @@
+package com.studentmanagement.database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Brings a database up to the latest schema version recorded in {@code PRAGMA user_version}.
+ * Each pending migration is applied in version order in its own transaction; its backfill (if any)
+ * is then run to completion before the next migration, one chunk per transaction. Backfill
+ * progress is kept in {@code schema_backfill}, so an interrupted run resumes where it stopped.
+ * Optional migrations that failed are listed in {@code schema_skipped} and retried on each run.
+ */
+public class MigrationRunner {
+    /** Timing callback for long upgrades; the runner itself prints nothing. */
+    public interface Progress {
+        void migrationApplied(Migration migration, long millis);
+
+        void backfillFinished(String name, int chunks, long millis);
+
+        /** An optional migration failed and was rolled back; it is retried on the next run. */
+        void migrationSkipped(Migration migration, String reason);
+    }
+
+    private static final Progress SILENT = new Progress() {
+        @Override
+        public void migrationApplied(Migration migration, long millis) {
+        }
+
+        @Override
+        public void backfillFinished(String name, int chunks, long millis) {
+        }
+
+        @Override
+        public void migrationSkipped(Migration migration, String reason) {
+        }
+    };
+
+    private static final int DEFAULT_CHUNK_SIZE = 5000;
+    private static final String CREATE_BACKFILL_TABLE =
+        "CREATE TABLE IF NOT EXISTS schema_backfill (" +
+        "name TEXT PRIMARY KEY, " +
+        "last_key INTEGER NOT NULL, " +
+        "done INTEGER NOT NULL DEFAULT 0" +
+        ");";
+    private static final String CREATE_SKIPPED_TABLE =
+        "CREATE TABLE IF NOT EXISTS schema_skipped (" +
+        "version INTEGER PRIMARY KEY, " +
+        "reason TEXT NOT NULL" +
+        ");";
+
+    private final DatabaseHandler db;
+    private final List<Migration> migrations;
+    private final int chunkSize;
+    private Progress progress = SILENT;
+
+    public MigrationRunner(DatabaseHandler db, List<Migration> migrations) {
+        this(db, migrations, DEFAULT_CHUNK_SIZE);
+    }
+
+    public MigrationRunner(DatabaseHandler db, List<Migration> migrations, int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be at least 1");
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getVersion() == sorted.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Duplicate migration version " + sorted.get(i).getVersion());
+            }
+        }
+        this.db = db;
+        this.migrations = sorted;
+        this.chunkSize = chunkSize;
+    }
+
+    public void setProgress(Progress progress) {
+        this.progress = progress == null ? SILENT : progress;
+    }
+
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+    }
+
+    public int getCurrentVersion() throws SQLException {
+        return db.withWriter(MigrationRunner::readUserVersion);
+    }
+
+    /**
+     * Applies all pending migrations and their backfills, and retries optional ones skipped before;
+     * returns the number of migrations applied.
+     */
+    public int migrate() throws SQLException {
+        int current = db.withWriter(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_BACKFILL_TABLE);
+                stmt.execute(CREATE_SKIPPED_TABLE);
+            }
+            return readUserVersion(conn);
+        });
+        if (current > getLatestVersion()) {
+            throw new SQLException("Database schema version " + current + " is newer than this build supports ("
+                + getLatestVersion() + ")");
+        }
+        // Finish backfills interrupted by an earlier run before moving the schema further
+        for (Migration migration : migrations) {
+            if (migration.getVersion() <= current && migration.getBackfill() != null) runBackfill(migration.getBackfill());
+        }
+        int applied = 0;
+        for (Migration migration : migrations) {
+            if (migration.getVersion() > current || !migration.isOptional()) continue;
+            // Skipped before, e.g. on a driver built without a module it needs; the driver may have changed since
+            if (!db.withWriter(conn -> isSkipped(conn, migration))) continue;
+            long start = System.nanoTime();
+            String reason = db.inTransaction(conn -> {
+                String error = applyOptional(conn, migration);
+                if (error == null) setSkipped(conn, migration, null);
+                return error;
+            });
+            if (reason != null) {
+                progress.migrationSkipped(migration, reason);
+            } else {
+                progress.migrationApplied(migration, (System.nanoTime() - start) / 1_000_000);
+                applied++;
+            }
+        }
+        for (Migration migration : migrations) {
+            if (migration.getVersion() <= current) continue;
+            long start = System.nanoTime();
+            String reason = db.inTransaction(conn -> {
+                String error = null;
+                if (migration.isOptional()) {
+                    error = applyOptional(conn, migration);
+                    if (error != null) setSkipped(conn, migration, error);
+                } else {
+                    migration.apply(conn);
+                }
+                if (migration.getBackfill() != null) registerBackfill(conn, migration.getBackfill());
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA user_version = " + migration.getVersion() + ";");
+                }
+                return error;
+            });
+            if (reason != null) progress.migrationSkipped(migration, reason);
+            else progress.migrationApplied(migration, (System.nanoTime() - start) / 1_000_000);
+            if (migration.getBackfill() != null) runBackfill(migration.getBackfill());
+            applied++;
+        }
+        return applied;
+    }
+
+    // Runs the step inside a savepoint so a failure leaves nothing half-applied; returns the failure or null
+    private static String applyOptional(Connection conn, Migration migration) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SAVEPOINT optional_migration;");
+            try {
+                migration.apply(conn);
+            } catch (SQLException e) {
+                stmt.execute("ROLLBACK TO optional_migration;");
+                return e.getMessage();
+            } finally {
+                stmt.execute("RELEASE optional_migration;");
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSkipped(Connection conn, Migration migration) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM schema_skipped WHERE version = ?;")) {
+            pstmt.setInt(1, migration.getVersion());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // Records the migration as skipped for the reason given, or clears it when reason is null
+    private static void setSkipped(Connection conn, Migration migration, String reason) throws SQLException {
+        String sql = reason == null ? "DELETE FROM schema_skipped WHERE version = ?;"
+            : "INSERT OR REPLACE INTO schema_skipped (version, reason) VALUES (?, ?);";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, migration.getVersion());
+            if (reason != null) pstmt.setString(2, reason);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static int readUserVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("PRAGMA user_version;")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void registerBackfill(Connection conn, Migration.Backfill backfill) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT OR REPLACE INTO schema_backfill (name, last_key, done) VALUES (?, 0, 0);")) {
+            pstmt.setString(1, backfill.getName());
+            pstmt.executeUpdate();
+        }
+    }
+
+    private void runBackfill(Migration.Backfill backfill) throws SQLException {
+        long start = System.nanoTime();
+        int chunks = 0;
+        // One transaction per chunk: the writer lock is released between chunks so other writes interleave
+        while (db.inTransaction(conn -> backfillChunk(conn, backfill))) {
+            chunks++;
+        }
+        if (chunks > 0) {
+            progress.backfillFinished(backfill.getName(), chunks, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Processes the next chunk after the saved key; returns false once the backfill is complete
+    private boolean backfillChunk(Connection conn, Migration.Backfill backfill) throws SQLException {
+        long lastKey;
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT last_key FROM schema_backfill WHERE name = ? AND done = 0;")) {
+            pstmt.setString(1, backfill.getName());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) return false;
+                lastKey = rs.getLong(1);
+            }
+        }
+        String key = backfill.getKeyColumn();
+        long upperKey;
+        try (PreparedStatement pstmt = conn.prepareStatement(String.format(
+                "SELECT MAX(%1$s) FROM (SELECT %1$s FROM %2$s WHERE %1$s > ? ORDER BY %1$s LIMIT ?);", key, backfill.getTable()))) {
+            pstmt.setLong(1, lastKey);
+            pstmt.setInt(2, chunkSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                upperKey = rs.getLong(1);
+                if (rs.wasNull()) {
+                    try (PreparedStatement done = conn.prepareStatement("UPDATE schema_backfill SET done = 1 WHERE name = ?;")) {
+                        done.setString(1, backfill.getName());
+                        done.executeUpdate();
+                    }
+                    return false;
+                }
+            }
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(backfill.getRangeSql())) {
+            pstmt.setLong(1, lastKey);
+            pstmt.setLong(2, upperKey);
+            pstmt.executeUpdate();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE schema_backfill SET last_key = ? WHERE name = ?;")) {
+            pstmt.setLong(1, upperKey);
+            pstmt.setString(2, backfill.getName());
+            pstmt.executeUpdate();
+        }
+        return true;
+    }
+}
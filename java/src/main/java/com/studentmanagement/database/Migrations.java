@@ -0,0 +1,160 @@
+package com.studentmanagement.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * The schema history, oldest first. Migrations are append-only: never edit one that has shipped,
+ * add a new version instead. Statements stay idempotent ({@code IF NOT EXISTS}) because databases
+ * created before versioning start at version 0 with some of this schema already in place.
+ */
+public final class Migrations {
+    private static final String CREATE_STUDENTS_TABLE =
+        "CREATE TABLE IF NOT EXISTS students (" +
+        "student_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+        "name TEXT NOT NULL, " +
+        "course TEXT NOT NULL, " +
+        "enrollment_date TEXT DEFAULT CURRENT_DATE" +
+        ");";
+    private static final String CREATE_ATTENDANCE_TABLE =
+        "CREATE TABLE IF NOT EXISTS attendance (" +
+        "attendance_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+        "student_id INTEGER NOT NULL, " +
+        "date TEXT NOT NULL, " +
+        "status TEXT NOT NULL CHECK(status IN ('Present','Absent')), " +
+        "FOREIGN KEY(student_id) REFERENCES students(student_id) ON DELETE CASCADE, " +
+        "UNIQUE(student_id, date)" +
+        ");";
+
+    private static final String CREATE_ATTENDANCE_COMPACT_TABLE =
+        "CREATE TABLE IF NOT EXISTS attendance_compact (" +
+        "attendance_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+        "student_id INTEGER NOT NULL, " +
+        "date INTEGER NOT NULL, " +
+        "status INTEGER NOT NULL CHECK(status IN (0, 1)), " +
+        "FOREIGN KEY(student_id) REFERENCES students(student_id) ON DELETE CASCADE, " +
+        "UNIQUE(student_id, date)" +
+        ");";
+
+    // External-content FTS5 index over students; the trigram tokenizer gives LIKE '%term%' semantics for terms of 3+ chars
+    private static final String CREATE_STUDENTS_FTS =
+        "CREATE VIRTUAL TABLE IF NOT EXISTS students_fts USING fts5(" +
+        "name, course, content='students', content_rowid='student_id', tokenize='trigram');";
+    private static final String[] CREATE_STUDENTS_FTS_TRIGGERS = {
+        "CREATE TRIGGER IF NOT EXISTS students_fts_insert AFTER INSERT ON students BEGIN " +
+        "INSERT INTO students_fts(rowid, name, course) VALUES (new.student_id, new.name, new.course); END;",
+        "CREATE TRIGGER IF NOT EXISTS students_fts_delete AFTER DELETE ON students BEGIN " +
+        "INSERT INTO students_fts(students_fts, rowid, name, course) VALUES ('delete', old.student_id, old.name, old.course); END;",
+        "CREATE TRIGGER IF NOT EXISTS students_fts_update AFTER UPDATE OF name, course ON students BEGIN " +
+        "INSERT INTO students_fts(students_fts, rowid, name, course) VALUES ('delete', old.student_id, old.name, old.course); " +
+        "INSERT INTO students_fts(rowid, name, course) VALUES (new.student_id, new.name, new.course); END;"
+    };
+
+    private static final List<Migration> ALL = List.of(
+        Migration.sql(1, "students and attendance tables",
+            CREATE_STUDENTS_TABLE,
+            CREATE_ATTENDANCE_TABLE,
+            "CREATE INDEX IF NOT EXISTS idx_attendance_date ON attendance(date);",
+            "CREATE INDEX IF NOT EXISTS idx_attendance_student_id ON attendance(student_id);"),
+
+        // Covering indexes: the date-first one serves daily/monthly aggregates and roll-call lookups,
+        // the student-first one per-student history and summaries, without touching the base table.
+        // The single-column indexes are prefixes of these and only cost writes.
+        Migration.sql(2, "covering attendance and student indexes",
+            "CREATE INDEX IF NOT EXISTS idx_attendance_date_student ON attendance(date, student_id, status);",
+            "CREATE INDEX IF NOT EXISTS idx_attendance_student_date ON attendance(student_id, date, status);",
+            "CREATE INDEX IF NOT EXISTS idx_students_course ON students(course, name);",
+            "CREATE INDEX IF NOT EXISTS idx_students_name ON students(name);",
+            "CREATE INDEX IF NOT EXISTS idx_students_enrollment_date ON students(enrollment_date);",
+            "DROP INDEX IF EXISTS idx_attendance_date;",
+            "DROP INDEX IF EXISTS idx_attendance_student_id;",
+            "ANALYZE;"),
+
+        // Builds without FTS5 or the trigram tokenizer skip this and fall back to LIKE scans until the driver has them
+        Migration.of(3, "students_fts full-text index", Migrations::installStudentsFts).asOptional(),
+
+        // Foreign keys were not enforced before connections turned them on, so deleting a
+        // student could leave its attendance behind
+        Migration.sql(4, "purge attendance of deleted students").withBackfill(new Migration.Backfill(
+            "purge_orphan_attendance", "attendance", "attendance_id",
+            "DELETE FROM attendance WHERE attendance_id > ? AND attendance_id <= ? " +
+            "AND NOT EXISTS (SELECT 1 FROM students s WHERE s.student_id = attendance.student_id);")),
+
+        // Compact attendance encoding: date as epoch day, status as AttendanceStatus code (1 = Present).
+        // Rows are copied in chunks while triggers mirror concurrent writes; version 6 swaps the tables.
+        Migration.sql(5, "copy attendance into integer-encoded table",
+            CREATE_ATTENDANCE_COMPACT_TABLE,
+            "CREATE TRIGGER IF NOT EXISTS attendance_compact_insert AFTER INSERT ON attendance BEGIN " +
+                "INSERT OR REPLACE INTO attendance_compact VALUES " +
+                "(new.attendance_id, new.student_id, " + epochDay("new.date") + ", " + statusCode("new.status") + "); END;",
+            "CREATE TRIGGER IF NOT EXISTS attendance_compact_update AFTER UPDATE ON attendance BEGIN " +
+                "DELETE FROM attendance_compact WHERE attendance_id = old.attendance_id; " +
+                "INSERT OR REPLACE INTO attendance_compact VALUES " +
+                "(new.attendance_id, new.student_id, " + epochDay("new.date") + ", " + statusCode("new.status") + "); END;",
+            "CREATE TRIGGER IF NOT EXISTS attendance_compact_delete AFTER DELETE ON attendance BEGIN " +
+                "DELETE FROM attendance_compact WHERE attendance_id = old.attendance_id; END;"
+        ).withBackfill(new Migration.Backfill(
+            "copy_attendance_compact", "attendance", "attendance_id",
+            // OR IGNORE keeps rows the triggers already wrote, which are at least as new
+            "INSERT OR IGNORE INTO attendance_compact SELECT attendance_id, student_id, " +
+            epochDay("date") + ", " + statusCode("status") + " FROM attendance WHERE attendance_id > ? AND attendance_id <= ?;")),
+
+        Migration.sql(6, "swap in integer-encoded attendance",
+            "DROP TRIGGER IF EXISTS attendance_compact_insert;",
+            "DROP TRIGGER IF EXISTS attendance_compact_update;",
+            "DROP TRIGGER IF EXISTS attendance_compact_delete;",
+            "DROP TABLE attendance;",
+            "ALTER TABLE attendance_compact RENAME TO attendance;",
+            "CREATE INDEX IF NOT EXISTS idx_attendance_date_student ON attendance(date, student_id, status);",
+            "CREATE INDEX IF NOT EXISTS idx_attendance_student_date ON attendance(student_id, date, status);",
+            // Text rendering for ad-hoc queries and external tools
+            "CREATE VIEW IF NOT EXISTS attendance_readable AS SELECT attendance_id, student_id, " +
+                "date(date * 86400, 'unixepoch') AS date, CASE status WHEN 1 THEN 'Present' ELSE 'Absent' END AS status " +
+                "FROM attendance;",
+            "ANALYZE;"),
+
+        Migration.of(7, "attendance rollup tables", Rollups::install),
+
+        // Version 3 used to be recorded even when FTS5 was missing; this retries it for those databases
+        Migration.of(8, "students_fts for databases upgraded without it", conn -> {
+            if (!hasTable(conn, "students_fts")) installStudentsFts(conn);
+        }).asOptional()
+    );
+
+    private Migrations() {
+    }
+
+    // SQL converting an ISO date column to its epoch day (julianday of midnight is always x.5)
+    private static String epochDay(String column) {
+        return "CAST(julianday(" + column + ") - 2440587.5 AS INTEGER)";
+    }
+
+    private static String statusCode(String column) {
+        return "CASE " + column + " WHEN 'Present' THEN 1 ELSE 0 END";
+    }
+
+    private static void installStudentsFts(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_STUDENTS_FTS);
+            for (String trigger : CREATE_STUDENTS_FTS_TRIGGERS) stmt.execute(trigger);
+            stmt.execute("INSERT INTO students_fts(students_fts) VALUES ('rebuild');");
+        }
+    }
+
+    private static boolean hasTable(Connection conn, String name) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM sqlite_master WHERE name = ?;")) {
+            pstmt.setString(1, name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    public static List<Migration> all() {
+        return ALL;
+    }
+}
@@ -0,0 +1,67 @@
+package com.studentmanagement.database;
+
+import java.io.PrintStream;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Debug aid that runs {@code EXPLAIN QUERY PLAN} the first time each distinct statement is
+ * prepared and prints the plan, flagging full table scans so index regressions are visible.
+ */
+public class QueryPlanLog {
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private final Set<String> fullScans = ConcurrentHashMap.newKeySet();
+    private final PrintStream out;
+
+    public QueryPlanLog(PrintStream out) {
+        this.out = out;
+    }
+
+    void check(Connection conn, String sql) {
+        if (!seen.add(sql)) return;
+        List<String> plan;
+        try {
+            plan = explain(conn, sql);
+        } catch (SQLException e) {
+            out.println("[query-plan] could not explain: " + sql + " (" + e.getMessage() + ")");
+            return;
+        }
+        boolean scan = plan.stream().anyMatch(QueryPlanLog::isFullScan);
+        if (scan) fullScans.add(sql);
+        StringBuilder sb = new StringBuilder(scan ? "[query-plan] FULL SCAN: " : "[query-plan] ").append(sql);
+        for (String step : plan) sb.append(System.lineSeparator()).append("    ").append(step);
+        out.println(sb);
+    }
+
+    /** Plan steps for {@code sql}, indented by nesting depth. Parameters may stay unbound. */
+    static List<String> explain(Connection conn, String sql) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        Map<Integer, Integer> depth = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                int level = depth.getOrDefault(rs.getInt(2), -1) + 1;
+                depth.put(rs.getInt(1), level);
+                steps.add("  ".repeat(level) + rs.getString(4));
+            }
+        }
+        return steps;
+    }
+
+    // "SCAN t" without an index; virtual tables (FTS) and constant rows are not table scans
+    private static boolean isFullScan(String step) {
+        String detail = step.trim();
+        return detail.startsWith("SCAN ") && !detail.contains(" INDEX")
+            && !detail.contains("VIRTUAL TABLE") && !detail.equals("SCAN CONSTANT ROW");
+    }
+
+    /** Distinct statements seen so far whose plan contains a full table scan. */
+    public Set<String> getFullScans() {
+        return Collections.unmodifiableSet(fullScans);
+    }
+
+    public int getExplainedCount() {
+        return seen.size();
+    }
+}
@@ -0,0 +1,109 @@
+package com.studentmanagement.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Pre-aggregated attendance counts, kept current by triggers on every attendance insert, update
+ * and delete (an upsert that flips Present/Absent fires the update trigger, which moves the
+ * count), and on student deletes and course changes. Rows whose total drops to zero are left in
+ * place; readers filter on {@code total > 0}. {@link #rebuild} recomputes everything from the raw
+ * attendance table.
+ */
+public final class Rollups {
+    private static final String[] CREATE_TABLES = {
+        "CREATE TABLE IF NOT EXISTS attendance_daily (" +
+            "date INTEGER PRIMARY KEY, present INTEGER NOT NULL, total INTEGER NOT NULL);",
+        "CREATE TABLE IF NOT EXISTS attendance_course_daily (" +
+            "course TEXT NOT NULL, date INTEGER NOT NULL, present INTEGER NOT NULL, total INTEGER NOT NULL, " +
+            "PRIMARY KEY (course, date)) WITHOUT ROWID;",
+        // month is yyyymm
+        "CREATE TABLE IF NOT EXISTS attendance_student_monthly (" +
+            "student_id INTEGER NOT NULL, month INTEGER NOT NULL, present INTEGER NOT NULL, total INTEGER NOT NULL, " +
+            "PRIMARY KEY (student_id, month)) WITHOUT ROWID;"
+    };
+
+    private static final String ADD_COUNTS = " ON CONFLICT DO UPDATE SET " +
+        "present = present + excluded.present, total = total + excluded.total;";
+
+    private static final String[] CREATE_TRIGGERS = {
+        "CREATE TRIGGER IF NOT EXISTS rollup_attendance_insert AFTER INSERT ON attendance BEGIN " +
+            apply("new", "") + " END;",
+        "CREATE TRIGGER IF NOT EXISTS rollup_attendance_delete AFTER DELETE ON attendance BEGIN " +
+            apply("old", "-") + " END;",
+        // A Present/Absent flip (the common upsert case) only moves the present count
+        "CREATE TRIGGER IF NOT EXISTS rollup_attendance_status AFTER UPDATE OF status ON attendance " +
+            "WHEN old.student_id = new.student_id AND old.date = new.date AND old.status <> new.status BEGIN " +
+            "UPDATE attendance_daily SET present = present + new.status - old.status WHERE date = new.date; " +
+            "UPDATE attendance_course_daily SET present = present + new.status - old.status " +
+            "WHERE course = (SELECT course FROM students WHERE student_id = new.student_id) AND date = new.date; " +
+            "UPDATE attendance_student_monthly SET present = present + new.status - old.status " +
+            "WHERE student_id = new.student_id AND month = " + month("new.date") + "; END;",
+        "CREATE TRIGGER IF NOT EXISTS rollup_attendance_update AFTER UPDATE OF student_id, date, status ON attendance " +
+            "WHEN old.student_id <> new.student_id OR old.date <> new.date BEGIN " +
+            apply("old", "-") + " " + apply("new", "") + " END;",
+        // Clear attendance while the student row (and so its course) still exists; the cascade then finds nothing
+        "CREATE TRIGGER IF NOT EXISTS rollup_students_delete BEFORE DELETE ON students BEGIN " +
+            "DELETE FROM attendance WHERE student_id = old.student_id; END;",
+        "CREATE TRIGGER IF NOT EXISTS rollup_students_course AFTER UPDATE OF course ON students " +
+            "WHEN old.course IS NOT new.course BEGIN " +
+            moveCourse("old.course", "-") + " " + moveCourse("new.course", "") + " END;"
+    };
+
+    private static final String[] REBUILD = {
+        "DELETE FROM attendance_daily;",
+        "DELETE FROM attendance_course_daily;",
+        "DELETE FROM attendance_student_monthly;",
+        "INSERT INTO attendance_daily (date, present, total) " +
+            "SELECT date, SUM(status), COUNT(*) FROM attendance GROUP BY date;",
+        "INSERT INTO attendance_course_daily (course, date, present, total) " +
+            "SELECT s.course, a.date, SUM(a.status), COUNT(*) FROM attendance a " +
+            "JOIN students s ON s.student_id = a.student_id GROUP BY s.course, a.date;",
+        "INSERT INTO attendance_student_monthly (student_id, month, present, total) " +
+            "SELECT student_id, " + month("date") + " AS m, SUM(status), COUNT(*) FROM attendance GROUP BY student_id, m;"
+    };
+
+    private Rollups() {
+    }
+
+    /** yyyymm for an epoch-day expression. */
+    public static String month(String epochDay) {
+        return "CAST(strftime('%Y%m', " + epochDay + " * 86400, 'unixepoch') AS INTEGER)";
+    }
+
+    // Adds (sign "") or removes (sign "-") one attendance row's counts in every rollup
+    private static String apply(String row, String sign) {
+        String present = sign + row + ".status";
+        String one = sign + "1";
+        return "INSERT INTO attendance_daily (date, present, total) VALUES (" + row + ".date, " + present + ", " + one + ")" +
+                ADD_COUNTS + " " +
+            "INSERT INTO attendance_course_daily (course, date, present, total) SELECT course, " + row + ".date, " +
+                present + ", " + one + " FROM students WHERE student_id = " + row + ".student_id" + ADD_COUNTS + " " +
+            "INSERT INTO attendance_student_monthly (student_id, month, present, total) VALUES (" + row + ".student_id, " +
+                month(row + ".date") + ", " + present + ", " + one + ")" + ADD_COUNTS;
+    }
+
+    // Adds or removes a student's whole history in the per-course rollup
+    private static String moveCourse(String course, String sign) {
+        return "INSERT INTO attendance_course_daily (course, date, present, total) SELECT " + course + ", date, " +
+            sign + "SUM(status), " + sign + "COUNT(*) FROM attendance WHERE student_id = new.student_id GROUP BY date" +
+            ADD_COUNTS;
+    }
+
+    /** Creates the rollup tables and triggers and fills them from the current attendance. */
+    static void install(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : CREATE_TABLES) stmt.execute(sql);
+            for (String sql : CREATE_TRIGGERS) stmt.execute(sql);
+        }
+        rebuild(conn);
+    }
+
+    /** Recomputes every rollup from raw attendance; run inside a transaction so readers never see it half-built. */
+    public static void rebuild(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : REBUILD) stmt.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.studentmanagement.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/** Maps the current row of a result set to an object, reading columns by index. */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T mapRow(ResultSet rs) throws SQLException;
+}
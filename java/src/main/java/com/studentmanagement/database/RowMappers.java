@@ -0,0 +1,45 @@
+package com.studentmanagement.database;
+
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.Student;
+import java.time.LocalDate;
+
+/**
+ * Index-based mappers for the model classes. Queries using them must select exactly
+ * {@link #STUDENT_COLUMNS} / {@link #ATTENDANCE_COLUMNS}, in that order. Attendance dates and
+ * statuses are decoded from their integer storage form here.
+ */
+public final class RowMappers {
+    public static final String STUDENT_COLUMNS = "student_id, name, course, enrollment_date";
+    public static final String ATTENDANCE_COLUMNS = "attendance_id, student_id, date, status";
+
+    public static final RowMapper<Student> STUDENT = rs -> new Student(
+        rs.getInt(1), rs.getString(2), rs.getString(3), parseIsoDate(rs.getString(4)));
+
+    public static final RowMapper<Attendance> ATTENDANCE = rs -> new Attendance(
+        rs.getInt(1), rs.getInt(2), EpochDays.toIso(rs.getLong(3)), AttendanceStatus.fromCode(rs.getInt(4)));
+
+    private RowMappers() {
+    }
+
+    // Hand-rolled yyyy-MM-dd parse; avoids the DateTimeFormatter machinery of LocalDate.parse per row
+    static LocalDate parseIsoDate(String s) {
+        if (s == null) return null;
+        if (s.length() == 10 && s.charAt(4) == '-' && s.charAt(7) == '-') {
+            int year = digits(s, 0, 4), month = digits(s, 5, 7), day = digits(s, 8, 10);
+            if (year >= 0 && month >= 0 && day >= 0) return LocalDate.of(year, month, day);
+        }
+        return LocalDate.parse(s);
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,9 @@
+package com.studentmanagement.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SqlFunction<T> {
+    T apply(Connection conn) throws SQLException;
+}
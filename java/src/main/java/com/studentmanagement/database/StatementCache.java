@@ -0,0 +1,82 @@
+package com.studentmanagement.database;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements for a single connection, keyed by SQL text.
+ * Not thread-safe on its own: the pool only lets one caller use a connection at a time.
+ * Statements handed out here are owned by the cache and must not be closed by callers.
+ */
+public class StatementCache implements AutoCloseable {
+    private final Connection conn;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public StatementCache(Connection conn, int capacity) {
+        this.conn = conn;
+        this.statements = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= capacity) return false;
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement pstmt = statements.get(sql);
+        if (pstmt != null) {
+            hits.increment();
+            return pstmt;
+        }
+        misses.increment();
+        pstmt = isInsert(sql)
+            ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+            : conn.prepareStatement(sql);
+        statements.put(sql, pstmt);
+        return pstmt;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    @Override
+    public void close() {
+        for (PreparedStatement pstmt : statements.values()) closeQuietly(pstmt);
+        statements.clear();
+    }
+
+    static boolean isInsert(String sql) {
+        int i = 0;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) i++;
+        return sql.regionMatches(true, i, "INSERT", 0, 6);
+    }
+
+    static boolean isUpsert(String sql) {
+        for (int i = 0; i + 11 <= sql.length(); i++) {
+            if (sql.regionMatches(true, i, "ON CONFLICT", 0, 11)) return true;
+        }
+        return false;
+    }
+
+    private static void closeQuietly(PreparedStatement pstmt) {
+        try {
+            pstmt.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing statement: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.studentmanagement.database;
+
+import java.sql.SQLException;
+
+/** Carries a SQLException out of a streamed result set, where checked exceptions can't be thrown. */
+public class UncheckedSQLException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedSQLException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -0,0 +1,25 @@
+package com.studentmanagement.http;
+
+/** A request error answered with {@code status} and a JSON body carrying the message. */
+class ApiException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    static ApiException notFound(String what) {
+        return new ApiException(404, what + " not found");
+    }
+
+    static ApiException methodNotAllowed(String method) {
+        return new ApiException(405, "Method " + method + " not allowed here");
+    }
+}
@@ -0,0 +1,256 @@
+package com.studentmanagement.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studentmanagement.database.UncheckedSQLException;
+import com.studentmanagement.metrics.Metrics;
+import com.studentmanagement.models.CursorPage;
+import com.studentmanagement.models.Page;
+import com.studentmanagement.services.ExportFormat;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Base for the JSON endpoints under one path prefix. Subclasses route on the method and the path
+ * segments after the prefix and return the object to send as JSON, or write a streamed body
+ * through {@link Request#stream}. Exceptions become status codes: {@link ApiException} carries
+ * its own, IllegalArgumentException and malformed JSON are 400, anything else is 500.
+ */
+abstract class ApiHandler implements HttpHandler {
+    static final ObjectMapper JSON = new ObjectMapper();
+    private static final int BUFFER_SIZE = 1 << 14;
+    private static final int DEFAULT_PAGE_LIMIT = 50;
+    private static final int MAX_PAGE_LIMIT = 500;
+
+    private final String prefix;
+
+    ApiHandler(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /** Handles one request; a non-null result is sent with {@link Request#status}, null means 204 unless streamed. */
+    abstract Object route(Request request) throws Exception;
+
+    @Override
+    public final void handle(HttpExchange exchange) throws IOException {
+        long startTime = Metrics.start();
+        Request request = new Request(exchange, prefix);
+        try {
+            Object body = route(request);
+            if (!request.committed) request.sendJson(body == null ? 204 : request.status, body);
+            else request.finish();
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof UncheckedSQLException) cause = cause.getCause();
+            int status = cause instanceof ApiException ? ((ApiException) cause).getStatus()
+                : cause instanceof IllegalArgumentException || cause instanceof DateTimeException
+                || cause instanceof JsonProcessingException ? 400 : 500;
+            if (status == 500) {
+                System.err.println(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " failed: " + cause);
+            }
+            // Once a streamed body has started the status is gone; dropping the connection tells the client
+            if (!request.committed) request.sendJson(status, Map.of("error", String.valueOf(cause.getMessage())));
+        } finally {
+            exchange.close();
+            Metrics.record("ApiServer", exchange.getRequestMethod() + " " + prefix, startTime);
+        }
+    }
+
+    static String contentType(ExportFormat format) {
+        switch (format) {
+            case CSV: return "text/csv; charset=utf-8";
+            case PDF: return "application/pdf";
+            case JSON: default: return "application/json";
+        }
+    }
+
+    /** A field of a JSON request body as trimmed text; a null default makes the field required. */
+    static String text(JsonNode body, String field, String defaultValue) {
+        JsonNode value = body.get(field);
+        if (value == null || value.isNull()) {
+            if (defaultValue == null) throw new IllegalArgumentException("Missing field: " + field);
+            return defaultValue;
+        }
+        return value.asText().trim();
+    }
+
+    static <T> Map<String, Object> pageJson(Page<T> page, Function<T, Map<String, Object>> toJson) {
+        List<Map<String, Object>> items = new ArrayList<>(page.getItems().size());
+        for (T item : page.getItems()) items.add(toJson.apply(item));
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("items", items);
+        json.put("offset", page.getOffset());
+        json.put("limit", page.getLimit());
+        json.put("has_more", page.hasMore());
+        if (page.hasMore()) json.put("next_offset", page.getNextOffset());
+        return json;
+    }
+
+    static <T> Map<String, Object> pageJson(CursorPage<T> page, Function<T, Map<String, Object>> toJson) {
+        List<Map<String, Object>> items = new ArrayList<>(page.getItems().size());
+        for (T item : page.getItems()) items.add(toJson.apply(item));
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("items", items);
+        json.put("limit", page.getLimit());
+        json.put("has_more", page.hasMore());
+        if (page.hasMore()) json.put("next_page_token", page.getNextToken());
+        return json;
+    }
+
+    // Page size from ?limit=, capped so one request can't materialize an entire table
+    static int pageLimit(Request request) {
+        return Math.min(request.intQuery("limit", DEFAULT_PAGE_LIMIT), MAX_PAGE_LIMIT);
+    }
+
+    static final class Request {
+        private final HttpExchange exchange;
+        private final String method;
+        private final List<String> path = new ArrayList<>();
+        private final Map<String, String> query = new HashMap<>();
+        private int status = 200;
+        private boolean committed;
+        private OutputStream body;
+
+        Request(HttpExchange exchange, String prefix) {
+            this.exchange = exchange;
+            this.method = exchange.getRequestMethod();
+            String rawPath = exchange.getRequestURI().getRawPath();
+            for (String segment : rawPath.substring(Math.min(prefix.length(), rawPath.length())).split("/")) {
+                if (!segment.isEmpty()) path.add(decode(segment));
+            }
+            String rawQuery = exchange.getRequestURI().getRawQuery();
+            if (rawQuery != null) {
+                for (String pair : rawQuery.split("&")) {
+                    int eq = pair.indexOf('=');
+                    if (eq < 0) query.put(decode(pair), "");
+                    else query.put(decode(pair.substring(0, eq)), decode(pair.substring(eq + 1)));
+                }
+            }
+        }
+
+        private static String decode(String s) {
+            return URLDecoder.decode(s, StandardCharsets.UTF_8);
+        }
+
+        String method() {
+            return method;
+        }
+
+        /** Path segments after the handler's prefix. */
+        List<String> path() {
+            return path;
+        }
+
+        String query(String name) {
+            return query.get(name);
+        }
+
+        String query(String name, String defaultValue) {
+            return query.getOrDefault(name, defaultValue);
+        }
+
+        int intQuery(String name, int defaultValue) {
+            String value = query.get(name);
+            return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+        }
+
+        String requireQuery(String name) {
+            String value = query.get(name);
+            if (value == null || value.isEmpty()) throw new IllegalArgumentException("Missing query parameter: " + name);
+            return value;
+        }
+
+        JsonNode body() throws IOException {
+            try (InputStream in = exchange.getRequestBody()) {
+                JsonNode node = JSON.readTree(in);
+                if (node == null || node.isMissingNode()) throw new IllegalArgumentException("Request body must be JSON");
+                return node;
+            }
+        }
+
+        void setStatus(int status) {
+            this.status = status;
+        }
+
+        /**
+         * A response body of {@code contentType} sent with the current status. Headers go out on the
+         * first write, so a report that fails validation before writing can still answer with an error.
+         */
+        OutputStream stream(String contentType) {
+            return new OutputStream() {
+                private OutputStream out() throws IOException {
+                    if (body == null) {
+                        exchange.getResponseHeaders().set("Content-Type", contentType);
+                        exchange.sendResponseHeaders(status, 0);
+                        committed = true;
+                        body = new BufferedOutputStream(exchange.getResponseBody(), BUFFER_SIZE);
+                    }
+                    return body;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    out().write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out().write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    out().flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    // The exchange owns the stream; finish() flushes it
+                    out();
+                }
+            };
+        }
+
+        /** Streams {@code rows} as a JSON array, closing the stream (and its database cursor) afterwards. */
+        void streamJsonArray(Stream<? extends Map<String, Object>> rows) throws IOException {
+            try (rows; JsonGenerator json = JSON.getFactory().createGenerator(stream("application/json"))) {
+                json.writeStartArray();
+                Iterator<? extends Map<String, Object>> it = rows.iterator();
+                while (it.hasNext()) json.writeObject(it.next());
+                json.writeEndArray();
+            }
+        }
+
+        void finish() throws IOException {
+            if (body != null) body.flush();
+        }
+
+        void sendJson(int status, Object value) throws IOException {
+            committed = true;
+            if (value == null) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            byte[] bytes = JSON.writeValueAsBytes(value);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.studentmanagement.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceBatchResult;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.StudentService;
+import com.studentmanagement.services.WriteDurability;
+
+import java.util.*;
+
+/**
+ * /api/attendance: record one record (through the write-behind queue when it is enabled) or a
+ * batch, list a day ({@code ?date=}), stream a range ({@code ?from=&to=}) or page through it
+ * ({@code &limit=&page_token=}), and delete by ID.
+ */
+class AttendanceHandler extends ApiHandler {
+    private final StudentService studentService;
+    private final AttendanceService attendanceService;
+
+    AttendanceHandler(StudentService studentService, AttendanceService attendanceService) {
+        super("/api/attendance");
+        this.studentService = studentService;
+        this.attendanceService = attendanceService;
+    }
+
+    @Override
+    Object route(Request request) throws Exception {
+        List<String> path = request.path();
+        if (path.isEmpty()) {
+            switch (request.method()) {
+                case "GET": return list(request);
+                case "POST": {
+                    Attendance attendance = attendance(request.body());
+                    // Checked up front (usually a cache hit) so an unknown student is a 404, not a foreign key error
+                    if (studentService.getStudentById(attendance.getStudentId()) == null) {
+                        throw ApiException.notFound("Student " + attendance.getStudentId());
+                    }
+                    // Read before submitting, so enabling or disabling write-behind meanwhile can't change the answer
+                    WriteDurability durability = attendanceService.getWriteBehindDurability();
+                    Attendance recorded = attendanceService.recordAttendanceAsync(attendance).join();
+                    // No row back means the write was lost (e.g. deleted before it could be read back)
+                    if (recorded == null) throw new ApiException(500, "Attendance for student " + attendance.getStudentId() + " was not recorded");
+                    // ACCEPTED write-behind answers before the write commits
+                    request.setStatus(durability == WriteDurability.ACCEPTED ? 202 : 201);
+                    return recorded.toMap();
+                }
+                default: throw ApiException.methodNotAllowed(request.method());
+            }
+        }
+        if (path.size() == 1 && path.get(0).equals("batch")) {
+            if (!request.method().equals("POST")) throw ApiException.methodNotAllowed(request.method());
+            return batch(request.body());
+        }
+        if (path.size() == 1 && request.method().equals("DELETE")) {
+            int id = Integer.parseInt(path.get(0));
+            if (!attendanceService.deleteAttendance(id)) throw ApiException.notFound("Attendance " + id);
+            return null;
+        }
+        throw ApiException.notFound(String.join("/", path));
+    }
+
+    private Object list(Request request) throws Exception {
+        String date = request.query("date");
+        if (date != null) {
+            request.streamJsonArray(attendanceService.streamAttendanceByDate(date).map(Attendance::toMap));
+        } else if (request.query("limit") != null || request.query("page_token") != null) {
+            return pageJson(attendanceService.getAttendancePage(request.requireQuery("from"), request.requireQuery("to"),
+                request.query("page_token"), pageLimit(request)), Attendance::toMap);
+        } else {
+            request.streamJsonArray(attendanceService.streamAttendanceByDateRange(request.requireQuery("from"),
+                request.requireQuery("to")).map(Attendance::toMap));
+        }
+        return null;
+    }
+
+    private Map<String, Object> batch(JsonNode body) throws Exception {
+        if (!body.isArray()) throw new IllegalArgumentException("Expected a JSON array of attendance records");
+        List<Attendance> records = new ArrayList<>(body.size());
+        for (JsonNode node : body) records.add(attendance(node));
+        AttendanceBatchResult result = attendanceService.recordAttendanceBatch(records);
+        List<Map<String, Object>> failures = new ArrayList<>();
+        for (AttendanceBatchResult.Failure f : result.getFailures()) {
+            Map<String, Object> failure = new LinkedHashMap<>();
+            failure.put("student_id", f.getAttendance().getStudentId());
+            failure.put("date", f.getAttendance().getDate());
+            failure.put("reason", f.getReason());
+            failures.add(failure);
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("inserted", result.getInserted());
+        json.put("updated", result.getUpdated());
+        json.put("failed", result.getFailedCount());
+        json.put("failures", failures);
+        return json;
+    }
+
+    private static Attendance attendance(JsonNode node) {
+        if (!node.isObject()) throw new IllegalArgumentException("Attendance record must be a JSON object");
+        int studentId;
+        try {
+            studentId = Integer.parseInt(text(node, "student_id", null));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid student_id: " + node.get("student_id"));
+        }
+        return new Attendance(studentId, text(node, "date", null),
+            AttendanceStatus.fromValue(text(node, "status", null)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.studentmanagement.http;
+
+import com.studentmanagement.services.ExportFormat;
+import com.studentmanagement.services.ReportService;
+import com.studentmanagement.services.StudentService;
+
+import java.io.OutputStream;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * /api/reports: the same reports as the CLI and headless {@code report} command, streamed in
+ * {@code ?format=json|csv|pdf} (JSON by default).
+ * <pre>
+ *   GET /api/reports/student/{id}    GET /api/reports/daily/{date}      GET /api/reports/course/{course}
+ *   GET /api/reports/range?from=&to= GET /api/reports/monthly/{yyyy-mm} GET /api/reports/courses
+ *   GET /api/reports/absent?from=&to=   (students absent on every recorded day in the range)
+ * </pre>
+ */
+class ReportsHandler extends ApiHandler {
+    private final StudentService studentService;
+    private final ReportService reportService;
+
+    ReportsHandler(StudentService studentService, ReportService reportService) {
+        super("/api/reports");
+        this.studentService = studentService;
+        this.reportService = reportService;
+    }
+
+    @Override
+    Object route(Request request) throws Exception {
+        if (!request.method().equals("GET")) throw ApiException.methodNotAllowed(request.method());
+        List<String> path = request.path();
+        if (path.isEmpty()) throw ApiException.notFound("Report");
+        ExportFormat format = ExportFormat.fromValue(request.query("format", "json"));
+        String type = path.get(0);
+        int expected = type.equals("courses") || type.equals("range") || type.equals("absent") ? 1 : 2;
+        if (path.size() != expected) throw ApiException.notFound(String.join("/", path));
+        OutputStream out = request.stream(contentType(format));
+        switch (type) {
+            case "student": {
+                int id = Integer.parseInt(path.get(1));
+                if (studentService.getStudentById(id) == null) throw ApiException.notFound("Student " + id);
+                reportService.writeStudentAttendance(id, format, out);
+                break;
+            }
+            case "daily": reportService.writeDailyReport(path.get(1), format, out); break;
+            case "course": reportService.writeCourseReport(path.get(1), format, out); break;
+            case "range":
+                reportService.writeAttendanceRange(request.requireQuery("from"), request.requireQuery("to"), format, out);
+                break;
+            case "monthly": {
+                YearMonth month = YearMonth.parse(path.get(1));
+                reportService.writeReport(reportService.generateMonthlyAttendanceReport(month.getYear(),
+                    month.getMonthValue()), format, out);
+                break;
+            }
+            case "courses": reportService.writeReport(reportService.generateCoursesOverview(), format, out); break;
+            case "absent":
+                reportService.writeReport(reportService.generateAbsentEveryDayReport(request.requireQuery("from"),
+                    request.requireQuery("to")), format, out);
+                break;
+            default: throw ApiException.notFound("Report " + type);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.studentmanagement.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.Student;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.StudentService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /api/students: keyset-paged listing in ID order ({@code ?page_token=&limit=}), ranked search
+ * ({@code ?q=&offset=&limit=}), lookup by course ({@code ?course=}), create, read, update and
+ * delete, plus a student's attendance (keyset-paged, newest first) and summary.
+ */
+class StudentsHandler extends ApiHandler {
+    private final StudentService studentService;
+    private final AttendanceService attendanceService;
+
+    StudentsHandler(StudentService studentService, AttendanceService attendanceService) {
+        super("/api/students");
+        this.studentService = studentService;
+        this.attendanceService = attendanceService;
+    }
+
+    @Override
+    Object route(Request request) throws Exception {
+        List<String> path = request.path();
+        if (path.isEmpty()) {
+            switch (request.method()) {
+                case "GET": return list(request);
+                case "POST": {
+                    JsonNode body = request.body();
+                    Student student = studentService.addStudent(new Student(text(body, "name", null), text(body, "course", null)));
+                    request.setStatus(201);
+                    return student.toMap();
+                }
+                default: throw ApiException.methodNotAllowed(request.method());
+            }
+        }
+        int id = Integer.parseInt(path.get(0));
+        if (path.size() == 1) {
+            switch (request.method()) {
+                case "GET": return find(id).toMap();
+                case "PUT": {
+                    Student current = find(id);
+                    JsonNode body = request.body();
+                    Student updated = studentService.updateStudent(new Student(id, text(body, "name", current.getName()),
+                        text(body, "course", current.getCourse()), current.getEnrollmentDate()));
+                    if (updated == null) throw ApiException.notFound("Student " + id);
+                    return updated.toMap();
+                }
+                case "DELETE":
+                    if (!studentService.deleteStudent(id)) throw ApiException.notFound("Student " + id);
+                    return null;
+                default: throw ApiException.methodNotAllowed(request.method());
+            }
+        }
+        if (path.size() == 2 && request.method().equals("GET")) {
+            find(id);
+            switch (path.get(1)) {
+                case "attendance":
+                    return pageJson(attendanceService.getStudentAttendancePage(id, request.query("page_token"),
+                        pageLimit(request)), Attendance::toMap);
+                case "summary": return attendanceService.getStudentAttendanceSummary(id);
+                default: break;
+            }
+        }
+        throw ApiException.notFound(String.join("/", path));
+    }
+
+    private Object list(Request request) throws Exception {
+        String course = request.query("course");
+        if (course != null) {
+            List<Map<String, Object>> students = new ArrayList<>();
+            for (Student s : studentService.getStudentsByCourse(course)) students.add(s.toMap());
+            return students;
+        }
+        String term = request.query("q");
+        if (term == null) {
+            return pageJson(studentService.getStudentsPage(request.query("page_token"), pageLimit(request)), Student::toMap);
+        }
+        return pageJson(studentService.searchStudents(term, request.intQuery("offset", 0), pageLimit(request)),
+            Student::toMap);
+    }
+
+    private Student find(int id) throws Exception {
+        Student student = studentService.getStudentById(id);
+        if (student == null) throw ApiException.notFound("Student " + id);
+        return student;
+    }
+}
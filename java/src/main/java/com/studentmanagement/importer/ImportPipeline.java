@@ -0,0 +1,215 @@
+package com.studentmanagement.importer;
+
+import com.opencsv.CSVWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs an import as three stages. The calling thread parses and validates records into batches
+ * while a writer thread commits the previous batch in its own transaction. The queue between them
+ * holds only a couple of batches, so a slow database throttles parsing instead of the whole file
+ * piling up in memory. Records rejected by either stage go to the rejects file with their
+ * position in the input and the reason.
+ */
+final class ImportPipeline<T> {
+    private static final int QUEUE_BATCHES = 2;
+
+    /** Turns one record into a value to write; throws IllegalArgumentException with the reason to reject it. */
+    @FunctionalInterface
+    interface Validator<T> {
+        T validate(String[] values);
+    }
+
+    @FunctionalInterface
+    interface Writer<T> {
+        Written write(List<T> batch) throws SQLException;
+    }
+
+    /** Outcome of writing one batch; failures are keyed by index within the batch. */
+    static final class Written {
+        long inserted;
+        long updated;
+        final Map<Integer, String> failures = new HashMap<>();
+    }
+
+    private static final class Batch<T> {
+        final List<T> items;
+        final long[] positions;
+        final String[][] values;
+
+        Batch(int capacity) {
+            items = new ArrayList<>(capacity);
+            positions = new long[capacity];
+            values = new String[capacity][];
+        }
+
+        void add(T item, long position, String[] raw) {
+            positions[items.size()] = position;
+            values[items.size()] = raw;
+            items.add(item);
+        }
+    }
+
+    private final String[] columnNames;
+    private final Validator<T> validator;
+    private final Writer<T> writer;
+    private final int batchSize;
+    private final ImportProgress progress;
+    private final File rejectsFile;
+
+    ImportPipeline(String[] columnNames, Validator<T> validator, Writer<T> writer, int batchSize,
+                   ImportProgress progress, File rejectsFile) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be at least 1");
+        this.columnNames = columnNames;
+        this.validator = validator;
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.progress = progress;
+        this.rejectsFile = rejectsFile;
+    }
+
+    ImportResult run(RowReader reader) throws SQLException, IOException {
+        long start = System.nanoTime();
+        Batch<T> end = new Batch<>(0);
+        BlockingQueue<Batch<T>> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+        AtomicLong read = new AtomicLong();
+        AtomicLong inserted = new AtomicLong();
+        AtomicLong updated = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Rejects rejects = new Rejects(rejectsFile, columnNames);
+
+        Thread writerThread = new Thread(() -> {
+            try {
+                for (Batch<T> batch = queue.take(); batch != end; batch = queue.take()) {
+                    // After a failure keep draining so the parser never blocks on a full queue
+                    if (failure.get() != null) continue;
+                    try {
+                        Written written = writer.write(batch.items);
+                        inserted.addAndGet(written.inserted);
+                        updated.addAndGet(written.updated);
+                        for (Map.Entry<Integer, String> f : written.failures.entrySet()) {
+                            rejects.write(batch.positions[f.getKey()], f.getValue(), batch.values[f.getKey()]);
+                            rejected.incrementAndGet();
+                        }
+                        if (progress != null) progress.update(read.get(), inserted.get() + updated.get(), rejected.get());
+                    } catch (Throwable t) {
+                        // Errors too: a dead writer would leave the parser blocked on the full queue
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "import-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        try {
+            Batch<T> batch = new Batch<>(batchSize);
+            while (failure.get() == null) {
+                String[] values;
+                try {
+                    values = reader.next();
+                } catch (IllegalArgumentException e) {
+                    read.incrementAndGet();
+                    rejects.write(reader.getPosition(), e.getMessage(), null);
+                    rejected.incrementAndGet();
+                    continue;
+                }
+                if (values == null) break;
+                read.incrementAndGet();
+                try {
+                    batch.add(validator.validate(values), reader.getPosition(), values);
+                } catch (IllegalArgumentException e) {
+                    rejects.write(reader.getPosition(), e.getMessage(), values);
+                    rejected.incrementAndGet();
+                }
+                if (batch.items.size() == batchSize) {
+                    queue.put(batch);
+                    batch = new Batch<>(batchSize);
+                }
+            }
+            if (!batch.items.isEmpty()) queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, new IOException("Import interrupted"));
+        } catch (Throwable t) {
+            // Malformed input or a validator bug; the writer skips whatever is still queued
+            failure.compareAndSet(null, t);
+        } finally {
+            try {
+                stopWriter(writerThread, queue, end);
+            } finally {
+                rejects.close();
+            }
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof SQLException) throw (SQLException) t;
+        if (t instanceof IOException) throw (IOException) t;
+        if (t instanceof RuntimeException) throw (RuntimeException) t;
+        if (t instanceof Error) throw (Error) t;
+        if (t != null) throw new IOException("Import writer failed", t);
+        return new ImportResult(read.get(), inserted.get(), updated.get(), rejected.get(),
+            (System.nanoTime() - start) / 1_000_000, rejected.get() > 0 ? rejectsFile : null);
+    }
+
+    // Ends the writer and waits for it, so nothing is committed or rejected once run returns
+    private static <T> void stopWriter(Thread writerThread, BlockingQueue<Batch<T>> queue, Batch<T> end) {
+        boolean interrupted = false;
+        boolean ended = false;
+        while (writerThread.isAlive()) {
+            try {
+                if (!ended) ended = queue.offer(end, 100, TimeUnit.MILLISECONDS);
+                else writerThread.join();
+            } catch (InterruptedException e) {
+                // Interrupting the writer only cuts its wait for the next batch short
+                interrupted = true;
+                writerThread.interrupt();
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /** CSV of rejected records: position, reason, then the record's values. Created on the first reject. */
+    private static final class Rejects implements Closeable {
+        private final File file;
+        private final String[] header;
+        private CSVWriter writer;
+
+        Rejects(File file, String[] columnNames) {
+            this.file = file;
+            this.header = new String[columnNames.length + 2];
+            header[0] = "position";
+            header[1] = "reason";
+            System.arraycopy(columnNames, 0, header, 2, columnNames.length);
+        }
+
+        synchronized void write(long position, String reason, String[] values) throws IOException {
+            if (file == null) return;
+            if (writer == null) {
+                writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)));
+                writer.writeNext(header);
+            }
+            String[] line = new String[header.length];
+            line[0] = String.valueOf(position);
+            line[1] = reason;
+            for (int i = 2; i < line.length; i++) line[i] = values == null || values[i - 2] == null ? "" : values[i - 2];
+            writer.writeNext(line);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (writer != null) writer.close();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.studentmanagement.importer;
+
+/** Progress callback, invoked from the writer thread after every committed batch. */
+@FunctionalInterface
+public interface ImportProgress {
+    void update(long read, long written, long rejected);
+}
@@ -0,0 +1,53 @@
+package com.studentmanagement.importer;
+
+import java.io.File;
+
+public class ImportResult {
+    private final long read;
+    private final long inserted;
+    private final long updated;
+    private final long rejected;
+    private final long elapsedMillis;
+    private final File rejectsFile;
+
+    public ImportResult(long read, long inserted, long updated, long rejected, long elapsedMillis, File rejectsFile) {
+        this.read = read;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+        this.rejectsFile = rejectsFile;
+    }
+
+    /** Records read from the input, including rejected ones. */
+    public long getRead() {
+        return read;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /** The file rejected records were written to, or null if none was requested or nothing was rejected. */
+    public File getRejectsFile() {
+        return rejectsFile;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImportResult(read=%d, inserted=%d, updated=%d, rejected=%d, %d ms)",
+            read, inserted, updated, rejected, elapsedMillis);
+    }
+}
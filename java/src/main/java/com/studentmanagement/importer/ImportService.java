@@ -0,0 +1,142 @@
+package com.studentmanagement.importer;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceBatchResult;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.Student;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.ExportFormat;
+import com.studentmanagement.services.StudentService;
+import com.studentmanagement.validation.RecordValidator;
+import com.studentmanagement.validation.Validators;
+
+import java.io.*;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Bulk import of student rosters and attendance feeds from CSV or JSON. Each import streams the
+ * input through an {@link ImportPipeline}: rows are validated in memory against lookups loaded
+ * once up front (existing names, existing student IDs) and written in batches of
+ * {@code batchSize}, one transaction per batch. A bad row is rejected on its own and written to
+ * the rejects file; it never fails the rest of the import.
+ */
+public class ImportService {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final RowReader.Column[] STUDENT_COLUMNS = {
+        new RowReader.Column("name", true),
+        new RowReader.Column("course", true),
+        new RowReader.Column("enrollment_date", false)
+    };
+    private static final RowReader.Column[] ATTENDANCE_COLUMNS = {
+        new RowReader.Column("student_id", true, "id", "studentid"),
+        new RowReader.Column("date", true),
+        new RowReader.Column("status", true)
+    };
+
+    private final DatabaseHandler dbHandler;
+    private final StudentService studentService;
+    private final AttendanceService attendanceService;
+
+    public ImportService(DatabaseHandler dbHandler, StudentService studentService, AttendanceService attendanceService) {
+        this.dbHandler = dbHandler;
+        this.studentService = studentService;
+        this.attendanceService = attendanceService;
+    }
+
+    /** The format implied by a file name's extension, defaulting to CSV. */
+    public static ExportFormat formatOf(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".json") ? ExportFormat.JSON : ExportFormat.CSV;
+    }
+
+    public ImportResult importStudents(File file, File rejectsFile, ImportProgress progress, int batchSize)
+            throws SQLException, IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return importStudents(in, formatOf(file.getName()), rejectsFile, progress, batchSize);
+        }
+    }
+
+    /**
+     * Imports students with columns name, course and optionally enrollment_date. Names must be
+     * new: a name already in the database or earlier in the same input is rejected.
+     */
+    public ImportResult importStudents(InputStream in, ExportFormat format, File rejectsFile, ImportProgress progress,
+                                       int batchSize) throws SQLException, IOException {
+        Set<String> names = new HashSet<>();
+        dbHandler.forEach("SELECT name FROM students;", rs -> rs.getString(1), names::add);
+        ImportPipeline<Student> pipeline = new ImportPipeline<>(columnNames(STUDENT_COLUMNS), values -> {
+            LocalDate enrolled = null;
+            if (values[2] != null && !values[2].isEmpty()) {
+                enrolled = Validators.parseIsoDate(values[2]);
+                if (enrolled == null) throw new IllegalArgumentException("Invalid enrollment date (expected YYYY-MM-DD): " + values[2]);
+            }
+            Student student = new Student(null, values[0], values[1], enrolled);
+            RecordValidator.requireValid(student);
+            if (!names.add(student.getName())) throw new IllegalArgumentException("Name '" + student.getName() + "' already exists.");
+            return student;
+        }, batch -> {
+            ImportPipeline.Written written = new ImportPipeline.Written();
+            written.inserted = studentService.addStudentsBatch(batch).size();
+            return written;
+        }, batchSize, progress, rejectsFile);
+        try (RowReader reader = RowReader.open(format, in, STUDENT_COLUMNS)) {
+            return pipeline.run(reader);
+        }
+    }
+
+    public ImportResult importAttendance(File file, File rejectsFile, ImportProgress progress, int batchSize)
+            throws SQLException, IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return importAttendance(in, formatOf(file.getName()), rejectsFile, progress, batchSize);
+        }
+    }
+
+    /**
+     * Imports attendance with columns student_id, date and status. Like
+     * {@link AttendanceService#recordAttendanceBatch}, a record for a student and date already
+     * present replaces the stored status.
+     */
+    public ImportResult importAttendance(InputStream in, ExportFormat format, File rejectsFile, ImportProgress progress,
+                                         int batchSize) throws SQLException, IOException {
+        BitSet students = new BitSet();
+        dbHandler.forEach("SELECT student_id FROM students;", rs -> rs.getInt(1), students::set);
+        ImportPipeline<Attendance> pipeline = new ImportPipeline<>(columnNames(ATTENDANCE_COLUMNS), values -> {
+            int studentId;
+            try {
+                studentId = Integer.parseInt(values[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid student ID: " + values[0]);
+            }
+            if (studentId < 0 || !students.get(studentId)) throw new IllegalArgumentException("Unknown student: " + studentId);
+            if (!Validators.isValidIsoDate(values[1])) {
+                throw new IllegalArgumentException("Invalid date (expected YYYY-MM-DD): " + values[1]);
+            }
+            return new Attendance(studentId, values[1], AttendanceStatus.fromValue(values[2]));
+        }, batch -> {
+            AttendanceBatchResult result = attendanceService.recordAttendanceBatch(batch);
+            ImportPipeline.Written written = new ImportPipeline.Written();
+            written.inserted = result.getInserted();
+            written.updated = result.getUpdated();
+            if (result.getFailedCount() > 0) {
+                Map<Attendance, Integer> index = new IdentityHashMap<>();
+                for (int i = 0; i < batch.size(); i++) index.put(batch.get(i), i);
+                for (AttendanceBatchResult.Failure f : result.getFailures()) {
+                    written.failures.put(index.get(f.getAttendance()), f.getReason());
+                }
+            }
+            return written;
+        }, batchSize, progress, rejectsFile);
+        try (RowReader reader = RowReader.open(format, in, ATTENDANCE_COLUMNS)) {
+            return pipeline.run(reader);
+        }
+    }
+
+    private static String[] columnNames(RowReader.Column[] columns) {
+        String[] names = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) names[i] = columns[i].getName();
+        return names;
+    }
+}
@@ -0,0 +1,199 @@
+package com.studentmanagement.importer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import com.studentmanagement.services.ExportFormat;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Parser stage of an import: streams records from CSV or JSON and hands back the values of the
+ * requested columns, in column order, one record at a time. Column names are matched ignoring
+ * case, spaces and underscores, so files written by the exporters read back as they are.
+ */
+public abstract class RowReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s_]");
+
+    /** An input column; any of the names may appear in the file. */
+    public static final class Column {
+        private final String name;
+        private final String[] aliases;
+        private final boolean required;
+
+        public Column(String name, boolean required, String... aliases) {
+            this.name = name;
+            this.required = required;
+            this.aliases = aliases;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    protected final Column[] columns;
+    // Normalized file name -> column index
+    private final Map<String, Integer> byName = new HashMap<>();
+    // Names exactly as they appear in the file, so JSON keys are normalized once, not per record
+    private final Map<String, Integer> seen = new HashMap<>();
+
+    protected RowReader(Column[] columns) {
+        this.columns = columns;
+        for (int i = 0; i < columns.length; i++) {
+            byName.put(normalize(columns[i].name), i);
+            for (String alias : columns[i].aliases) byName.put(normalize(alias), i);
+        }
+    }
+
+    public static RowReader open(ExportFormat format, InputStream in, Column... columns) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(in, columns);
+            case JSON -> new Json(in, columns);
+            case PDF -> throw new IllegalArgumentException("PDF files cannot be imported");
+        };
+    }
+
+    /** Values of the next record in column order (null where absent), or null at the end of input. */
+    public abstract String[] next() throws IOException;
+
+    /** Where the last record came from: its line for CSV, its position in the array for JSON. */
+    public abstract long getPosition();
+
+    protected int columnIndex(String fileName) {
+        return seen.computeIfAbsent(fileName, n -> byName.getOrDefault(normalize(n), -1));
+    }
+
+    private static String normalize(String name) {
+        return SEPARATORS.matcher(name).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static class Csv extends RowReader {
+        private final CSVReader reader;
+        // File column -> requested column index, or -1 for columns nobody asked for
+        private final int[] mapping;
+        private long line = 1;
+
+        Csv(InputStream in, Column[] columns) throws IOException {
+            super(columns);
+            this.reader = new CSVReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE));
+            String[] header = read();
+            if (header == null) throw new IllegalArgumentException("Empty file: a header line is required");
+            mapping = new int[header.length];
+            boolean[] present = new boolean[columns.length];
+            for (int i = 0; i < header.length; i++) {
+                mapping[i] = columnIndex(header[i].trim());
+                if (mapping[i] >= 0) present[mapping[i]] = true;
+            }
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].required && !present[i]) {
+                    throw new IllegalArgumentException("Missing column '" + columns[i].name + "' in header");
+                }
+            }
+        }
+
+        private String[] read() throws IOException {
+            try {
+                return reader.readNext();
+            } catch (CsvValidationException e) {
+                throw new IOException("Malformed CSV near line " + reader.getLinesRead() + ": " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public String[] next() throws IOException {
+            String[] row;
+            do {
+                row = read();
+                if (row == null) return null;
+                line = reader.getLinesRead();
+            } while (row.length == 1 && row[0].isBlank());
+            String[] values = new String[columns.length];
+            for (int i = 0; i < row.length && i < mapping.length; i++) {
+                if (mapping[i] >= 0) values[mapping[i]] = row[i].trim();
+            }
+            return values;
+        }
+
+        @Override
+        public long getPosition() {
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads a top-level array of objects, or the first array of objects inside a top-level object
+     * (the layout the JSON exporters write). Nested values inside a record are skipped.
+     */
+    private static class Json extends RowReader {
+        private static final JsonFactory FACTORY = new ObjectMapper().getFactory();
+        private final JsonParser parser;
+        private long index;
+        private boolean done;
+
+        Json(InputStream in, Column[] columns) throws IOException {
+            super(columns);
+            this.parser = FACTORY.createParser(new BufferedInputStream(in, BUFFER_SIZE));
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                // Skip scalar fields until the first array
+                while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                    token = parser.nextToken();
+                    if (token == JsonToken.START_ARRAY) break;
+                    parser.skipChildren();
+                }
+            }
+            if (token != JsonToken.START_ARRAY) throw new IllegalArgumentException("No array of records found in JSON input");
+        }
+
+        @Override
+        public String[] next() throws IOException {
+            if (done) return null;
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY || token == null) {
+                done = true;
+                return null;
+            }
+            index++;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                throw new IllegalArgumentException("Record " + index + " is not a JSON object");
+            }
+            String[] values = new String[columns.length];
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                int column = columnIndex(parser.getCurrentName());
+                JsonToken value = parser.nextToken();
+                if (value.isScalarValue()) {
+                    if (column >= 0 && value != JsonToken.VALUE_NULL) values[column] = parser.getValueAsString().trim();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public long getPosition() {
+            return index;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
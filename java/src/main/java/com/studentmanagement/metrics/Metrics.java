@@ -0,0 +1,41 @@
+package com.studentmanagement.metrics;
+
+/**
+ * Entry point for timing instrumentation. When disabled, {@link #start()} returns 0 and
+ * {@link #record} returns immediately, so instrumented code pays a single volatile read.
+ * Enabled by default; start with {@code -Dsm.metrics=false} to switch it off.
+ */
+public final class Metrics {
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+    private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty("sm.metrics"));
+    private static volatile MetricsRecorder recorder = REGISTRY;
+
+    private Metrics() {
+    }
+
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public static void record(String group, String operation, long startNanos) {
+        if (startNanos == 0L) return;
+        recorder.record(group, operation, System.nanoTime() - startNanos);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /** Replaces the recorder, e.g. to forward timings elsewhere; pass null to restore the registry. */
+    public static void setRecorder(MetricsRecorder value) {
+        recorder = value != null ? value : REGISTRY;
+    }
+
+    public static MetricsRegistry registry() {
+        return REGISTRY;
+    }
+}
@@ -0,0 +1,6 @@
+package com.studentmanagement.metrics;
+
+@FunctionalInterface
+public interface MetricsRecorder {
+    void record(String group, String operation, long elapsedNanos);
+}
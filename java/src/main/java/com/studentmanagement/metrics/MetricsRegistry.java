@@ -0,0 +1,29 @@
+package com.studentmanagement.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Default recorder: per-operation counters and latency histograms, keyed "Group.operation". */
+public class MetricsRegistry implements MetricsRecorder {
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, OperationStats>> groups = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(String group, String operation, long elapsedNanos) {
+        ConcurrentHashMap<String, OperationStats> ops = groups.get(group);
+        if (ops == null) ops = groups.computeIfAbsent(group, g -> new ConcurrentHashMap<>());
+        OperationStats stats = ops.get(operation);
+        if (stats == null) stats = ops.computeIfAbsent(operation, op -> new OperationStats(group + "." + op));
+        stats.record(elapsedNanos);
+    }
+
+    public List<OperationStats> snapshot() {
+        List<OperationStats> all = new ArrayList<>();
+        for (ConcurrentHashMap<String, OperationStats> ops : groups.values()) all.addAll(ops.values());
+        all.sort(Comparator.comparing(OperationStats::getName));
+        return all;
+    }
+
+    public void reset() {
+        groups.clear();
+    }
+}
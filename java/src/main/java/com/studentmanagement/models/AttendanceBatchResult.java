@@ -0,0 +1,63 @@
+package com.studentmanagement.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class AttendanceBatchResult {
+    private int inserted;
+    private int updated;
+    private final List<Failure> failures = new ArrayList<>();
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    /** Records whose student and date already had a row, whether or not the status changed. */
+    public int getUpdated() {
+        return updated;
+    }
+
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public int getFailedCount() {
+        return failures.size();
+    }
+
+    public void addInserted(int count) {
+        inserted += count;
+    }
+
+    public void addUpdated(int count) {
+        updated += count;
+    }
+
+    public void addFailure(Attendance attendance, String reason) {
+        failures.add(new Failure(attendance, reason));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AttendanceBatchResult(inserted=%d, updated=%d, failed=%d)", inserted, updated, failures.size());
+    }
+
+    public static class Failure {
+        private final Attendance attendance;
+        private final String reason;
+
+        public Failure(Attendance attendance, String reason) {
+            this.attendance = attendance;
+            this.reason = reason;
+        }
+
+        public Attendance getAttendance() {
+            return attendance;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
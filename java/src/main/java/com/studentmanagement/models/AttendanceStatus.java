@@ -1,25 +1,47 @@
 package com.studentmanagement.models;
 
 public enum AttendanceStatus {
-    PRESENT("Present"),
-    ABSENT("Absent");
+    // Codes are the stored representation; Present = 1 lets SQL count present days with SUM(status)
+    PRESENT("Present", 1),
+    ABSENT("Absent", 0);
+
+    private static final AttendanceStatus[] BY_CODE = {ABSENT, PRESENT};
 
     private final String value;
+    private final int code;
 
-    AttendanceStatus(String value) {
+    AttendanceStatus(String value, int code) {
         this.value = value;
+        this.code = code;
     }
 
     public String getValue() {
         return value;
     }
 
+    public int getCode() {
+        return code;
+    }
+
+    public static AttendanceStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) throw new IllegalArgumentException("Unknown status code: " + code);
+        return BY_CODE[code];
+    }
+
     public static AttendanceStatus fromValue(String status) {
-        for (AttendanceStatus s : AttendanceStatus.values()) {
-            if (s.value.equalsIgnoreCase(status)) {
-                return s;
-            }
+        AttendanceStatus s = parse(status);
+        if (s == null) throw new IllegalArgumentException("Unknown status: " + status);
+        return s;
+    }
+
+    /** Like {@link #fromValue}, but null for an unknown value instead of an exception. */
+    public static AttendanceStatus parse(String status) {
+        // Stored values always use the canonical spelling, so try those before the case-insensitive scan
+        if ("Present".equals(status)) return PRESENT;
+        if ("Absent".equals(status)) return ABSENT;
+        for (AttendanceStatus s : BY_CODE) {
+            if (s.value.equalsIgnoreCase(status)) return s;
         }
-        throw new IllegalArgumentException("Unknown status: " + status);
+        return null;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.studentmanagement.models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. The next page is addressed by an opaque token that
+ * encodes the last row's sort key, so fetching any page costs the same as fetching the first.
+ */
+public class CursorPage<T> {
+    private final List<T> items;
+    private final int limit;
+    private final String nextToken;
+
+    public CursorPage(List<T> items, int limit, String nextToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.limit = limit;
+        this.nextToken = nextToken;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /** Token for the following page, or null on the last page. */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean hasMore() {
+        return nextToken != null;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
@@ -0,0 +1,49 @@
+package com.studentmanagement.models;
+
+import java.util.Collections;
+import java.util.List;
+
+/** One page of an ordered result; {@code hasMore} is known without counting the full result. */
+public class Page<T> {
+    private final List<T> items;
+    private final int offset;
+    private final int limit;
+    private final boolean hasMore;
+
+    public Page(List<T> items, int offset, int limit, boolean hasMore) {
+        this.items = Collections.unmodifiableList(items);
+        this.offset = offset;
+        this.limit = limit;
+        this.hasMore = hasMore;
+    }
+
+    /** Builds a page from a query that fetched {@code limit + 1} rows to detect whether more follow. */
+    public static <T> Page<T> fromOverfetch(List<T> rows, int offset, int limit) {
+        boolean more = rows.size() > limit;
+        return new Page<>(more ? rows.subList(0, limit) : rows, offset, limit, more);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public int getNextOffset() {
+        return offset + items.size();
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
@@ -1,5 +1,7 @@
 package com.studentmanagement.models;
 
+import com.studentmanagement.validation.Validators;
+
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
@@ -73,7 +75,7 @@ public class Student {
     }
 
     public static boolean validateCourse(String course) {
-        return course.matches("^[A-Za-z]{2}\\d{1,3}$");
+        return Validators.isValidCourse(course);
     }
 
     @Override
@@ -1,166 +1,430 @@
 package com.studentmanagement.services;
 
 import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.database.EpochDays;
+import com.studentmanagement.database.Rollups;
+import com.studentmanagement.database.RowMappers;
+import com.studentmanagement.metrics.Metrics;
 import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceBatchResult;
 import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.CursorPage;
+import com.studentmanagement.validation.RecordValidator;
+import com.studentmanagement.validation.ValidationError;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.lang.Runtime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class AttendanceService {
+    private static final String UPSERT_SQL =
+        "INSERT INTO attendance (student_id, date, status) VALUES (?, ?, ?) " +
+        "ON CONFLICT(student_id, date) DO UPDATE SET status = excluded.status WHERE status <> excluded.status;";
+    private static final String SELECT_BY_KEY =
+        "SELECT " + RowMappers.ATTENDANCE_COLUMNS + " FROM attendance WHERE student_id = ? AND date = ?;";
+
+    private static final String STUDENT_ATTENDANCE_PAGE = "sa";
+    private static final String ATTENDANCE_PAGE = "a";
+
+    public static final int DEFAULT_WRITE_BEHIND_CAPACITY = 10_000;
+    public static final int DEFAULT_WRITE_BEHIND_GROUP = 1000;
+
     private final DatabaseHandler dbHandler;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile WriteBehindQueue writeBehind;
 
     public AttendanceService(DatabaseHandler dbHandler) {
         this.dbHandler = dbHandler;
     }
 
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
     // profiling helper
-    private void logProfile(String methodName, long startTime, long startMem) {
-        long endTime = System.nanoTime();
-        long endMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        System.out.printf("[PROFILE] AttendanceService.%s: time=%.3fs; memDelta=%.2fKB%n", methodName, (endTime - startTime)/1e9, (endMem - startMem)/1024.0);
+    private void logProfile(String methodName, long startTime) {
+        Metrics.record("AttendanceService", methodName, startTime);
     }
 
     public Attendance recordAttendance(Attendance attendance) throws SQLException {
-        long startTime = System.nanoTime(); long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        String sql = "INSERT INTO attendance (student_id, date, status) VALUES (?, ?, ?) " +
-                     "ON CONFLICT(student_id, date) DO UPDATE SET status = excluded.status;";
-        int id = dbHandler.executeUpdate(sql,
-            attendance.getStudentId(),
-            attendance.getDate(),
-            attendance.getStatus().getValue()
-        );
-        attendance.setAttendanceId(id);
+        long startTime = Metrics.start();
+        RecordValidator.requireValid(attendance);
+        try {
+            // Read back by key on the writer: an upsert that updated, or changed nothing, has no generated key
+            Attendance stored = dbHandler.withWriter(conn -> {
+                PreparedStatement upsert = dbHandler.prepare(conn, UPSERT_SQL);
+                bindUpsert(upsert, attendance);
+                upsert.executeUpdate();
+                PreparedStatement select = dbHandler.prepare(conn, SELECT_BY_KEY);
+                select.setInt(1, attendance.getStudentId());
+                select.setLong(2, EpochDays.fromIso(attendance.getDate()));
+                try (ResultSet rs = select.executeQuery()) {
+                    return rs.next() ? RowMappers.ATTENDANCE.mapRow(rs) : null;
+                }
+            });
+            if (stored != null) attendance.setAttendanceId(stored.getAttendanceId());
+            for (ChangeListener l : listeners) l.attendanceRecorded(attendance.getStudentId(), attendance.getDate(), attendance.getStatus());
+            return stored;
+        } finally {
+            logProfile("recordAttendance", startTime);
+        }
+    }
+
+    /**
+     * Switches {@link #recordAttendanceAsync} from synchronous upserts to a write-behind queue:
+     * records are queued (blocking while {@code capacity} are pending) and a single writer thread
+     * commits them in group transactions of up to {@code maxGroup}. Call
+     * {@link #disableWriteBehind} before closing the database so nothing queued is lost.
+     */
+    public synchronized void enableWriteBehind(WriteDurability durability, int capacity, int maxGroup) {
+        if (writeBehind != null) throw new IllegalStateException("Write-behind is already enabled");
+        writeBehind = new WriteBehindQueue(this, dbHandler, durability, capacity, maxGroup);
+    }
+
+    public void enableWriteBehind(WriteDurability durability) {
+        enableWriteBehind(durability, DEFAULT_WRITE_BEHIND_CAPACITY, DEFAULT_WRITE_BEHIND_GROUP);
+    }
+
+    /** Stops queueing and blocks until every write already queued is committed. */
+    public synchronized void disableWriteBehind() {
+        WriteBehindQueue queue = writeBehind;
+        if (queue == null) return;
+        writeBehind = null;
+        queue.close();
+    }
+
+    /** The active write-behind durability, or null when writes are synchronous. */
+    public WriteDurability getWriteBehindDurability() {
+        WriteBehindQueue queue = writeBehind;
+        return queue == null ? null : queue.getDurability();
+    }
+
+    /**
+     * Records attendance through the write-behind queue when it is enabled, otherwise like
+     * {@link #recordAttendance}. Coalesced writes for the same student and date all complete
+     * with the row as finally stored. Errors, including invalid input, fail the future.
+     */
+    public CompletableFuture<Attendance> recordAttendanceAsync(Attendance attendance) {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) return queue.submit(attendance);
+        try {
+            return CompletableFuture.completedFuture(recordAttendance(attendance));
+        } catch (SQLException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Completes once every write queued before the call is committed; already complete without write-behind. */
+    public CompletableFuture<Void> flushWrites() {
+        WriteBehindQueue queue = writeBehind;
+        return queue == null ? CompletableFuture.completedFuture(null) : queue.flush();
+    }
+
+    /**
+     * Upserts all records in one transaction using a JDBC batch. Later records for the same
+     * student and date win, as with repeated single upserts. Rows are not re-read afterwards.
+     * As with {@link #recordAttendance}, a record whose key already existed counts as updated and
+     * is passed to listeners even when its status was unchanged and the upsert skipped it.
+     */
+    public AttendanceBatchResult recordAttendanceBatch(Collection<Attendance> records) throws SQLException {
+        long startTime = Metrics.start();
         try {
-            return getAttendanceById(id);
+            AttendanceBatchResult result = new AttendanceBatchResult();
+            Map<Long, Map<Integer, Attendance>> byDate = new LinkedHashMap<>();
+            List<ValidationError> errors = new ArrayList<>();
+            int index = 0;
+            for (Attendance att : records) {
+                int firstError = errors.size();
+                if (!RecordValidator.checkAttendance(att, index++, errors)) {
+                    result.addFailure(att, RecordValidator.describe(errors.subList(firstError, errors.size())));
+                    continue;
+                }
+                byDate.computeIfAbsent(EpochDays.fromIso(att.getDate()), d -> new LinkedHashMap<>()).put(att.getStudentId(), att);
+            }
+            if (!byDate.isEmpty()) {
+                List<Attendance> written = dbHandler.inTransaction(conn -> writeBatch(conn, byDate, result));
+                for (ChangeListener l : listeners) {
+                    for (Attendance att : written) l.attendanceRecorded(att.getStudentId(), att.getDate(), att.getStatus());
+                }
+            }
+            return result;
         } finally {
-            logProfile("recordAttendance", startTime, startMem);
+            logProfile("recordAttendanceBatch", startTime);
+        }
+    }
+
+    // Returns the records that were written
+    private List<Attendance> writeBatch(Connection conn, Map<Long, Map<Integer, Attendance>> byDate,
+                                        AttendanceBatchResult result) throws SQLException {
+        // Which keys already exist decides inserted vs updated without re-reading every row. Only the
+        // batch's own students are probed, so a sparse batch (write-behind groups) doesn't scan whole days.
+        Map<Long, Set<Integer>> existing = new HashMap<>();
+        for (Map.Entry<Long, Map<Integer, Attendance>> day : byDate.entrySet()) {
+            Set<Integer> ids = new HashSet<>();
+            List<Integer> students = new ArrayList<>(day.getValue().keySet());
+            for (int from = 0; from < students.size(); from += DatabaseHandler.MAX_IN_LIST) {
+                List<Integer> chunk = students.subList(from, Math.min(from + DatabaseHandler.MAX_IN_LIST, students.size()));
+                int bucket = DatabaseHandler.inListBucket(chunk.size());
+                PreparedStatement existingStmt = dbHandler.prepare(conn, "SELECT student_id FROM attendance WHERE date = ? " +
+                    "AND student_id IN (" + DatabaseHandler.inListPlaceholders(bucket) + ");");
+                existingStmt.setLong(1, day.getKey());
+                for (int i = 0; i < bucket; i++) existingStmt.setInt(i + 2, chunk.get(Math.min(i, chunk.size() - 1)));
+                try (ResultSet rs = existingStmt.executeQuery()) {
+                    while (rs.next()) ids.add(rs.getInt(1));
+                }
+            }
+            existing.put(day.getKey(), ids);
+        }
+
+        List<Attendance> pending = new ArrayList<>();
+        PreparedStatement upsert = dbHandler.prepare(conn, UPSERT_SQL);
+        for (Map<Integer, Attendance> day : byDate.values()) {
+            for (Attendance att : day.values()) {
+                bindUpsert(upsert, att);
+                upsert.addBatch();
+                pending.add(att);
+            }
         }
+        Set<Attendance> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            upsert.executeBatch();
+        } catch (SQLException e) {
+            // SQLite aborts the batch at the first bad row (sqlite-jdbc reports it as a plain SQLException,
+            // not BatchUpdateException); replay row by row to isolate failures, rows already written are no-ops
+            upsert.clearBatch();
+            for (Attendance att : pending) {
+                try {
+                    bindUpsert(upsert, att);
+                    upsert.executeUpdate();
+                } catch (SQLException rowError) {
+                    failed.add(att);
+                    result.addFailure(att, rowError.getMessage());
+                }
+            }
+        }
+        List<Attendance> written = new ArrayList<>(pending.size());
+        for (Attendance att : pending) {
+            if (failed.contains(att)) continue;
+            // "Updated" means the key existed; an unchanged status is not told apart
+            if (existing.get(EpochDays.fromIso(att.getDate())).contains(att.getStudentId())) result.addUpdated(1);
+            else result.addInserted(1);
+            written.add(att);
+        }
+        return written;
+    }
+
+    private static void bindUpsert(PreparedStatement upsert, Attendance att) throws SQLException {
+        upsert.setInt(1, att.getStudentId());
+        upsert.setLong(2, EpochDays.fromIso(att.getDate()));
+        upsert.setInt(3, att.getStatus().getCode());
     }
 
     public Attendance getAttendanceById(int attendanceId) throws SQLException {
-        long startTime = System.nanoTime(); long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        String sql = "SELECT * FROM attendance WHERE attendance_id = ?;";
-        List<Map<String, Object>> rows = dbHandler.executeQuery(sql, attendanceId);
+        long startTime = Metrics.start();
+        String sql = "SELECT " + RowMappers.ATTENDANCE_COLUMNS + " FROM attendance WHERE attendance_id = ?;";
         try {
-            if (rows.isEmpty()) return null;
-            return Attendance.fromMap(rows.get(0));
+            return dbHandler.queryOne(sql, RowMappers.ATTENDANCE, attendanceId);
         } finally {
-            logProfile("getAttendanceById", startTime, startMem);
+            logProfile("getAttendanceById", startTime);
         }
     }
 
     public List<Attendance> getStudentAttendance(int studentId) throws SQLException {
-        long startTime = System.nanoTime(); long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        String sql = "SELECT * FROM attendance WHERE student_id = ? ORDER BY date DESC;";
-        List<Map<String, Object>> rows = dbHandler.executeQuery(sql, studentId);
+        long startTime = Metrics.start();
+        String sql = "SELECT " + RowMappers.ATTENDANCE_COLUMNS + " FROM attendance WHERE student_id = ? ORDER BY date DESC;";
         try {
-            return rows.stream().map(Attendance::fromMap).collect(Collectors.toList());
+            return dbHandler.query(sql, RowMappers.ATTENDANCE, studentId);
         } finally {
-            logProfile("getStudentAttendance", startTime, startMem);
+            logProfile("getStudentAttendance", startTime);
         }
     }
 
     public List<Attendance> getAttendanceByDate(String date) throws SQLException {
-        long startTime = System.nanoTime(); long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        String sql = "SELECT * FROM attendance WHERE date = ? ORDER BY student_id;";
-        List<Map<String, Object>> rows = dbHandler.executeQuery(sql, date);
+        long startTime = Metrics.start();
+        String sql = "SELECT " + RowMappers.ATTENDANCE_COLUMNS + " FROM attendance WHERE date = ? ORDER BY student_id;";
         try {
-            return rows.stream().map(Attendance::fromMap).collect(Collectors.toList());
+            return dbHandler.query(sql, RowMappers.ATTENDANCE, EpochDays.fromIso(date));
         } finally {
-            logProfile("getAttendanceByDate", startTime, startMem);
+            logProfile("getAttendanceByDate", startTime);
         }
     }
 
     public List<Attendance> getAttendanceByDateRange(String startDate, String endDate) throws SQLException {
-        long startTime = System.nanoTime(); long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        String sql = "SELECT * FROM attendance WHERE date BETWEEN ? AND ? ORDER BY date, student_id;";
-        List<Map<String, Object>> rows = dbHandler.executeQuery(sql, startDate, endDate);
+        long startTime = Metrics.start();
+        String sql = "SELECT " + RowMappers.ATTENDANCE_COLUMNS + " FROM attendance WHERE date BETWEEN ? AND ? ORDER BY date, student_id;";
+        try {
+            return dbHandler.query(sql, RowMappers.ATTENDANCE, EpochDays.fromIso(startDate), EpochDays.fromIso(endDate));
+        } finally {
+            logProfile("getAttendanceByDateRange", startTime);
+        }
+    }
+
+    /**
+     * One page of a student's attendance, newest first, keyed on the date of the last row returned
+     * ({@code date < last} on the (student_id, date) index), so every page is a single seek.
+     * Tokens are bound to the student they were issued for.
+     */
+    public CursorPage<Attendance> getStudentAttendancePage(int studentId, String pageToken, int limit) throws SQLException {
+        PageTokens.checkLimit(limit);
+        long startTime = Metrics.start();
+        String kind = STUDENT_ATTENDANCE_PAGE + studentId;
+        long[] after = PageTokens.decode(pageToken, kind, 1);
+        String sql = "SELECT " + RowMappers.ATTENDANCE_COLUMNS + " FROM attendance WHERE student_id = ? AND date < ? " +
+            "ORDER BY date DESC LIMIT ?;";
+        try {
+            List<Attendance> rows = dbHandler.query(sql, RowMappers.ATTENDANCE, studentId,
+                after == null ? Long.MAX_VALUE : after[0], limit + 1);
+            return PageTokens.fromOverfetch(rows, limit, kind, a -> new long[]{EpochDays.fromIso(a.getDate())});
+        } finally {
+            logProfile("getStudentAttendancePage", startTime);
+        }
+    }
+
+    /**
+     * One page of attendance between two dates in (date, student_id) order. The token carries the
+     * last row's (date, student_id) and the next page resumes with a row-value comparison on the
+     * (date, student_id) index, so late pages of a long range cost the same as the first.
+     */
+    public CursorPage<Attendance> getAttendancePage(String startDate, String endDate, String pageToken, int limit)
+            throws SQLException {
+        PageTokens.checkLimit(limit);
+        long startTime = Metrics.start();
+        long[] after = PageTokens.decode(pageToken, ATTENDANCE_PAGE, 2);
+        String sql = "SELECT " + RowMappers.ATTENDANCE_COLUMNS + " FROM attendance " +
+            "WHERE date BETWEEN ? AND ? AND (date, student_id) > (?, ?) ORDER BY date, student_id LIMIT ?;";
         try {
-            return rows.stream().map(Attendance::fromMap).collect(Collectors.toList());
+            List<Attendance> rows = dbHandler.query(sql, RowMappers.ATTENDANCE, EpochDays.fromIso(startDate),
+                EpochDays.fromIso(endDate), after == null ? Long.MIN_VALUE : after[0], after == null ? 0 : after[1], limit + 1);
+            return PageTokens.fromOverfetch(rows, limit, ATTENDANCE_PAGE,
+                a -> new long[]{EpochDays.fromIso(a.getDate()), a.getStudentId()});
         } finally {
-            logProfile("getAttendanceByDateRange", startTime, startMem);
+            logProfile("getAttendancePage", startTime);
         }
     }
 
+    // Streaming counterparts: rows are read from the cursor as the caller consumes them, so the
+    // result never has to fit in memory. Callers must close the returned stream.
+
+    public Stream<Attendance> streamStudentAttendance(int studentId) throws SQLException {
+        String sql = "SELECT " + RowMappers.ATTENDANCE_COLUMNS + " FROM attendance WHERE student_id = ? ORDER BY date DESC;";
+        return dbHandler.stream(sql, RowMappers.ATTENDANCE, studentId);
+    }
+
+    public Stream<Attendance> streamAttendanceByDate(String date) throws SQLException {
+        String sql = "SELECT " + RowMappers.ATTENDANCE_COLUMNS + " FROM attendance WHERE date = ? ORDER BY student_id;";
+        return dbHandler.stream(sql, RowMappers.ATTENDANCE, EpochDays.fromIso(date));
+    }
+
+    public Stream<Attendance> streamAttendanceByDateRange(String startDate, String endDate) throws SQLException {
+        String sql = "SELECT " + RowMappers.ATTENDANCE_COLUMNS + " FROM attendance WHERE date BETWEEN ? AND ? ORDER BY date, student_id;";
+        return dbHandler.stream(sql, RowMappers.ATTENDANCE, EpochDays.fromIso(startDate), EpochDays.fromIso(endDate));
+    }
+
+    public long forEachAttendanceInRange(String startDate, String endDate, Consumer<Attendance> action) throws SQLException {
+        String sql = "SELECT " + RowMappers.ATTENDANCE_COLUMNS + " FROM attendance WHERE date BETWEEN ? AND ? ORDER BY date, student_id;";
+        return dbHandler.forEach(sql, RowMappers.ATTENDANCE, action, EpochDays.fromIso(startDate), EpochDays.fromIso(endDate));
+    }
+
     public boolean deleteAttendance(int attendanceId) throws SQLException {
-        long startTime = System.nanoTime(); long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        long startTime = Metrics.start();
         String sql = "DELETE FROM attendance WHERE attendance_id = ?;";
+        // Listeners need the row's key, which is gone after the delete
+        Attendance deleted = listeners.isEmpty() ? null : getAttendanceById(attendanceId);
         int affected = dbHandler.executeUpdate(sql, attendanceId);
+        if (affected > 0 && deleted != null) {
+            for (ChangeListener l : listeners) l.attendanceDeleted(deleted.getStudentId(), deleted.getDate());
+        }
         try {
             return affected > 0;
         } finally {
-            logProfile("deleteAttendance", startTime, startMem);
+            logProfile("deleteAttendance", startTime);
         }
     }
 
     public Map<String, Object> getStudentAttendanceSummary(int studentId) throws SQLException {
-        long startTime = System.nanoTime(); long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        long startTime = Metrics.start();
         String sql = "SELECT " +
-            "COUNT(*) as total_days, " +
-            "SUM(CASE WHEN status = 'Present' THEN 1 ELSE 0 END) as present_days, " +
-            "SUM(CASE WHEN status = 'Absent' THEN 1 ELSE 0 END) as absent_days " +
-            "FROM attendance WHERE student_id = ?;";
-        List<Map<String, Object>> rows = dbHandler.executeQuery(sql, studentId);
-        Map<String, Object> result = new HashMap<>();
-        if (!rows.isEmpty()) {
-            Map<String, Object> r = rows.get(0);
-            int total = ((Number) r.get("total_days")).intValue();
-            int present = ((Number) r.get("present_days")).intValue();
-            int absent = ((Number) r.get("absent_days")).intValue();
+            "SUM(total) as total_days, " +
+            "SUM(present) as present_days, " +
+            "SUM(total - present) as absent_days " +
+            "FROM attendance_student_monthly WHERE student_id = ?;";
+        Map<String, Object> result = dbHandler.queryOne(sql, rs -> {
+            // SUM over no rows is NULL; getInt maps that to 0
+            int total = rs.getInt(1);
+            int present = rs.getInt(2);
+            int absent = rs.getInt(3);
             double percentage = total > 0 ? (present * 100.0 / total) : 0.0;
-            result.put("student_id", studentId);
-            result.put("total_days", total);
-            result.put("present_days", present);
-            result.put("absent_days", absent);
-            result.put("attendance_percentage", Math.round(percentage * 100.0) / 100.0);
-        }
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("student_id", studentId);
+            summary.put("total_days", total);
+            summary.put("present_days", present);
+            summary.put("absent_days", absent);
+            summary.put("attendance_percentage", Math.round(percentage * 100.0) / 100.0);
+            return summary;
+        }, studentId);
         try {
             return result;
         } finally {
-            logProfile("getStudentAttendanceSummary", startTime, startMem);
+            logProfile("getStudentAttendanceSummary", startTime);
         }
     }
 
+    /** Recomputes the attendance rollup tables from raw attendance, repairing any drift. */
+    public void rebuildRollups() throws SQLException {
+        long startTime = Metrics.start();
+        dbHandler.inTransaction(conn -> {
+            Rollups.rebuild(conn);
+            return null;
+        });
+        logProfile("rebuildRollups", startTime);
+    }
+
     public Map<String, Object> getMonthlyAttendanceReport(int year, int month) throws SQLException {
-        long startTime = System.nanoTime(); long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        long startTime = Metrics.start();
         // Determine date range
-        String startDate = String.format("%d-%02d-01", year, month);
-        Calendar cal = Calendar.getInstance();
-        cal.set(year, month - 1, 1);
-        int numDays = cal.getActualMaximum(Calendar.DAY_OF_MONTH);
-        String endDate = String.format("%d-%02d-%02d", year, month, numDays);
+        LocalDate first = LocalDate.of(year, month, 1);
+        long startDay = first.toEpochDay();
+        long endDay = startDay + first.lengthOfMonth() - 1;
 
         Map<String, Object> report = new HashMap<>();
         // Aggregate by date
-        String sqlDates = "SELECT date, " +
-            "SUM(CASE WHEN status = 'Present' THEN 1 ELSE 0 END) as present_count, " +
-            "SUM(CASE WHEN status = 'Absent' THEN 1 ELSE 0 END) as absent_count, " +
-            "COUNT(*) as total_count " +
-            "FROM attendance WHERE date BETWEEN ? AND ? GROUP BY date ORDER BY date;";
-        List<Map<String, Object>> rows = dbHandler.executeQuery(sqlDates, startDate, endDate);
-        Map<String, Map<String, Object>> days = new LinkedHashMap<>();
-        int overallTotal = 0, overallPresent = 0;
-        for (Map<String, Object> r : rows) {
-            String date = (String) r.get("date");
-            int present = ((Number) r.get("present_count")).intValue();
-            int absent = ((Number) r.get("absent_count")).intValue();
-            int total = ((Number) r.get("total_count")).intValue();
+        // Read from the rollups: one row per day and per student-month instead of one per record
+        String sqlDates = "SELECT date, present, total - present, total " +
+            "FROM attendance_daily WHERE date BETWEEN ? AND ? AND total > 0 ORDER BY date;";
+        List<Map.Entry<String, Map<String, Object>>> rows = dbHandler.query(sqlDates, rs -> {
+            int present = rs.getInt(2);
+            int absent = rs.getInt(3);
+            int total = rs.getInt(4);
             double perc = total > 0 ? (present * 100.0 / total) : 0.0;
             Map<String, Object> data = new HashMap<>();
             data.put("present", present);
             data.put("absent", absent);
             data.put("total", total);
             data.put("present_percentage", Math.round(perc * 100.0) / 100.0);
-            days.put(date, data);
-            overallTotal += total;
-            overallPresent += present;
+            return Map.entry(EpochDays.toIso(rs.getLong(1)), data);
+        }, startDay, endDay);
+        Map<String, Map<String, Object>> days = new LinkedHashMap<>();
+        int overallTotal = 0, overallPresent = 0;
+        for (Map.Entry<String, Map<String, Object>> day : rows) {
+            days.put(day.getKey(), day.getValue());
+            overallTotal += (Integer) day.getValue().get("total");
+            overallPresent += (Integer) day.getValue().get("present");
         }
         report.put("year", year);
         report.put("month", month);
         report.put("days", days);
-        report.put("total_students", dbHandler.executeQuery("SELECT COUNT(DISTINCT student_id) as count FROM attendance WHERE date BETWEEN ? AND ?;", startDate, endDate).get(0).get("count"));
+        report.put("total_students", dbHandler.queryOne("SELECT COUNT(*) FROM attendance_student_monthly WHERE month = ? AND total > 0;",
+            rs -> rs.getInt(1), year * 100 + month));
         report.put("total_records", overallTotal);
         report.put("total_present", overallPresent);
         double overallPerc = overallTotal > 0 ? (overallPresent * 100.0 / overallTotal) : 0.0;
@@ -168,7 +432,7 @@ public class AttendanceService {
         try {
             return report;
         } finally {
-            logProfile("getMonthlyAttendanceReport", startTime, startMem);
+            logProfile("getMonthlyAttendanceReport", startTime);
         }
     }
 } 
\ No newline at end of file
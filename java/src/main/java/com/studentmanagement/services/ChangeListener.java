@@ -0,0 +1,23 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.models.AttendanceStatus;
+
+/**
+ * Notified after student and attendance writes made through {@link StudentService} and
+ * {@link AttendanceService} commit, so in-memory copies of the data can follow along. Callbacks
+ * run on the writing thread and should be quick.
+ */
+public interface ChangeListener {
+    default void studentSaved(int studentId, String course) {
+    }
+
+    /** The student and, through the cascade, all of their attendance are gone. */
+    default void studentDeleted(int studentId) {
+    }
+
+    default void attendanceRecorded(int studentId, String date, AttendanceStatus status) {
+    }
+
+    default void attendanceDeleted(int studentId, String date) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.models.AttendanceStatus;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+
+/**
+ * One day's attendance as bitmaps indexed by student id: the roster, and the students recorded
+ * present or absent that day. Counts are bit counts and "not recorded" is the roster minus both
+ * sets, so a summary never touches a per-student object. The snapshot is immutable; the getters
+ * for the sets return copies.
+ */
+public class DailyAttendance {
+    private final LocalDate date;
+    private final BitSet roster;
+    private final BitSet present;
+    private final BitSet absent;
+
+    DailyAttendance(LocalDate date, BitSet roster, BitSet present, BitSet absent) {
+        this.date = date;
+        this.roster = roster;
+        this.present = present;
+        this.absent = absent;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public int getTotalStudents() {
+        return roster.cardinality();
+    }
+
+    public int getPresentCount() {
+        return present.cardinality();
+    }
+
+    public int getAbsentCount() {
+        return absent.cardinality();
+    }
+
+    public int getNotRecordedCount() {
+        return getTotalStudents() - getPresentCount() - getAbsentCount();
+    }
+
+    public int getRecordedCount() {
+        return getPresentCount() + getAbsentCount();
+    }
+
+    /** Present students as a percentage of the roster, rounded to two decimals. */
+    public double getAttendancePercentage() {
+        int total = getTotalStudents();
+        return total == 0 ? 0.0 : Math.round(getPresentCount() * 10000.0 / total) / 100.0;
+    }
+
+    public boolean isOnRoster(int studentId) {
+        return roster.get(studentId);
+    }
+
+    /** The student's status that day, or null when nothing was recorded. */
+    public AttendanceStatus statusOf(int studentId) {
+        if (present.get(studentId)) return AttendanceStatus.PRESENT;
+        if (absent.get(studentId)) return AttendanceStatus.ABSENT;
+        return null;
+    }
+
+    public BitSet getRoster() {
+        return (BitSet) roster.clone();
+    }
+
+    public BitSet getPresent() {
+        return (BitSet) present.clone();
+    }
+
+    public BitSet getAbsent() {
+        return (BitSet) absent.clone();
+    }
+
+    public BitSet getNotRecorded() {
+        BitSet missing = (BitSet) roster.clone();
+        missing.andNot(present);
+        missing.andNot(absent);
+        return missing;
+    }
+}
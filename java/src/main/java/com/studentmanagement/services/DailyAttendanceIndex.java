@@ -0,0 +1,150 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.database.EpochDays;
+import com.studentmanagement.models.AttendanceStatus;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Roster and per-day present/absent bitmaps behind the daily reports. Each is read once with an
+ * index-only query and then kept current from the services' change events, so a repeated daily
+ * report, or a multi-day comparison over days already seen, is bitwise work with no database
+ * round trip. Recently used days are kept up to {@link #MAX_CACHED_DAYS}.
+ *
+ * <p>Like {@link StudentCache}, writes that bypass the services are not seen until the day falls out
+ * of the cache or {@link #invalidate} is called. A load that overlaps a change is returned but not
+ * cached, so a snapshot taken before a write can't be mistaken for a current one.
+ */
+class DailyAttendanceIndex implements ChangeListener {
+    // About a school year and a half; each day costs two bits per student id
+    static final int MAX_CACHED_DAYS = 400;
+
+    private final DatabaseHandler dbHandler;
+    private BitSet roster;
+    // Epoch day -> {present, absent}, in access order for eviction
+    private final LinkedHashMap<Long, BitSet[]> days = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BitSet[]> eldest) {
+            return size() > MAX_CACHED_DAYS;
+        }
+    };
+    // Bumped by every change, so loads that raced with one are not cached
+    private long version;
+
+    DailyAttendanceIndex(DatabaseHandler dbHandler) {
+        this.dbHandler = dbHandler;
+    }
+
+    /** A snapshot of one day; a day without records has empty present and absent sets. */
+    DailyAttendance day(LocalDate date) throws SQLException {
+        BitSet roster = roster();
+        BitSet[] sets = daySets(date.toEpochDay());
+        synchronized (this) {
+            BitSet present = (BitSet) sets[0].clone();
+            BitSet absent = (BitSet) sets[1].clone();
+            // Rows of students deleted since the day was loaded
+            present.and(roster);
+            absent.and(roster);
+            return new DailyAttendance(date, roster, present, absent);
+        }
+    }
+
+    /** Days between the two dates (inclusive) that have at least one record, from the daily rollup. */
+    List<LocalDate> recordedDays(LocalDate from, LocalDate to) throws SQLException {
+        return dbHandler.query("SELECT date FROM attendance_daily WHERE date BETWEEN ? AND ? AND total > 0 ORDER BY date;",
+            rs -> LocalDate.ofEpochDay(rs.getLong(1)), from.toEpochDay(), to.toEpochDay());
+    }
+
+    synchronized void invalidate() {
+        roster = null;
+        days.clear();
+        version++;
+    }
+
+    private BitSet roster() throws SQLException {
+        long stamp;
+        synchronized (this) {
+            if (roster != null) return (BitSet) roster.clone();
+            stamp = version;
+        }
+        BitSet loaded = dbHandler.withReader(conn -> {
+            BitSet ids = new BitSet();
+            PreparedStatement stmt = dbHandler.prepare(conn, "SELECT student_id FROM students;");
+            stmt.setFetchSize(dbHandler.getFetchSize());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) ids.set(rs.getInt(1));
+            }
+            return ids;
+        });
+        synchronized (this) {
+            if (version == stamp) roster = (BitSet) loaded.clone();
+        }
+        return loaded;
+    }
+
+    private BitSet[] daySets(long day) throws SQLException {
+        long stamp;
+        synchronized (this) {
+            BitSet[] cached = days.get(day);
+            if (cached != null) return cached;
+            stamp = version;
+        }
+        BitSet[] loaded = dbHandler.withReader(conn -> {
+            BitSet present = new BitSet();
+            BitSet absent = new BitSet();
+            PreparedStatement stmt = dbHandler.prepare(conn, "SELECT student_id, status FROM attendance WHERE date = ?;");
+            stmt.setLong(1, day);
+            stmt.setFetchSize(dbHandler.getFetchSize());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) (rs.getInt(2) == AttendanceStatus.PRESENT.getCode() ? present : absent).set(rs.getInt(1));
+            }
+            return new BitSet[]{present, absent};
+        });
+        synchronized (this) {
+            if (version == stamp) days.put(day, loaded);
+        }
+        return loaded;
+    }
+
+    // ========== Change tracking ==========
+
+    @Override
+    public synchronized void studentSaved(int studentId, String course) {
+        version++;
+        if (roster != null) roster.set(studentId);
+    }
+
+    @Override
+    public synchronized void studentDeleted(int studentId) {
+        version++;
+        if (roster != null) roster.clear(studentId);
+        for (BitSet[] sets : days.values()) {
+            sets[0].clear(studentId);
+            sets[1].clear(studentId);
+        }
+    }
+
+    @Override
+    public synchronized void attendanceRecorded(int studentId, String date, AttendanceStatus status) {
+        version++;
+        BitSet[] sets = days.get(EpochDays.fromIso(date));
+        if (sets == null) return;
+        boolean present = status == AttendanceStatus.PRESENT;
+        sets[0].set(studentId, present);
+        sets[1].set(studentId, !present);
+    }
+
+    @Override
+    public synchronized void attendanceDeleted(int studentId, String date) {
+        version++;
+        BitSet[] sets = days.get(EpochDays.fromIso(date));
+        if (sets == null) return;
+        sets[0].clear(studentId);
+        sets[1].clear(studentId);
+    }
+}
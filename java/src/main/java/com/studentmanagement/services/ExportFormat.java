@@ -0,0 +1,28 @@
+package com.studentmanagement.services;
+
+public enum ExportFormat {
+    CSV("csv"),
+    JSON("json"),
+    PDF("pdf");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String withExtension(String filename) {
+        return filename.endsWith("." + extension) ? filename : filename + "." + extension;
+    }
+
+    public static ExportFormat fromValue(String value) {
+        for (ExportFormat f : values()) {
+            if (f.extension.equalsIgnoreCase(value)) return f;
+        }
+        throw new IllegalArgumentException("Unknown export format: " + value);
+    }
+}
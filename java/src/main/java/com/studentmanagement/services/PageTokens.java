@@ -0,0 +1,54 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.models.CursorPage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque page tokens for keyset pagination: the listing's kind plus the last row's sort key,
+ * base64url-encoded. The kind stops a token from one listing being replayed against another;
+ * anything that does not decode is rejected as bad input rather than silently restarting.
+ */
+final class PageTokens {
+    private PageTokens() {
+    }
+
+    static String encode(String kind, long... key) {
+        StringBuilder sb = new StringBuilder(kind);
+        for (long k : key) sb.append(':').append(k);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** The sort key in {@code token}, or null for a null/blank token (the first page). */
+    static long[] decode(String token, String kind, int keyLength) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8).split(":");
+            if (parts.length == keyLength + 1 && parts[0].equals(kind)) {
+                long[] key = new long[keyLength];
+                for (int i = 0; i < keyLength; i++) key[i] = Long.parseLong(parts[i + 1]);
+                return key;
+            }
+        } catch (IllegalArgumentException e) {
+            // Not base64 or not numeric: reported below like any other foreign token
+        }
+        throw new IllegalArgumentException("Invalid page token: " + token);
+    }
+
+    static void checkLimit(int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Invalid page size: " + limit);
+    }
+
+    /**
+     * Builds a page from a query that fetched {@code limit + 1} rows: the extra row only proves
+     * another page exists, and the token points after the last row actually returned.
+     */
+    static <T> CursorPage<T> fromOverfetch(List<T> rows, int limit, String kind, Function<T, long[]> keyOf) {
+        if (rows.size() <= limit) return new CursorPage<>(rows, limit, null);
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, limit, encode(kind, keyOf.apply(items.get(limit - 1))));
+    }
+}
@@ -0,0 +1,156 @@
+package com.studentmanagement.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Reports generated in parallel by {@link ReportService}, one per key. Keys are worked off in
+ * contiguous chunks, several per worker, so small reports don't each pay a thread hand-off.
+ * Outcomes are handed back in submission order whatever order they finish in, and a failing
+ * report becomes that entry's error without stopping the others. {@link #cancel()} skips every
+ * report that has not started; ones already running finish, so no export is left half-written.
+ */
+public class ReportBatch<K, R> {
+    @FunctionalInterface
+    interface Task<K, R> {
+        R run(K key) throws Exception;
+    }
+
+    private final List<K> keys;
+    private final Object[] results;
+    private final Exception[] errors;
+    private final int chunkSize;
+    private final List<Future<?>> chunks = new ArrayList<>();
+    private final AtomicInteger completed = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    ReportBatch(List<K> keys, int chunkSize) {
+        this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+        this.results = new Object[keys.size()];
+        this.errors = new Exception[keys.size()];
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    int getChunkCount() {
+        return (keys.size() + chunkSize - 1) / chunkSize;
+    }
+
+    // Work for chunk n; the future returned by the executor must be registered in chunk order
+    Runnable chunk(int n, Task<K, R> task) {
+        return () -> {
+            for (int i = n * chunkSize, end = Math.min(keys.size(), i + chunkSize); i < end; i++) {
+                if (cancelled) {
+                    errors[i] = new CancellationException("Report batch cancelled");
+                    continue;
+                }
+                try {
+                    results[i] = task.run(keys.get(i));
+                } catch (Exception e) {
+                    errors[i] = e;
+                }
+                completed.incrementAndGet();
+            }
+        };
+    }
+
+    void add(Future<?> chunk) {
+        chunks.add(chunk);
+    }
+
+    public List<K> getKeys() {
+        return keys;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    /** Reports that have finished, successfully or not. */
+    public int getCompletedCount() {
+        return completed.get();
+    }
+
+    public boolean isDone() {
+        for (Future<?> f : chunks) {
+            if (!f.isDone()) return false;
+        }
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** Waits for the report at {@code index}. */
+    @SuppressWarnings("unchecked")
+    public Outcome<K, R> get(int index) throws InterruptedException {
+        try {
+            chunks.get(index / chunkSize).get();
+        } catch (ExecutionException e) {
+            // Chunks catch per-report failures themselves, so this is an Error escaping a report
+            throw new IllegalStateException("Report worker failed", e.getCause());
+        }
+        return new Outcome<>(keys.get(index), (R) results[index], errors[index]);
+    }
+
+    /**
+     * Hands each outcome to {@code action} in submission order as soon as it and all earlier ones
+     * are done. If the waiting thread is interrupted the rest of the batch is cancelled.
+     */
+    public void forEachInOrder(Consumer<? super Outcome<K, R>> action) throws InterruptedException {
+        try {
+            for (int i = 0; i < keys.size(); i++) action.accept(get(i));
+        } catch (InterruptedException e) {
+            cancel();
+            throw e;
+        }
+    }
+
+    public List<Outcome<K, R>> awaitAll() throws InterruptedException {
+        List<Outcome<K, R>> outcomes = new ArrayList<>(keys.size());
+        forEachInOrder(outcomes::add);
+        return outcomes;
+    }
+
+    public static class Outcome<K, R> {
+        private final K key;
+        private final R result;
+        private final Exception error;
+
+        Outcome(K key, R result, Exception error) {
+            this.key = key;
+            this.result = result;
+            this.error = error;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public R getResult() {
+            return result;
+        }
+
+        public Exception getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        public boolean isCancelled() {
+            return error instanceof CancellationException;
+        }
+    }
+}
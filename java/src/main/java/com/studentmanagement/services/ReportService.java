@@ -1,32 +1,63 @@
 package com.studentmanagement.services;
 
 import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.database.EpochDays;
+import com.studentmanagement.database.RowMappers;
+import com.studentmanagement.database.UncheckedSQLException;
 import com.studentmanagement.models.Student;
 import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
 import com.studentmanagement.services.AttendanceService;
 import com.opencsv.CSVWriter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itextpdf.text.Chunk;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.PageSize;
 import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
 
 import java.io.*;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
-public class ReportService {
+public class ReportService implements AutoCloseable {
+    // Per-student totals for a course from the monthly rollup: student columns, then total, present and absent days
+    private static final String COURSE_SUMMARY_SQL =
+        "SELECT s.student_id, s.name, s.course, s.enrollment_date, COALESCE(SUM(m.total), 0), " +
+        "COALESCE(SUM(m.present), 0), COALESCE(SUM(m.total - m.present), 0) " +
+        "FROM students s LEFT JOIN attendance_student_monthly m ON m.student_id = s.student_id " +
+        "WHERE s.course LIKE ? GROUP BY s.student_id ORDER BY s.name;";
+    // Batch reports are split into about this many chunks per worker, to even out load when report sizes vary
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final String NOT_RECORDED = "Not Recorded";
+
+    private final DatabaseHandler dbHandler;
     private final StudentService studentService;
     private final AttendanceService attendanceService;
+    private final DailyAttendanceIndex dailyIndex;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Batch workers, created on first use: one per core, capped at the read connections they would otherwise queue on
+    private ExecutorService batchExecutor;
+    private boolean closed;
 
     public ReportService(DatabaseHandler dbHandler, StudentService studentService, AttendanceService attendanceService) {
+        this.dbHandler = dbHandler;
         this.studentService = studentService;
         this.attendanceService = attendanceService;
+        this.dailyIndex = new DailyAttendanceIndex(dbHandler);
+        studentService.addChangeListener(dailyIndex);
+        attendanceService.addChangeListener(dailyIndex);
     }
 
     public Map<String, Object> generateStudentAttendanceReport(int studentId) throws SQLException {
@@ -45,129 +76,271 @@ public class ReportService {
         return report;
     }
 
+    /** A day's counts as bitmaps over the roster, without building any per-student entries. */
+    public DailyAttendance getDailyAttendance(String date) throws SQLException {
+        return dailyIndex.day(LocalDate.ofEpochDay(EpochDays.fromIso(date)));
+    }
+
     public Map<String, Object> generateDailyAttendanceReport(String date) throws SQLException {
-        List<Attendance> records = attendanceService.getAttendanceByDate(date);
-        List<Student> students = studentService.getAllStudents();
-        Map<Integer, String> recordMap = new HashMap<>();
-        for (Attendance att : records) recordMap.put(att.getStudentId(), att.getStatus().getValue());
-
-        List<Map<String, Object>> entries = new ArrayList<>();
-        int presentCount = 0, absentCount = 0;
-        for (Student s : students) {
-            String status = recordMap.getOrDefault(s.getStudentId(), "Not Recorded");
-            if ("Present".equals(status)) presentCount++;
-            else if ("Absent".equals(status)) absentCount++;
-            Map<String, Object> entry = new LinkedHashMap<>();
-            entry.put("student_id", s.getStudentId());
-            entry.put("name", s.getName());
-            entry.put("course", s.getCourse());
-            entry.put("status", status);
-            entries.add(entry);
-        }
+        return generateDailyAttendanceReport(date, true);
+    }
 
+    /**
+     * The daily report. Counts come from bit counts over the day's bitmaps; the per-student
+     * {@code entries} list, the only part that grows with the roster, is built only when asked for.
+     */
+    public Map<String, Object> generateDailyAttendanceReport(String date, boolean includeEntries) throws SQLException {
+        DailyAttendance day = getDailyAttendance(date);
         Map<String, Object> report = new LinkedHashMap<>();
         report.put("date", date);
-        report.put("present_count", presentCount);
-        report.put("absent_count", absentCount);
-        report.put("not_recorded", students.size() - records.size());
-        report.put("total_students", students.size());
-        double perc = students.isEmpty() ? 0.0 : (presentCount * 100.0 / students.size());
-        report.put("attendance_percentage", Math.round(perc * 100.0) / 100.0);
-        report.put("entries", entries);
+        report.put("present_count", day.getPresentCount());
+        report.put("absent_count", day.getAbsentCount());
+        report.put("not_recorded", day.getNotRecordedCount());
+        report.put("total_students", day.getTotalStudents());
+        report.put("attendance_percentage", day.getAttendancePercentage());
+        if (includeEntries) {
+            List<Map<String, Object>> entries = new ArrayList<>(day.getTotalStudents());
+            for (Student s : studentService.getAllStudents()) {
+                // Students added after the snapshot's roster was taken would not add up with its counts
+                if (!day.isOnRoster(s.getStudentId())) continue;
+                AttendanceStatus status = day.statusOf(s.getStudentId());
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("student_id", s.getStudentId());
+                entry.put("name", s.getName());
+                entry.put("course", s.getCourse());
+                entry.put("status", status == null ? NOT_RECORDED : status.getValue());
+                entries.add(entry);
+            }
+            report.put("entries", entries);
+        }
+        report.put("generated_at", LocalDateTime.now().format(dateTimeFormatter));
+        return report;
+    }
+
+    /**
+     * Students recorded absent on every day between the two dates that has any attendance at all,
+     * so weekends and holidays count against nobody. Each day is one AND over the day bitmaps;
+     * student details are looked up only for the students left at the end.
+     */
+    public Map<String, Object> generateAbsentEveryDayReport(String startDate, String endDate) throws SQLException {
+        LocalDate from = LocalDate.ofEpochDay(EpochDays.fromIso(startDate));
+        LocalDate to = LocalDate.ofEpochDay(EpochDays.fromIso(endDate));
+        if (from.isAfter(to)) throw new IllegalArgumentException("Start date " + startDate + " is after end date " + endDate);
+        List<LocalDate> days = dailyIndex.recordedDays(from, to);
+        BitSet absentAll = new BitSet();
+        for (int i = 0; i < days.size(); i++) {
+            BitSet absent = dailyIndex.day(days.get(i)).getAbsent();
+            if (i == 0) absentAll = absent;
+            else absentAll.and(absent);
+            if (absentAll.isEmpty()) break;
+        }
+        List<Map<String, Object>> students = new ArrayList<>(absentAll.cardinality());
+        for (int id = absentAll.nextSetBit(0); id >= 0; id = absentAll.nextSetBit(id + 1)) {
+            Student s = studentService.getStudentById(id);
+            if (s != null) students.add(s.toMap());
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("from", startDate);
+        report.put("to", endDate);
+        report.put("recorded_days", days.size());
+        report.put("student_count", students.size());
+        report.put("students", students);
         report.put("generated_at", LocalDateTime.now().format(dateTimeFormatter));
         return report;
     }
 
     public Map<String, Object> generateCourseAttendanceReport(String course) throws SQLException {
-        Map<String, Object> criteria = new HashMap<>();
-        criteria.put("course", course);
-        List<Student> students = studentService.advancedSearch(criteria);
-        if (students.isEmpty()) throw new IllegalArgumentException("No students found for course '" + course + "'");
-
-        List<Map<String, Object>> studentReports = new ArrayList<>();
-        int totalPresent = 0, totalDays = 0;
-        for (Student s : students) {
-            Map<String, Object> summary = attendanceService.getStudentAttendanceSummary(s.getStudentId());
-            totalPresent += ((Number) summary.get("present_days")).intValue();
-            totalDays += ((Number) summary.get("total_days")).intValue();
+        // One grouped LEFT JOIN yields every student's totals; students without records get zeros
+        int[] totals = new int[2]; // present, total
+        List<Map<String, Object>> studentReports = dbHandler.query(COURSE_SUMMARY_SQL, rs -> {
+            Student s = RowMappers.STUDENT.mapRow(rs);
+            int total = rs.getInt(5);
+            int present = rs.getInt(6);
+            totals[0] += present;
+            totals[1] += total;
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("student_id", s.getStudentId());
+            summary.put("total_days", total);
+            summary.put("present_days", present);
+            summary.put("absent_days", rs.getInt(7));
+            summary.put("attendance_percentage", percentage(present, total));
             Map<String, Object> rep = new LinkedHashMap<>();
             rep.put("student", s.toMap());
             rep.put("attendance_summary", summary);
-            studentReports.add(rep);
-        }
-        double overallPerc = totalDays > 0 ? (totalPresent * 100.0 / totalDays) : 0.0;
+            return rep;
+        }, "%" + course + "%");
+        if (studentReports.isEmpty()) throw new IllegalArgumentException("No students found for course '" + course + "'");
+
         Map<String, Object> report = new LinkedHashMap<>();
         report.put("course", course);
-        report.put("student_count", students.size());
-        report.put("overall_attendance_percentage", Math.round(overallPerc * 100.0) / 100.0);
+        report.put("student_count", studentReports.size());
+        report.put("overall_attendance_percentage", percentage(totals[0], totals[1]));
         report.put("student_reports", studentReports);
         report.put("generated_at", LocalDateTime.now().format(dateTimeFormatter));
         return report;
     }
 
+    /** Attendance totals for every course, summed from the per-course daily rollup. */
+    public Map<String, Object> generateCoursesOverview() throws SQLException {
+        String sql = "SELECT s.course, s.students, COALESCE(c.total, 0), COALESCE(c.present, 0), " +
+                     "COALESCE(c.total - c.present, 0) " +
+                     "FROM (SELECT course, COUNT(*) AS students FROM students GROUP BY course) s " +
+                     "LEFT JOIN (SELECT course, SUM(total) AS total, SUM(present) AS present " +
+                     "FROM attendance_course_daily GROUP BY course) c ON c.course = s.course ORDER BY s.course;";
+        List<Map<String, Object>> courses = dbHandler.query(sql, rs -> {
+            int total = rs.getInt(3);
+            int present = rs.getInt(4);
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("course", rs.getString(1));
+            c.put("student_count", rs.getInt(2));
+            c.put("total_records", total);
+            c.put("present", present);
+            c.put("absent", rs.getInt(5));
+            c.put("attendance_percentage", percentage(present, total));
+            return c;
+        });
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("course_count", courses.size());
+        report.put("courses", courses);
+        report.put("generated_at", LocalDateTime.now().format(dateTimeFormatter));
+        return report;
+    }
+
     public Map<String, Object> generateMonthlyAttendanceReport(int year, int month) throws SQLException {
         return attendanceService.getMonthlyAttendanceReport(year, month);
     }
 
+    public String exportReport(Map<String, Object> reportData, ExportFormat format, String filename)
+            throws IOException, DocumentException {
+        switch (format) {
+            case CSV: return exportReportToCSV(reportData, filename);
+            case JSON: return exportReportToJSON(reportData, filename);
+            case PDF: default: return exportReportToPDF(reportData, filename);
+        }
+    }
+
+    /** Writes a generated report to {@code out} and closes it. */
+    public void writeReport(Map<String, Object> reportData, ExportFormat format, OutputStream out)
+            throws IOException, DocumentException {
+        switch (format) {
+            case CSV: writeCSV(tabulate(reportData), out); break;
+            case JSON: objectMapper.writerWithDefaultPrettyPrinter().writeValue(out, reportData); break;
+            case PDF: default: writePDF(reportData, out); break;
+        }
+    }
+
     public String exportReportToCSV(Map<String, Object> reportData, String filename) throws IOException {
         if (!filename.endsWith(".csv")) filename += ".csv";
-        try (CSVWriter writer = new CSVWriter(new FileWriter(filename))) {
-            if (reportData.containsKey("attendance_records")) {
-                writer.writeNext(new String[]{"Date", "Status"});
-                List<Map<String, Object>> records = (List<Map<String, Object>>) reportData.get("attendance_records");
-                for (Map<String, Object> rec : records) {
-                    writer.writeNext(new String[]{
-                        rec.get("date").toString(),
-                        rec.get("status").toString()
-                    });
-                }
-            } else if (reportData.containsKey("entries")) {
-                writer.writeNext(new String[]{"ID", "Name", "Course", "Status"});
-                List<Map<String, Object>> entries = (List<Map<String, Object>>) reportData.get("entries");
-                for (Map<String, Object> e : entries) {
-                    writer.writeNext(new String[]{
-                        e.get("student_id").toString(),
-                        e.get("name").toString(),
-                        e.get("course").toString(),
-                        e.get("status").toString()
-                    });
-                }
-            } else if (reportData.containsKey("student_reports")) {
-                writer.writeNext(new String[]{"ID","Name","Course","TotalDays","PresentDays","AbsentDays","Attendance%"});
-                List<Map<String, Object>> reps = (List<Map<String, Object>>) reportData.get("student_reports");
-                for (Map<String, Object> rep : reps) {
-                    Map<String, Object> stud = (Map<String, Object>) rep.get("student");
-                    Map<String, Object> sum = (Map<String, Object>) rep.get("attendance_summary");
-                    writer.writeNext(new String[]{
-                        stud.get("student_id").toString(),
-                        stud.get("name").toString(),
-                        stud.get("course").toString(),
-                        sum.get("total_days").toString(),
-                        sum.get("present_days").toString(),
-                        sum.get("absent_days").toString(),
-                        sum.get("attendance_percentage").toString()
-                    });
-                }
-            } else if (reportData.containsKey("days")) {
-                writer.writeNext(new String[]{"Date","Present","Absent","Total","Percentage"});
-                Map<String, Map<String, Object>> days = (Map<String, Map<String, Object>>) reportData.get("days");
-                for (Map.Entry<String, Map<String, Object>> entry : days.entrySet()) {
-                    Map<String, Object> d = entry.getValue();
-                    writer.writeNext(new String[]{
-                        entry.getKey(),
-                        d.get("present").toString(),
-                        d.get("absent").toString(),
-                        d.get("total").toString(),
-                        d.get("present_percentage").toString()
-                    });
-                }
-            } else {
-                throw new IllegalArgumentException("Unsupported report format for CSV export");
-            }
+        List<String[]> table = tabulate(reportData);
+        try (OutputStream out = new FileOutputStream(filename)) {
+            writeCSV(table, out);
         }
         return new File(filename).getAbsolutePath();
     }
 
+    private static void writeCSV(List<String[]> table, OutputStream out) throws IOException {
+        try (CSVWriter writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out)))) {
+            writer.writeAll(table);
+        }
+    }
+
+    /**
+     * A section of a generated report, typed as the caller reads it. Reports are JSON-ready maps whose
+     * sections this class builds as row lists or nested maps, so the cast only restores that type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T section(Map<String, Object> report, String key) {
+        return (T) report.get(key);
+    }
+
+    // Flattens the tabular part of a generated report into a header line followed by rows
+    private List<String[]> tabulate(Map<String, Object> reportData) {
+        List<String[]> table = tableOf(reportData);
+        if (table == null) throw new IllegalArgumentException("Report has no tabular section to export");
+        return table;
+    }
+
+    // The report's table, or null for a report made only of scalar values
+    private List<String[]> tableOf(Map<String, Object> reportData) {
+        List<String[]> table = new ArrayList<>();
+        if (reportData.containsKey("attendance_records")) {
+            table.add(new String[]{"Date", "Status"});
+            List<Map<String, Object>> records = section(reportData, "attendance_records");
+            for (Map<String, Object> rec : records) {
+                table.add(new String[]{
+                    rec.get("date").toString(),
+                    rec.get("status").toString()
+                });
+            }
+        } else if (reportData.containsKey("entries")) {
+            table.add(new String[]{"ID", "Name", "Course", "Status"});
+            List<Map<String, Object>> entries = section(reportData, "entries");
+            for (Map<String, Object> e : entries) {
+                table.add(new String[]{
+                    e.get("student_id").toString(),
+                    e.get("name").toString(),
+                    e.get("course").toString(),
+                    e.get("status").toString()
+                });
+            }
+        } else if (reportData.containsKey("student_reports")) {
+            table.add(new String[]{"ID","Name","Course","TotalDays","PresentDays","AbsentDays","Attendance%"});
+            List<Map<String, Object>> reps = section(reportData, "student_reports");
+            for (Map<String, Object> rep : reps) {
+                Map<String, Object> stud = section(rep, "student");
+                Map<String, Object> sum = section(rep, "attendance_summary");
+                table.add(new String[]{
+                    stud.get("student_id").toString(),
+                    stud.get("name").toString(),
+                    stud.get("course").toString(),
+                    sum.get("total_days").toString(),
+                    sum.get("present_days").toString(),
+                    sum.get("absent_days").toString(),
+                    sum.get("attendance_percentage").toString()
+                });
+            }
+        } else if (reportData.containsKey("courses")) {
+            table.add(new String[]{"Course","Students","Records","Present","Absent","Attendance%"});
+            List<Map<String, Object>> courses = section(reportData, "courses");
+            for (Map<String, Object> c : courses) {
+                table.add(new String[]{
+                    c.get("course").toString(),
+                    c.get("student_count").toString(),
+                    c.get("total_records").toString(),
+                    c.get("present").toString(),
+                    c.get("absent").toString(),
+                    c.get("attendance_percentage").toString()
+                });
+            }
+        } else if (reportData.containsKey("days")) {
+            table.add(new String[]{"Date","Present","Absent","Total","Percentage"});
+            Map<String, Map<String, Object>> days = section(reportData, "days");
+            for (Map.Entry<String, Map<String, Object>> entry : days.entrySet()) {
+                Map<String, Object> d = entry.getValue();
+                table.add(new String[]{
+                    entry.getKey(),
+                    d.get("present").toString(),
+                    d.get("absent").toString(),
+                    d.get("total").toString(),
+                    d.get("present_percentage").toString()
+                });
+            }
+        } else if (reportData.containsKey("students")) {
+            table.add(new String[]{"ID", "Name", "Course"});
+            List<Map<String, Object>> students = section(reportData, "students");
+            for (Map<String, Object> st : students) {
+                table.add(new String[]{
+                    st.get("student_id").toString(),
+                    st.get("name").toString(),
+                    st.get("course").toString()
+                });
+            }
+        } else {
+            return null;
+        }
+        return table;
+    }
+
     public String exportReportToJSON(Map<String, Object> reportData, String filename) throws IOException {
         if (!filename.endsWith(".json")) filename += ".json";
         objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(filename), reportData);
@@ -176,14 +349,301 @@ public class ReportService {
 
     public String exportReportToPDF(Map<String, Object> reportData, String filename) throws IOException, DocumentException {
         if (!filename.endsWith(".pdf")) filename += ".pdf";
+        List<String[]> table = tableOf(reportData);
+        try (OutputStream out = new FileOutputStream(filename)) {
+            writePDF(reportData, table, out);
+        }
+        return new File(filename).getAbsolutePath();
+    }
+
+    private void writePDF(Map<String, Object> reportData, OutputStream out) throws IOException, DocumentException {
+        writePDF(reportData, tableOf(reportData), out);
+    }
+
+    // Scalar values as paragraphs, then the table if the report has one; without one every value is printed
+    private void writePDF(Map<String, Object> reportData, List<String[]> table, OutputStream out)
+            throws IOException, DocumentException {
         Document document = new Document(PageSize.LETTER);
-        PdfWriter.getInstance(document, new FileOutputStream(filename));
+        PdfWriter.getInstance(document, new BufferedOutputStream(out));
         document.open();
         document.add(new Paragraph("Report generated: " + LocalDateTime.now().format(dateTimeFormatter)));
         for (Map.Entry<String, Object> entry : reportData.entrySet()) {
-            document.add(new Paragraph(entry.getKey() + ": " + entry.getValue().toString()));
+            // Nested sections are rendered by the table below
+            if (table != null && (entry.getValue() instanceof Map || entry.getValue() instanceof List)) continue;
+            document.add(new Paragraph(entry.getKey() + ": " + entry.getValue()));
+        }
+        if (table == null) {
+            document.close();
+            return;
         }
+        document.add(Chunk.NEWLINE);
+        PdfPTable pdfTable = new PdfPTable(table.get(0).length);
+        pdfTable.setWidthPercentage(100);
+        pdfTable.setHeaderRows(1);
+        for (String[] row : table) {
+            for (String cell : row) pdfTable.addCell(cell);
+        }
+        document.add(pdfTable);
         document.close();
-        return new File(filename).getAbsolutePath();
+    }
+
+    // ========== Streaming exports ==========
+    // These read rows straight off a database cursor and write them as they arrive, so memory
+    // use stays flat regardless of report size. The write* variants close the stream they're given.
+
+    public String exportStudentAttendance(int studentId, ExportFormat format, String filename) throws SQLException, IOException {
+        String path = format.withExtension(filename);
+        writeStudentAttendance(studentId, format, () -> new FileOutputStream(path));
+        return new File(path).getAbsolutePath();
+    }
+
+    public void writeStudentAttendance(int studentId, ExportFormat format, OutputStream out) throws SQLException, IOException {
+        writeStudentAttendance(studentId, format, () -> out);
+    }
+
+    private void writeStudentAttendance(int studentId, ExportFormat format, OutputTarget target) throws SQLException, IOException {
+        Student student = studentService.getStudentById(studentId);
+        if (student == null) throw new IllegalArgumentException("Student with ID " + studentId + " not found");
+        String sql = "SELECT date, status FROM attendance WHERE student_id = ? ORDER BY date DESC;";
+        int[] counts = new int[2];
+        try (TableExporter out = TableExporter.open(format, target.open(), "Student Attendance Report", student.toMap(),
+                "attendance_records", new String[]{"Date", "Status"}, new String[]{"date", "status"})) {
+            streamRows(sql, 2, row -> {
+                row[0] = EpochDays.toIso(((Number) row[0]).longValue());
+                row[1] = statusValue(row[1]);
+                countStatus(row[1], counts);
+                out.writeRow(row);
+            }, studentId);
+            out.finish(summary(counts[0], counts[1], counts[0] + counts[1], "attendance_percentage"));
+        }
+    }
+
+    public String exportDailyReport(String date, ExportFormat format, String filename) throws SQLException, IOException {
+        String path = format.withExtension(filename);
+        writeDailyReport(date, format, () -> new FileOutputStream(path));
+        return new File(path).getAbsolutePath();
+    }
+
+    public void writeDailyReport(String date, ExportFormat format, OutputStream out) throws SQLException, IOException {
+        writeDailyReport(date, format, () -> out);
+    }
+
+    private void writeDailyReport(String date, ExportFormat format, OutputTarget target) throws SQLException, IOException {
+        // Statuses come from the day's bitmaps, so the student rows stream without a per-row join
+        DailyAttendance day = getDailyAttendance(date);
+        String sql = "SELECT student_id, name, course FROM students ORDER BY student_id;";
+        int[] counts = new int[2];
+        long[] total = new long[1];
+        Object[] line = new Object[4];
+        try (TableExporter out = TableExporter.open(format, target.open(), "Daily Attendance Report", Map.of("date", date),
+                "entries", new String[]{"ID", "Name", "Course", "Status"}, new String[]{"student_id", "name", "course", "status"})) {
+            streamRows(sql, 3, row -> {
+                int id = ((Number) row[0]).intValue();
+                if (!day.isOnRoster(id)) return;
+                AttendanceStatus status = day.statusOf(id);
+                System.arraycopy(row, 0, line, 0, 3);
+                if (status == null) line[3] = NOT_RECORDED;
+                else countStatus(line[3] = status.getValue(), counts);
+                total[0]++;
+                out.writeRow(line);
+            });
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("present_count", counts[0]);
+            summary.put("absent_count", counts[1]);
+            summary.put("not_recorded", total[0] - counts[0] - counts[1]);
+            summary.put("total_students", total[0]);
+            summary.put("attendance_percentage", percentage(counts[0], total[0]));
+            summary.put("generated_at", LocalDateTime.now().format(dateTimeFormatter));
+            out.finish(summary);
+        }
+    }
+
+    public String exportCourseReport(String course, ExportFormat format, String filename) throws SQLException, IOException {
+        String path = format.withExtension(filename);
+        writeCourseReport(course, format, () -> new FileOutputStream(path));
+        return new File(path).getAbsolutePath();
+    }
+
+    public void writeCourseReport(String course, ExportFormat format, OutputStream out) throws SQLException, IOException {
+        writeCourseReport(course, format, () -> out);
+    }
+
+    private void writeCourseReport(String course, ExportFormat format, OutputTarget target) throws SQLException, IOException {
+        String pattern = "%" + course + "%";
+        if (dbHandler.queryOne("SELECT 1 FROM students WHERE course LIKE ? LIMIT 1;", rs -> rs.getInt(1), pattern) == null) {
+            throw new IllegalArgumentException("No students found for course '" + course + "'");
+        }
+        long[] totals = new long[2];
+        try (TableExporter out = TableExporter.open(format, target.open(), "Course Attendance Report", Map.of("course", course),
+                "student_reports",
+                new String[]{"ID", "Name", "Course", "TotalDays", "PresentDays", "AbsentDays", "Attendance%"},
+                new String[]{"student_id", "name", "course", "total_days", "present_days", "absent_days", "attendance_percentage"})) {
+            Object[] line = new Object[7];
+            long students = streamRows(COURSE_SUMMARY_SQL, 7, row -> {
+                int days = ((Number) row[4]).intValue();
+                int present = ((Number) row[5]).intValue();
+                System.arraycopy(row, 0, line, 0, 3);
+                System.arraycopy(row, 4, line, 3, 3);
+                line[6] = percentage(present, days);
+                totals[0] += days;
+                totals[1] += present;
+                out.writeRow(line);
+            }, pattern);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("student_count", students);
+            summary.put("overall_attendance_percentage", percentage(totals[1], totals[0]));
+            summary.put("generated_at", LocalDateTime.now().format(dateTimeFormatter));
+            out.finish(summary);
+        }
+    }
+
+    public String exportAttendanceRange(String startDate, String endDate, ExportFormat format, String filename) throws SQLException, IOException {
+        String path = format.withExtension(filename);
+        writeAttendanceRange(startDate, endDate, format, () -> new FileOutputStream(path));
+        return new File(path).getAbsolutePath();
+    }
+
+    public void writeAttendanceRange(String startDate, String endDate, ExportFormat format, OutputStream out) throws SQLException, IOException {
+        writeAttendanceRange(startDate, endDate, format, () -> out);
+    }
+
+    private void writeAttendanceRange(String startDate, String endDate, ExportFormat format, OutputTarget target) throws SQLException, IOException {
+        String sql = "SELECT a.date, a.student_id, s.name, a.status FROM attendance a " +
+                     "JOIN students s ON s.student_id = a.student_id " +
+                     "WHERE a.date BETWEEN ? AND ? ORDER BY a.date, a.student_id;";
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("start_date", startDate);
+        meta.put("end_date", endDate);
+        int[] counts = new int[2];
+        try (TableExporter out = TableExporter.open(format, target.open(), "Attendance Records", meta,
+                "attendance_records", new String[]{"Date", "ID", "Name", "Status"}, new String[]{"date", "student_id", "name", "status"})) {
+            long total = streamRows(sql, 4, row -> {
+                row[0] = EpochDays.toIso(((Number) row[0]).longValue());
+                row[3] = statusValue(row[3]);
+                countStatus(row[3], counts);
+                out.writeRow(row);
+            }, EpochDays.fromIso(startDate), EpochDays.fromIso(endDate));
+            out.finish(summary(counts[0], counts[1], total, "present_percentage"));
+        }
+    }
+
+    // ========== Batch reports ==========
+    // Each report runs on its own pooled read connection; see ReportBatch for ordering and cancellation.
+
+    public ReportBatch<String, Map<String, Object>> generateCourseReports(List<String> courses) {
+        return submitBatch(courses, this::generateCourseAttendanceReport);
+    }
+
+    public ReportBatch<YearMonth, Map<String, Object>> generateMonthlyReports(List<YearMonth> months) {
+        return submitBatch(months, m -> generateMonthlyAttendanceReport(m.getYear(), m.getMonthValue()));
+    }
+
+    public ReportBatch<Integer, Map<String, Object>> generateStudentReports(List<Integer> studentIds) {
+        return submitBatch(studentIds, this::generateStudentAttendanceReport);
+    }
+
+    /** Exports one file per course into {@code directory}, named after the course; results are the file paths. */
+    public ReportBatch<String, String> exportCourseReports(List<String> courses, ExportFormat format, File directory) {
+        return submitBatch(courses, course -> exportCourseReport(course, format, new File(directory, course).getPath()));
+    }
+
+    /** Exports one file per month into {@code directory}, named yyyy-MM; results are the file paths. */
+    public ReportBatch<YearMonth, String> exportMonthlyReports(List<YearMonth> months, ExportFormat format, File directory) {
+        return submitBatch(months, m -> exportReport(generateMonthlyAttendanceReport(m.getYear(), m.getMonthValue()),
+            format, new File(directory, m.toString()).getPath()));
+    }
+
+    private <K, R> ReportBatch<K, R> submitBatch(List<K> keys, ReportBatch.Task<K, R> task) {
+        int workers = batchParallelism();
+        ReportBatch<K, R> batch = new ReportBatch<>(keys, keys.size() / (workers * CHUNKS_PER_WORKER));
+        ExecutorService executor = batchExecutor();
+        for (int n = 0; n < batch.getChunkCount(); n++) batch.add(executor.submit(batch.chunk(n, task)));
+        return batch;
+    }
+
+    public int batchParallelism() {
+        return Math.max(1, Math.min(dbHandler.getReaderCount(), Runtime.getRuntime().availableProcessors()));
+    }
+
+    private synchronized ExecutorService batchExecutor() {
+        if (closed) throw new IllegalStateException("ReportService is closed");
+        if (batchExecutor == null) {
+            AtomicInteger threads = new AtomicInteger();
+            batchExecutor = Executors.newFixedThreadPool(batchParallelism(), r -> {
+                Thread t = new Thread(r, "report-worker-" + threads.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return batchExecutor;
+    }
+
+    /**
+     * Stops the batch workers once their queued chunks finish and detaches from the services.
+     * Batches already submitted still complete; new ones are rejected.
+     */
+    @Override
+    public void close() {
+        ExecutorService executor;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            executor = batchExecutor;
+        }
+        studentService.removeChangeListener(dailyIndex);
+        attendanceService.removeChangeListener(dailyIndex);
+        if (executor != null) executor.shutdown();
+    }
+
+    // Opened only once the report's arguments have been checked, so a bad request leaves no empty file behind
+    private interface OutputTarget {
+        OutputStream open() throws IOException;
+    }
+
+    private interface RowSink {
+        void accept(Object[] row) throws IOException;
+    }
+
+    // Streams raw column values; the same array is refilled for every row, so sinks must not keep it
+    private long streamRows(String sql, int columns, RowSink sink, Object... params) throws SQLException, IOException {
+        Object[] row = new Object[columns];
+        long count = 0;
+        try (Stream<Object[]> rows = dbHandler.stream(sql, rs -> {
+                for (int i = 0; i < columns; i++) row[i] = rs.getObject(i + 1);
+                return row;
+            }, params)) {
+            Iterator<Object[]> it = rows.iterator();
+            while (it.hasNext()) {
+                sink.accept(it.next());
+                count++;
+            }
+        } catch (UncheckedSQLException e) {
+            throw e.getCause();
+        }
+        return count;
+    }
+
+    // Raw status column value to its display form
+    private static String statusValue(Object code) {
+        return AttendanceStatus.fromCode(((Number) code).intValue()).getValue();
+    }
+
+    private static void countStatus(Object status, int[] counts) {
+        if ("Present".equals(status)) counts[0]++;
+        else if ("Absent".equals(status)) counts[1]++;
+    }
+
+    private Map<String, Object> summary(long present, long absent, long total, String percentageKey) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total_records", total);
+        summary.put("present", present);
+        summary.put("absent", absent);
+        summary.put(percentageKey, percentage(present, total));
+        summary.put("generated_at", LocalDateTime.now().format(dateTimeFormatter));
+        return summary;
+    }
+
+    private static double percentage(long part, long total) {
+        return total > 0 ? Math.round(part * 100.0 / total * 100.0) / 100.0 : 0.0;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,211 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.models.Student;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of student records keyed by ID, with secondary indexes by name and course.
+ * Entries are copied in and out because {@link Student} is mutable. When every student in the
+ * table is cached ({@link #isComplete()}), full listings and name/course lookups are answered
+ * without touching the database.
+ *
+ * Reads that populate the cache take a {@link #stamp()} first; a put is dropped if any write
+ * invalidated the cache in between, so a slow reader can't reinsert a stale row.
+ */
+public class StudentCache {
+    private final int maxEntries;
+    private final LinkedHashMap<Integer, Student> byId;
+    private final Map<String, Set<Integer>> byName = new HashMap<>();
+    private final Map<String, Set<Integer>> byCourse = new HashMap<>();
+    private boolean complete;
+    private long writeStamp;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StudentCache(int maxEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("Cache size must be positive");
+        this.maxEntries = maxEntries;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Student> eldest) {
+                if (size() <= StudentCache.this.maxEntries) return false;
+                unindex(eldest.getValue());
+                complete = false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public synchronized long stamp() {
+        return writeStamp;
+    }
+
+    public synchronized Student get(int studentId) {
+        Student s = byId.get(studentId);
+        if (s == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copyOf(s);
+    }
+
+    public synchronized void put(Student student, long stamp) {
+        if (student == null) return;
+        if (stamp != writeStamp) {
+            // We can't tell whether this row is current, so no longer claim to hold the whole table
+            complete = false;
+            return;
+        }
+        putInternal(student);
+    }
+
+    /** Stores a row just read back after a write, replacing any cached version. */
+    public synchronized void replace(Student student) {
+        writeStamp++;
+        putInternal(student);
+    }
+
+    /** Replaces the contents with a full table listing; only marks the cache complete if it all fits. */
+    public synchronized void loadAll(List<Student> students, long stamp) {
+        if (stamp != writeStamp || students.size() > maxEntries) return;
+        clearInternal();
+        for (Student s : students) putInternal(s);
+        complete = true;
+    }
+
+    /** Every cached student in ID order, or null unless the cache holds the whole table. */
+    public synchronized List<Student> all() {
+        if (!complete) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        List<Student> result = new ArrayList<>(byId.size());
+        for (Student s : byId.values()) result.add(copyOf(s));
+        result.sort(Comparator.comparing(Student::getStudentId));
+        return result;
+    }
+
+    /** Students whose course equals {@code course}, or null unless the cache is complete. */
+    public synchronized List<Student> byCourse(String course) {
+        if (!complete) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        List<Student> result = new ArrayList<>();
+        for (Integer id : byCourse.getOrDefault(course, Collections.emptySet())) result.add(copyOf(byId.get(id)));
+        result.sort(Comparator.comparing(Student::getName));
+        return result;
+    }
+
+    /**
+     * TRUE if a cached student other than {@code excludeId} has this name, FALSE if the cache is
+     * complete and none does, or null when only the database can tell.
+     */
+    public synchronized Boolean isNameTaken(String name, Integer excludeId) {
+        Set<Integer> ids = byName.get(name);
+        if (ids != null) {
+            for (Integer id : ids) {
+                if (!id.equals(excludeId)) {
+                    hits.increment();
+                    return Boolean.TRUE;
+                }
+            }
+        }
+        if (complete) {
+            hits.increment();
+            return Boolean.FALSE;
+        }
+        misses.increment();
+        return null;
+    }
+
+    public synchronized void remove(int studentId) {
+        writeStamp++;
+        Student s = byId.remove(studentId);
+        if (s != null) unindex(s);
+    }
+
+    public synchronized void updateCourse(Collection<Integer> studentIds, String course) {
+        writeStamp++;
+        for (Integer id : studentIds) {
+            Student s = byId.get(id);
+            if (s == null) continue;
+            unindex(s);
+            s.setCourse(course);
+            index(s);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        writeStamp++;
+        clearInternal();
+    }
+
+    public synchronized boolean isComplete() {
+        return complete;
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRatio() {
+        long h = hits.sum(), total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    private void putInternal(Student student) {
+        Student copy = copyOf(student);
+        Student old = byId.put(copy.getStudentId(), copy);
+        if (old != null) unindex(old);
+        index(copy);
+    }
+
+    private void clearInternal() {
+        byId.clear();
+        byName.clear();
+        byCourse.clear();
+        complete = false;
+    }
+
+    private void index(Student s) {
+        byName.computeIfAbsent(s.getName(), k -> new HashSet<>()).add(s.getStudentId());
+        byCourse.computeIfAbsent(s.getCourse(), k -> new HashSet<>()).add(s.getStudentId());
+    }
+
+    private void unindex(Student s) {
+        removeFrom(byName, s.getName(), s.getStudentId());
+        removeFrom(byCourse, s.getCourse(), s.getStudentId());
+    }
+
+    private static void removeFrom(Map<String, Set<Integer>> index, String key, Integer id) {
+        Set<Integer> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) index.remove(key);
+    }
+
+    private static Student copyOf(Student s) {
+        return new Student(s.getStudentId(), s.getName(), s.getCourse(), s.getEnrollmentDate());
+    }
+}
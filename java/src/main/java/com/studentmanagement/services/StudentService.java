@@ -1,133 +1,300 @@
 package com.studentmanagement.services;
 
 import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.database.RowMappers;
+import com.studentmanagement.metrics.Metrics;
+import com.studentmanagement.models.CursorPage;
+import com.studentmanagement.models.Page;
 import com.studentmanagement.models.Student;
+import com.studentmanagement.validation.RecordValidator;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.lang.Runtime;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 public class StudentService {
+    private static final int DEFAULT_CACHE_SIZE = 100_000;
+    private static final double NAME_WEIGHT = 2.0;
+    private static final double COURSE_WEIGHT = 1.0;
+    private static final String STUDENTS_PAGE = "s";
+
     private final DatabaseHandler dbHandler;
+    private final StudentCache cache;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
 
     public StudentService(DatabaseHandler dbHandler) {
+        this(dbHandler, DEFAULT_CACHE_SIZE);
+    }
+
+    public StudentService(DatabaseHandler dbHandler, int cacheSize) {
         this.dbHandler = dbHandler;
+        this.cache = new StudentCache(cacheSize);
+    }
+
+    public StudentCache getCache() {
+        return cache;
+    }
+
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
     }
 
     // profiling helper
-    private void logProfile(String methodName, long startTime, long startMem) {
-        long endTime = System.nanoTime();
-        long endMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        System.out.printf("[PROFILE] StudentService.%s: time=%.3fs; memDelta=%.2fKB%n", methodName, (endTime - startTime)/1e9, (endMem - startMem)/1024.0);
+    private void logProfile(String methodName, long startTime) {
+        Metrics.record("StudentService", methodName, startTime);
     }
 
     public Student addStudent(Student student) throws SQLException {
-        long startTime = System.nanoTime();
-        long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        if (!Student.validateCourse(student.getCourse())) {
-            throw new IllegalArgumentException("Bad course format: " + student.getCourse());
-        }
+        long startTime = Metrics.start();
+        RecordValidator.requireValid(student);
         if (isDuplicateName(student.getName(), null)) {
             throw new IllegalArgumentException("Name '" + student.getName() + "' already exists.");
         }
         String sql = "INSERT INTO students (name, course) VALUES (?, ?);";
         int id = dbHandler.executeUpdate(sql, student.getName(), student.getCourse());
-        Student result = getStudentById(id);
-        logProfile("addStudent", startTime, startMem);
+        Student result = loadStudent(id);
+        if (result != null) {
+            cache.replace(result);
+            for (ChangeListener l : listeners) l.studentSaved(result.getStudentId(), result.getCourse());
+        }
+        logProfile("addStudent", startTime);
+        return result;
+    }
+
+    /**
+     * Inserts already-validated students in one transaction and returns them with their new IDs;
+     * unlike {@link #addStudent} there is no per-row duplicate check or read-back. A null
+     * enrollment date means today.
+     */
+    public List<Student> addStudentsBatch(List<Student> students) throws SQLException {
+        long startTime = Metrics.start();
+        if (students.isEmpty()) return new ArrayList<>();
+        List<Student> result = dbHandler.inTransaction(conn -> {
+            PreparedStatement insert = dbHandler.prepare(conn,
+                "INSERT INTO students (name, course, enrollment_date) VALUES (?, ?, COALESCE(?, CURRENT_DATE));");
+            for (Student s : students) {
+                insert.setString(1, s.getName());
+                insert.setString(2, s.getCourse());
+                insert.setString(3, s.getEnrollmentDate() == null ? null : s.getEnrollmentDate().toString());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            // The writer lock is held and nothing failed, so AUTOINCREMENT handed out consecutive IDs
+            long lastId;
+            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid();")) {
+                rs.next();
+                lastId = rs.getLong(1);
+            }
+            LocalDate today = LocalDate.now();
+            List<Student> inserted = new ArrayList<>(students.size());
+            int id = (int) (lastId - students.size() + 1);
+            for (Student s : students) {
+                inserted.add(new Student(id++, s.getName(), s.getCourse(),
+                    s.getEnrollmentDate() == null ? today : s.getEnrollmentDate()));
+            }
+            return inserted;
+        });
+        for (Student s : result) {
+            cache.replace(s);
+            for (ChangeListener l : listeners) l.studentSaved(s.getStudentId(), s.getCourse());
+        }
+        logProfile("addStudentsBatch", startTime);
         return result;
     }
 
     public Student getStudentById(int studentId) throws SQLException {
-        long startTime = System.nanoTime();
-        long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        String sql = "SELECT * FROM students WHERE student_id = ?;";
-        List<Map<String, Object>> rows = dbHandler.executeQuery(sql, studentId);
-        Student result = rows.isEmpty() ? null : Student.fromMap(rows.get(0));
-        logProfile("getStudentById", startTime, startMem);
+        long startTime = Metrics.start();
+        Student result = cache.get(studentId);
+        if (result == null) {
+            long stamp = cache.stamp();
+            result = loadStudent(studentId);
+            cache.put(result, stamp);
+        }
+        logProfile("getStudentById", startTime);
         return result;
     }
 
+    private Student loadStudent(int studentId) throws SQLException {
+        String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM students WHERE student_id = ?;";
+        return dbHandler.queryOne(sql, RowMappers.STUDENT, studentId);
+    }
+
     public List<Student> getAllStudents() throws SQLException {
-        long startTime = System.nanoTime();
-        long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        String sql = "SELECT * FROM students ORDER BY student_id;";
-        List<Map<String, Object>> rows = dbHandler.executeQuery(sql);
-        List<Student> result = rows.stream().map(Student::fromMap).collect(Collectors.toList());
-        logProfile("getAllStudents", startTime, startMem);
+        long startTime = Metrics.start();
+        List<Student> result = cache.all();
+        if (result == null) {
+            long stamp = cache.stamp();
+            String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM students ORDER BY student_id;";
+            result = dbHandler.query(sql, RowMappers.STUDENT);
+            cache.loadAll(result, stamp);
+        }
+        logProfile("getAllStudents", startTime);
         return result;
     }
 
+    /** Streams every student in ID order without materializing the list; close the stream when done. */
+    public Stream<Student> streamAllStudents() throws SQLException {
+        String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM students ORDER BY student_id;";
+        return dbHandler.stream(sql, RowMappers.STUDENT);
+    }
+
+    /**
+     * One page of students in ID order. Pages are addressed by keyset ({@code student_id > last}),
+     * not offset, so page N is one index seek like page 1, and rows added or deleted between calls
+     * never shift the rest of the listing. A null token starts at the beginning.
+     */
+    public CursorPage<Student> getStudentsPage(String pageToken, int limit) throws SQLException {
+        PageTokens.checkLimit(limit);
+        long startTime = Metrics.start();
+        long[] after = PageTokens.decode(pageToken, STUDENTS_PAGE, 1);
+        String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM students WHERE student_id > ? ORDER BY student_id LIMIT ?;";
+        List<Student> rows = dbHandler.query(sql, RowMappers.STUDENT, after == null ? 0 : after[0], limit + 1);
+        logProfile("getStudentsPage", startTime);
+        return PageTokens.fromOverfetch(rows, limit, STUDENTS_PAGE, s -> new long[]{s.getStudentId()});
+    }
+
     public Student updateStudent(Student student) throws SQLException {
-        long startTime = System.nanoTime();
-        long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        long startTime = Metrics.start();
         if (student.getStudentId() == null) {
             throw new IllegalArgumentException("Can't update without ID");
         }
-        if (!Student.validateCourse(student.getCourse())) {
-            throw new IllegalArgumentException("Bad course format: " + student.getCourse());
-        }
+        RecordValidator.requireValid(student);
         if (isDuplicateName(student.getName(), student.getStudentId())) {
             throw new IllegalArgumentException("Name '" + student.getName() + "' already exists.");
         }
         String sql = "UPDATE students SET name = ?, course = ? WHERE student_id = ?;";
         int affected = dbHandler.executeUpdate(sql, student.getName(), student.getCourse(), student.getStudentId());
-        Student result = affected == 0 ? null : getStudentById(student.getStudentId());
-        logProfile("updateStudent", startTime, startMem);
+        Student result = affected == 0 ? null : loadStudent(student.getStudentId());
+        if (result != null) {
+            cache.replace(result);
+            for (ChangeListener l : listeners) l.studentSaved(result.getStudentId(), result.getCourse());
+        }
+        logProfile("updateStudent", startTime);
         return result;
     }
 
     public int updateStudentsCourse(List<Integer> studentIds, String newCourse) throws SQLException {
-        long startTime = System.nanoTime();
-        long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        long startTime = Metrics.start();
         if (!Student.validateCourse(newCourse)) {
             throw new IllegalArgumentException("Bad course format: " + newCourse);
         }
         if (studentIds == null || studentIds.isEmpty()) return 0;
-        String placeholders = studentIds.stream().map(id -> "?").collect(Collectors.joining(","));
-        String sql = String.format("UPDATE students SET course = ? WHERE student_id IN (%s);", placeholders);
-        List<Object> params = new ArrayList<>();
-        params.add(newCourse);
-        params.addAll(studentIds);
-        int result = dbHandler.executeUpdate(sql, params.toArray());
-        logProfile("updateStudentsCourse", startTime, startMem);
+        int result = executeForIds("UPDATE students SET course = ? WHERE student_id IN (%s);", studentIds, newCourse);
+        cache.updateCourse(studentIds, newCourse);
+        for (ChangeListener l : listeners) {
+            for (Integer id : studentIds) l.studentSaved(id, newCourse);
+        }
+        logProfile("updateStudentsCourse", startTime);
         return result;
     }
 
     public boolean deleteStudent(int studentId) throws SQLException {
-        long startTime = System.nanoTime();
-        long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        long startTime = Metrics.start();
         String sql = "DELETE FROM students WHERE student_id = ?;";
         int affected = dbHandler.executeUpdate(sql, studentId);
+        cache.remove(studentId);
+        if (affected > 0) {
+            for (ChangeListener l : listeners) l.studentDeleted(studentId);
+        }
         boolean result = affected > 0;
-        logProfile("deleteStudent", startTime, startMem);
+        logProfile("deleteStudent", startTime);
         return result;
     }
 
     public int deleteStudents(List<Integer> studentIds) throws SQLException {
-        long startTime = System.nanoTime();
-        long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        long startTime = Metrics.start();
         if (studentIds == null || studentIds.isEmpty()) return 0;
-        String placeholders = studentIds.stream().map(id -> "?").collect(Collectors.joining(","));
-        String sql = String.format("DELETE FROM students WHERE student_id IN (%s);", placeholders);
-        int result = dbHandler.executeUpdate(sql, studentIds.toArray());
-        logProfile("deleteStudents", startTime, startMem);
+        int result = executeForIds("DELETE FROM students WHERE student_id IN (%s);", studentIds);
+        for (Integer id : studentIds) {
+            cache.remove(id);
+            for (ChangeListener l : listeners) l.studentDeleted(id);
+        }
+        logProfile("deleteStudents", startTime);
         return result;
     }
 
+    // Runs an "IN (%s)" statement over the ids in bucketed chunks so the SQL text stays cacheable
+    private int executeForIds(String sqlTemplate, List<Integer> studentIds, Object... leadingParams) throws SQLException {
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(studentIds));
+        int affected = 0;
+        for (int from = 0; from < distinct.size(); from += DatabaseHandler.MAX_IN_LIST) {
+            List<Integer> chunk = distinct.subList(from, Math.min(from + DatabaseHandler.MAX_IN_LIST, distinct.size()));
+            int bucket = DatabaseHandler.inListBucket(chunk.size());
+            List<Object> params = new ArrayList<>(Arrays.asList(leadingParams));
+            DatabaseHandler.addInListParams(params, chunk, bucket);
+            String sql = String.format(sqlTemplate, DatabaseHandler.inListPlaceholders(bucket));
+            affected += dbHandler.executeUpdate(sql, params.toArray());
+        }
+        return affected;
+    }
+
     public List<Student> searchStudents(String searchTerm) throws SQLException {
-        long startTime = System.nanoTime();
-        long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        String sql = "SELECT * FROM students WHERE name LIKE ? OR course LIKE ? ORDER BY name;";
-        String pattern = "%" + searchTerm + "%";
-        List<Map<String, Object>> rows = dbHandler.executeQuery(sql, pattern, pattern);
-        List<Student> result = rows.stream().map(Student::fromMap).collect(Collectors.toList());
-        logProfile("searchStudents", startTime, startMem);
+        long startTime = Metrics.start();
+        List<Student> result;
+        if (useFullText(searchTerm)) {
+            String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM students WHERE student_id IN " +
+                "(SELECT rowid FROM students_fts WHERE students_fts MATCH ?) ORDER BY name;";
+            result = dbHandler.query(sql, RowMappers.STUDENT, ftsPhrase(null, searchTerm));
+        } else {
+            String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM students WHERE name LIKE ? OR course LIKE ? ORDER BY name;";
+            String pattern = "%" + searchTerm + "%";
+            result = dbHandler.query(sql, RowMappers.STUDENT, pattern, pattern);
+        }
+        logProfile("searchStudents", startTime);
         return result;
     }
 
+    /**
+     * Ranked, paginated substring search over name and course. Name matches outrank course
+     * matches (bm25 column weights), ties keep insertion order. Terms too short for the index and a
+     * blank term fall back to pages ordered by name.
+     */
+    public Page<Student> searchStudents(String searchTerm, int offset, int limit) throws SQLException {
+        if (offset < 0 || limit < 1) throw new IllegalArgumentException("Invalid page: offset=" + offset + ", limit=" + limit);
+        long startTime = Metrics.start();
+        String term = searchTerm == null ? "" : searchTerm.trim();
+        List<Student> rows;
+        if (term.isEmpty()) {
+            String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM students ORDER BY name LIMIT ? OFFSET ?;";
+            rows = dbHandler.query(sql, RowMappers.STUDENT, limit + 1, offset);
+        } else if (useFullText(term)) {
+            // Rank and cut the page inside the FTS index, then join only the page's rows
+            String sql = "SELECT s.student_id, s.name, s.course, s.enrollment_date FROM " +
+                "(SELECT rowid AS id, bm25(students_fts, " + NAME_WEIGHT + ", " + COURSE_WEIGHT + ") AS score " +
+                "FROM students_fts WHERE students_fts MATCH ? ORDER BY score, rowid LIMIT ? OFFSET ?) m " +
+                "JOIN students s ON s.student_id = m.id ORDER BY m.score, m.id;";
+            rows = dbHandler.query(sql, RowMappers.STUDENT, ftsPhrase(null, term), limit + 1, offset);
+        } else {
+            String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM students WHERE name LIKE ? OR course LIKE ? " +
+                "ORDER BY name LIMIT ? OFFSET ?;";
+            String pattern = "%" + term + "%";
+            rows = dbHandler.query(sql, RowMappers.STUDENT, pattern, pattern, limit + 1, offset);
+        }
+        logProfile("searchStudentsPaged", startTime);
+        return Page.fromOverfetch(rows, offset, limit);
+    }
+
+    // The trigram tokenizer cannot match terms shorter than three characters
+    private boolean useFullText(String term) {
+        return dbHandler.hasFullTextSearch() && term.codePointCount(0, term.length()) >= 3;
+    }
+
+    // Quotes the term as a single FTS5 phrase so operators and punctuation in user input match literally
+    private static String ftsPhrase(String column, String term) {
+        String phrase = "\"" + term.replace("\"", "\"\"") + "\"";
+        return column == null ? phrase : column + " : " + phrase;
+    }
+
     public List<Student> advancedSearch(Map<String, Object> criteria) throws SQLException {
-        long startTime = System.nanoTime();
-        long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        long startTime = Metrics.start();
         List<String> conditions = new ArrayList<>();
         List<Object> params = new ArrayList<>();
 
@@ -135,13 +302,16 @@ public class StudentService {
             conditions.add("student_id = ?");
             params.add(criteria.get("student_id"));
         }
-        if (criteria.containsKey("name")) {
-            conditions.add("name LIKE ?");
-            params.add("%" + criteria.get("name") + "%");
-        }
-        if (criteria.containsKey("course")) {
-            conditions.add("course LIKE ?");
-            params.add("%" + criteria.get("course") + "%");
+        for (String column : new String[]{"name", "course"}) {
+            if (!criteria.containsKey(column)) continue;
+            String term = String.valueOf(criteria.get(column));
+            if (useFullText(term)) {
+                conditions.add("student_id IN (SELECT rowid FROM students_fts WHERE students_fts MATCH ?)");
+                params.add(ftsPhrase(column, term));
+            } else {
+                conditions.add(column + " LIKE ?");
+                params.add("%" + term + "%");
+            }
         }
         if (criteria.containsKey("enrollment_date_from")) {
             conditions.add("enrollment_date >= ?");
@@ -155,28 +325,49 @@ public class StudentService {
             return getAllStudents();
         }
         String whereClause = String.join(" AND ", conditions);
-        String sql = String.format("SELECT * FROM students WHERE %s ORDER BY name;", whereClause);
-        List<Map<String, Object>> rows = dbHandler.executeQuery(sql, params.toArray());
-        List<Student> result = rows.stream().map(Student::fromMap).collect(Collectors.toList());
-        logProfile("advancedSearch", startTime, startMem);
+        String sql = String.format("SELECT %s FROM students WHERE %s ORDER BY name;", RowMappers.STUDENT_COLUMNS, whereClause);
+        List<Student> result = dbHandler.query(sql, RowMappers.STUDENT, params.toArray());
+        logProfile("advancedSearch", startTime);
+        return result;
+    }
+
+    /** Students whose course is exactly {@code course}, ordered by name. */
+    public List<Student> getStudentsByCourse(String course) throws SQLException {
+        long startTime = Metrics.start();
+        List<Student> result = cache.byCourse(course);
+        if (result == null) {
+            String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM students WHERE course = ? ORDER BY name;";
+            result = dbHandler.query(sql, RowMappers.STUDENT, course);
+        }
+        logProfile("getStudentsByCourse", startTime);
+        return result;
+    }
+
+    /** Distinct course names, sorted. */
+    public List<String> getAllCourses() throws SQLException {
+        long startTime = Metrics.start();
+        List<String> result = dbHandler.query("SELECT DISTINCT course FROM students ORDER BY course;", rs -> rs.getString(1));
+        logProfile("getAllCourses", startTime);
         return result;
     }
 
     public boolean isDuplicateName(String name, Integer excludeId) throws SQLException {
-        long startTime = System.nanoTime();
-        long startMem = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        String sql;
-        List<Map<String, Object>> result;
+        long startTime = Metrics.start();
+        Boolean cached = cache.isNameTaken(name, excludeId);
+        if (cached != null) {
+            logProfile("isDuplicateName", startTime);
+            return cached;
+        }
+        Integer found;
         if (excludeId != null) {
-            sql = "SELECT COUNT(*) as count FROM students WHERE name = ? AND student_id != ?;";
-            result = dbHandler.executeQuery(sql, name, excludeId);
+            String sql = "SELECT 1 FROM students WHERE name = ? AND student_id != ? LIMIT 1;";
+            found = dbHandler.queryOne(sql, rs -> rs.getInt(1), name, excludeId);
         } else {
-            sql = "SELECT COUNT(*) as count FROM students WHERE name = ?;";
-            result = dbHandler.executeQuery(sql, name);
+            String sql = "SELECT 1 FROM students WHERE name = ? LIMIT 1;";
+            found = dbHandler.queryOne(sql, rs -> rs.getInt(1), name);
         }
-        int count = ((Number) result.get(0).get("count")).intValue();
-        boolean dup = count > 0;
-        logProfile("isDuplicateName", startTime, startMem);
+        boolean dup = found != null;
+        logProfile("isDuplicateName", startTime);
         return dup;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.studentmanagement.services;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.opencsv.CSVWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Writes a report as a header plus rows, one row at a time, so exports never hold the whole
+ * report in memory. Call {@link #finish} with any summary values known only after the last row.
+ */
+public abstract class TableExporter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    protected final String[] headers;
+    protected final String[] keys;
+
+    protected TableExporter(String[] headers, String[] keys) {
+        this.headers = headers;
+        this.keys = keys;
+    }
+
+    /**
+     * @param meta    scalar report fields written before the rows (JSON fields, PDF paragraphs)
+     * @param rowsKey JSON field name for the array of row objects
+     * @param headers column labels for CSV and PDF
+     * @param keys    per-column JSON field names
+     */
+    public static TableExporter open(ExportFormat format, String path, String title, Map<String, Object> meta,
+                                     String rowsKey, String[] headers, String[] keys) throws IOException {
+        OutputStream out = new FileOutputStream(path);
+        try {
+            return open(format, out, title, meta, rowsKey, headers, keys);
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /** As {@link #open(ExportFormat, String, String, Map, String, String[], String[])}; closing the exporter closes {@code out}. */
+    public static TableExporter open(ExportFormat format, OutputStream out, String title, Map<String, Object> meta,
+                                     String rowsKey, String[] headers, String[] keys) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(out, headers, keys);
+            case JSON -> new Json(out, meta, rowsKey, headers, keys);
+            case PDF -> new Pdf(out, title, meta, headers, keys);
+        };
+    }
+
+    public abstract void writeRow(Object[] values) throws IOException;
+
+    public abstract void finish(Map<String, Object> summary) throws IOException;
+
+    private static class Csv extends TableExporter {
+        private final CSVWriter writer;
+        private final String[] line;
+
+        Csv(OutputStream out, String[] headers, String[] keys) {
+            super(headers, keys);
+            this.writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+            this.line = new String[headers.length];
+            writer.writeNext(headers);
+        }
+
+        @Override
+        public void writeRow(Object[] values) {
+            for (int i = 0; i < line.length; i++) line[i] = String.valueOf(values[i]);
+            writer.writeNext(line);
+        }
+
+        @Override
+        public void finish(Map<String, Object> summary) {
+            // The CSV layout has no summary section
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static class Json extends TableExporter {
+        private static final JsonFactory FACTORY = new ObjectMapper().getFactory();
+        private final JsonGenerator gen;
+
+        Json(OutputStream out, Map<String, Object> meta, String rowsKey, String[] headers, String[] keys) throws IOException {
+            super(headers, keys);
+            this.gen = FACTORY.createGenerator(new BufferedOutputStream(out, BUFFER_SIZE), JsonEncoding.UTF8);
+            gen.useDefaultPrettyPrinter();
+            gen.writeStartObject();
+            for (Map.Entry<String, Object> e : meta.entrySet()) gen.writeObjectField(e.getKey(), e.getValue());
+            gen.writeArrayFieldStart(rowsKey);
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            gen.writeStartObject();
+            for (int i = 0; i < keys.length; i++) gen.writeObjectField(keys[i], values[i]);
+            gen.writeEndObject();
+        }
+
+        @Override
+        public void finish(Map<String, Object> summary) throws IOException {
+            gen.writeEndArray();
+            for (Map.Entry<String, Object> e : summary.entrySet()) gen.writeObjectField(e.getKey(), e.getValue());
+            gen.writeEndObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            gen.close();
+        }
+    }
+
+    private static class Pdf extends TableExporter {
+        // Completed rows are handed to iText every FLUSH_ROWS rows so it can lay out and release pages
+        private static final int FLUSH_ROWS = 500;
+        private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 9);
+        private static final Font CELL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 9);
+
+        private final Document document;
+        private final PdfPTable table;
+        private int pendingRows;
+
+        Pdf(OutputStream out, String title, Map<String, Object> meta, String[] headers, String[] keys) throws IOException {
+            super(headers, keys);
+            this.document = new Document(PageSize.LETTER);
+            try {
+                PdfWriter.getInstance(document, new BufferedOutputStream(out, BUFFER_SIZE));
+                document.open();
+                document.add(new Paragraph(title, FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14)));
+                for (Map.Entry<String, Object> e : meta.entrySet()) {
+                    document.add(new Paragraph(e.getKey() + ": " + e.getValue()));
+                }
+                document.add(Chunk.NEWLINE);
+            } catch (DocumentException e) {
+                throw new IOException("Failed to start PDF: " + e.getMessage(), e);
+            }
+            this.table = new PdfPTable(headers.length);
+            table.setWidthPercentage(100);
+            table.setHeaderRows(1);
+            table.setComplete(false);
+            for (String h : headers) table.addCell(new Phrase(h, HEADER_FONT));
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < headers.length; i++) table.addCell(new Phrase(String.valueOf(values[i]), CELL_FONT));
+            if (++pendingRows >= FLUSH_ROWS) {
+                add(table);
+                pendingRows = 0;
+            }
+        }
+
+        @Override
+        public void finish(Map<String, Object> summary) throws IOException {
+            table.setComplete(true);
+            add(table);
+            if (!summary.isEmpty()) add(Chunk.NEWLINE);
+            for (Map.Entry<String, Object> e : summary.entrySet()) add(new Paragraph(e.getKey() + ": " + e.getValue()));
+        }
+
+        private void add(Element element) throws IOException {
+            try {
+                document.add(element);
+            } catch (DocumentException e) {
+                throw new IOException("Failed to write PDF: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!table.isComplete()) {
+                table.setComplete(true);
+                try {
+                    document.add(table);
+                } catch (DocumentException e) {
+                    // Closing after a failed export; keep whatever was already written
+                }
+            }
+            document.close();
+        }
+    }
+}
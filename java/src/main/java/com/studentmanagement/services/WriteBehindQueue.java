@@ -0,0 +1,271 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.database.EpochDays;
+import com.studentmanagement.metrics.Metrics;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceBatchResult;
+import com.studentmanagement.validation.RecordValidator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bounded queue of attendance upserts drained by one writer thread. Whatever has queued up while
+ * the previous group was committing becomes the next group: upserts for the same student and
+ * date are coalesced (last write wins, as with the upsert itself) and the rest are written with
+ * {@link AttendanceService#recordAttendanceBatch} in a single transaction. Submitting blocks
+ * while the queue is full, so callers slow to the database's pace instead of growing the heap.
+ */
+final class WriteBehindQueue {
+    private static final String LOOKUP_SQL = "SELECT attendance_id FROM attendance WHERE student_id = ? AND date = ?;";
+    // How often a caller blocked on a full queue checks that the writer is still there to empty it
+    private static final long LIVENESS_CHECK_MILLIS = 100;
+
+    private static final class Entry {
+        final Attendance attendance;
+        final long day;
+        final CompletableFuture<Attendance> future = new CompletableFuture<>();
+
+        Entry(Attendance attendance, long day) {
+            this.attendance = attendance;
+            this.day = day;
+        }
+
+        long key() {
+            return (long) attendance.getStudentId() << 32 | (day & 0xffffffffL);
+        }
+    }
+
+    // Coalesced writes for one key: the last record wins, every caller gets its outcome
+    private static final class Pending {
+        Attendance latest;
+        final List<CompletableFuture<Attendance>> futures = new ArrayList<>(1);
+    }
+
+    private final AttendanceService service;
+    private final DatabaseHandler dbHandler;
+    private final WriteDurability durability;
+    private final int maxGroup;
+    private final BlockingQueue<Entry> queue;
+    private final Entry stop = new Entry(null, 0);
+    // Held shared by submitters and exclusively by close, so nothing is queued behind the stop marker
+    private final ReadWriteLock submitLock = new ReentrantReadWriteLock();
+    private final Thread writer;
+    private boolean closed;
+
+    WriteBehindQueue(AttendanceService service, DatabaseHandler dbHandler, WriteDurability durability,
+                     int capacity, int maxGroup) {
+        if (capacity < 1 || maxGroup < 1) throw new IllegalArgumentException("Capacity and group size must be at least 1");
+        this.service = service;
+        this.dbHandler = dbHandler;
+        this.durability = durability;
+        this.maxGroup = maxGroup;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::drain, "attendance-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    WriteDurability getDurability() {
+        return durability;
+    }
+
+    CompletableFuture<Attendance> submit(Attendance attendance) {
+        try {
+            RecordValidator.requireValid(attendance);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        Entry entry = new Entry(attendance, EpochDays.fromIso(attendance.getDate()));
+        if (!enqueue(entry)) return entry.future;
+        if (durability == WriteDurability.ACCEPTED) entry.future.complete(attendance);
+        return entry.future;
+    }
+
+    /** Completes once everything submitted before it has been written. */
+    CompletableFuture<Void> flush() {
+        Entry marker = new Entry(null, 0);
+        enqueue(marker);
+        return marker.future.thenApply(a -> null);
+    }
+
+    private boolean enqueue(Entry entry) {
+        submitLock.readLock().lock();
+        try {
+            if (closed) {
+                entry.future.completeExceptionally(new IllegalStateException("Write-behind queue is closed"));
+                return false;
+            }
+            while (!queue.offer(entry, LIVENESS_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!writer.isAlive()) {
+                    entry.future.completeExceptionally(writerStopped());
+                    return false;
+                }
+            }
+            // The writer may have died after its last look at the queue
+            if (!writer.isAlive()) failQueued();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entry.future.completeExceptionally(e);
+            return false;
+        } finally {
+            submitLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stops accepting writes and blocks until everything already queued is committed; should the
+     * writer thread have died, whatever it left queued fails instead of waiting forever.
+     */
+    void close() {
+        submitLock.writeLock().lock();
+        try {
+            if (closed) return;
+            closed = true;
+        } finally {
+            submitLock.writeLock().unlock();
+        }
+        boolean interrupted = false;
+        boolean stopQueued = false;
+        // A dead writer can't take the stop marker from a full queue, so don't wait on it forever
+        while (writer.isAlive()) {
+            try {
+                if (!stopQueued) stopQueued = queue.offer(stop, LIVENESS_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+                else writer.join();
+            } catch (InterruptedException e) {
+                // Queued writes are only safe once the writer is done, so keep waiting
+                interrupted = true;
+            }
+        }
+        failQueued();
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void drain() {
+        List<Entry> group = new ArrayList<>(maxGroup);
+        boolean stopping = false;
+        try {
+            while (!stopping) {
+                try {
+                    group.add(queue.take());
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                queue.drainTo(group, maxGroup - 1);
+                stopping = group.remove(stop);
+                try {
+                    write(group);
+                } catch (Throwable t) {
+                    // Whatever escaped, every caller in the group still gets an outcome
+                    for (Entry e : group) e.future.completeExceptionally(t);
+                }
+                group.clear();
+            }
+        } catch (Throwable t) {
+            System.err.println("Write-behind writer stopped: " + t);
+            for (Entry e : group) e.future.completeExceptionally(t);
+            failQueued();
+        }
+    }
+
+    // Fails whatever is still queued once no writer will take it
+    private void failQueued() {
+        List<Entry> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (Entry e : left) e.future.completeExceptionally(writerStopped());
+    }
+
+    private static IllegalStateException writerStopped() {
+        return new IllegalStateException("Write-behind writer has stopped");
+    }
+
+    private void write(List<Entry> group) {
+        long startTime = Metrics.start();
+        Map<Long, Pending> byKey = new LinkedHashMap<>();
+        List<CompletableFuture<Attendance>> markers = new ArrayList<>();
+        for (Entry e : group) {
+            if (e.attendance == null) {
+                markers.add(e.future);
+                continue;
+            }
+            Pending p = byKey.computeIfAbsent(e.key(), k -> new Pending());
+            p.latest = e.attendance;
+            p.futures.add(e.future);
+        }
+        if (!byKey.isEmpty()) {
+            try {
+                commit(byKey);
+            } catch (Throwable ex) {
+                for (Pending p : byKey.values()) fail(p, ex);
+            }
+            Metrics.record("AttendanceService", "writeBehindGroup", startTime);
+        }
+        for (CompletableFuture<Attendance> m : markers) m.complete(null);
+    }
+
+    private void commit(Map<Long, Pending> byKey) throws SQLException {
+        List<Attendance> records = new ArrayList<>(byKey.size());
+        for (Pending p : byKey.values()) records.add(p.latest);
+        String profileSync = dbHandler.getProfile().getSynchronous();
+        boolean forceSync = durability == WriteDurability.SYNCED && !profileSync.equals("FULL");
+        // The writer lock is held throughout, so the synchronous override covers only this commit
+        dbHandler.withWriter(conn -> {
+            if (forceSync) setSynchronous(conn, "FULL");
+            try {
+                AttendanceBatchResult result = service.recordAttendanceBatch(records);
+                Map<Attendance, String> failed = new IdentityHashMap<>();
+                for (AttendanceBatchResult.Failure f : result.getFailures()) failed.put(f.getAttendance(), f.getReason());
+                PreparedStatement lookup = durability == WriteDurability.ACCEPTED ? null : dbHandler.prepare(conn, LOOKUP_SQL);
+                for (Pending p : byKey.values()) {
+                    String reason = failed.get(p.latest);
+                    if (reason != null) {
+                        fail(p, new SQLException(reason));
+                    } else if (lookup != null) {
+                        complete(p, lookup);
+                    }
+                }
+                return null;
+            } finally {
+                if (forceSync) setSynchronous(conn, profileSync);
+            }
+        });
+    }
+
+    private static void complete(Pending p, PreparedStatement lookup) throws SQLException {
+        Attendance a = p.latest;
+        lookup.setInt(1, a.getStudentId());
+        lookup.setLong(2, EpochDays.fromIso(a.getDate()));
+        Integer id = null;
+        try (ResultSet rs = lookup.executeQuery()) {
+            if (rs.next()) id = rs.getInt(1);
+        }
+        Attendance stored = new Attendance(id, a.getStudentId(), a.getDate(), a.getStatus());
+        for (CompletableFuture<Attendance> f : p.futures) f.complete(stored);
+    }
+
+    private void fail(Pending p, Throwable e) {
+        if (durability == WriteDurability.ACCEPTED) {
+            System.err.println("Write-behind attendance for student " + p.latest.getStudentId() + " on "
+                + p.latest.getDate() + " failed: " + e.getMessage());
+        }
+        for (CompletableFuture<Attendance> f : p.futures) f.completeExceptionally(e);
+    }
+
+    private static void setSynchronous(Connection conn, String mode) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA synchronous = " + mode + ";");
+        }
+    }
+}
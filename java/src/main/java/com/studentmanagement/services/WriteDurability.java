@@ -0,0 +1,22 @@
+package com.studentmanagement.services;
+
+/**
+ * When a write-behind attendance write counts as done, i.e. when the future returned by
+ * {@link AttendanceService#recordAttendanceAsync} completes. Every mode flushes the queue on
+ * {@link AttendanceService#disableWriteBehind}; they differ in what a crash can lose.
+ */
+public enum WriteDurability {
+    /** Done once queued. Fastest, but a crash loses whatever is still queued and write errors are only logged. */
+    ACCEPTED,
+    /** Done once the group transaction commits; a power cut can still lose it if the connection profile skips fsyncs. */
+    COMMITTED,
+    /** Done once the group transaction commits with an fsync, whatever the connection profile. */
+    SYNCED;
+
+    public static WriteDurability fromValue(String name) {
+        for (WriteDurability d : values()) {
+            if (d.name().equalsIgnoreCase(name.trim())) return d;
+        }
+        throw new IllegalArgumentException("Unknown write durability: " + name);
+    }
+}
@@ -0,0 +1,102 @@
+package com.studentmanagement.validation;
+
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validates students and attendance records, one at a time or as whole batches. Batches never stop
+ * at the first bad row: every field error of every row is collected with its row index, and the
+ * good rows are handed back ready to write. A valid row costs a few character comparisons per field
+ * and allocates nothing.
+ */
+public final class RecordValidator {
+    private RecordValidator() {
+    }
+
+    public static ValidationResult<Student> validateStudents(List<Student> students) {
+        ValidationResult<Student> result = new ValidationResult<>();
+        for (int i = 0; i < students.size(); i++) {
+            Student s = students.get(i);
+            if (checkStudent(s, i, result.errorSink())) result.addValid(s);
+            else result.countInvalid();
+        }
+        return result;
+    }
+
+    public static ValidationResult<Attendance> validateAttendance(List<Attendance> records) {
+        ValidationResult<Attendance> result = new ValidationResult<>();
+        for (int i = 0; i < records.size(); i++) {
+            Attendance a = records.get(i);
+            if (checkAttendance(a, i, result.errorSink())) result.addValid(a);
+            else result.countInvalid();
+        }
+        return result;
+    }
+
+    /** Appends the student's field errors, tagged with {@code index}; true when there were none. */
+    public static boolean checkStudent(Student s, int index, List<ValidationError> errors) {
+        boolean ok = true;
+        if (!Validators.isValidName(s.getName())) {
+            errors.add(new ValidationError(index, "name", s.getName(), nameProblem(s.getName())));
+            ok = false;
+        }
+        if (!Validators.isValidCourse(s.getCourse())) {
+            errors.add(new ValidationError(index, "course", s.getCourse(), "Bad course format: " + s.getCourse()));
+            ok = false;
+        }
+        return ok;
+    }
+
+    /** Appends the record's field errors, tagged with {@code index}; true when there were none. */
+    public static boolean checkAttendance(Attendance a, int index, List<ValidationError> errors) {
+        boolean ok = true;
+        if (a.getStudentId() == null || a.getStudentId() < 1) {
+            errors.add(new ValidationError(index, "student_id", a.getStudentId(),
+                a.getStudentId() == null ? "Missing student ID" : "Invalid student ID: " + a.getStudentId()));
+            ok = false;
+        }
+        if (!Validators.isValidIsoDate(a.getDate())) {
+            errors.add(new ValidationError(index, "date", a.getDate(),
+                a.getDate() == null ? "Missing date" : "Invalid date (expected YYYY-MM-DD): " + a.getDate()));
+            ok = false;
+        }
+        if (a.getStatus() == null) {
+            errors.add(new ValidationError(index, "status", null, "Missing status"));
+            ok = false;
+        }
+        return ok;
+    }
+
+    /** Throws IllegalArgumentException with the student's field errors, as the services report bad input. */
+    public static void requireValid(Student s) {
+        List<ValidationError> errors = new ArrayList<>(2);
+        if (!checkStudent(s, 0, errors)) throw new IllegalArgumentException(describe(errors));
+    }
+
+    public static void requireValid(Attendance a) {
+        List<ValidationError> errors = new ArrayList<>(3);
+        if (!checkAttendance(a, 0, errors)) throw new IllegalArgumentException(describe(errors));
+    }
+
+    /** The messages of one row's errors, joined for a single-line reason. */
+    public static String describe(List<ValidationError> rowErrors) {
+        if (rowErrors.size() == 1) return rowErrors.get(0).getMessage();
+        StringBuilder sb = new StringBuilder();
+        for (ValidationError e : rowErrors) {
+            if (sb.length() > 0) sb.append("; ");
+            sb.append(e.getMessage());
+        }
+        return sb.toString();
+    }
+
+    private static String nameProblem(String name) {
+        if (name == null || name.isBlank()) return "Missing name";
+        if (name.length() > Validators.MAX_NAME_LENGTH) {
+            return "Name is longer than " + Validators.MAX_NAME_LENGTH + " characters";
+        }
+        return "Name contains control characters";
+    }
+}
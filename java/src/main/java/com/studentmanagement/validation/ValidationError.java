@@ -0,0 +1,39 @@
+package com.studentmanagement.validation;
+
+/** One problem with one field of one row in a validated batch. */
+public class ValidationError {
+    private final int index;
+    private final String field;
+    private final Object value;
+    private final String message;
+
+    public ValidationError(int index, String field, Object value, String message) {
+        this.index = index;
+        this.field = field;
+        this.value = value;
+        this.message = message;
+    }
+
+    /** Position of the row in the batch, from 0. */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    /** The rejected value as given, possibly null. */
+    public Object getValue() {
+        return value;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + index + " " + field + ": " + message;
+    }
+}
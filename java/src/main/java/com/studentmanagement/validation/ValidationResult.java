@@ -0,0 +1,53 @@
+package com.studentmanagement.validation;
+
+import java.util.*;
+
+/**
+ * Outcome of validating a batch: the rows that passed, in input order, and every field error of
+ * the rows that did not. A row with several bad fields reports each of them.
+ */
+public class ValidationResult<T> {
+    private final List<T> valid = new ArrayList<>();
+    private final List<ValidationError> errors = new ArrayList<>();
+    private int invalidCount;
+
+    void addValid(T row) {
+        valid.add(row);
+    }
+
+    List<ValidationError> errorSink() {
+        return errors;
+    }
+
+    void countInvalid() {
+        invalidCount++;
+    }
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    public List<T> getValid() {
+        return Collections.unmodifiableList(valid);
+    }
+
+    public List<ValidationError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public int getInvalidCount() {
+        return invalidCount;
+    }
+
+    /** Errors grouped by row index, rows in input order. */
+    public Map<Integer, List<ValidationError>> getErrorsByRow() {
+        Map<Integer, List<ValidationError>> byRow = new LinkedHashMap<>();
+        for (ValidationError e : errors) byRow.computeIfAbsent(e.getIndex(), i -> new ArrayList<>()).add(e);
+        return byRow;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ValidationResult(valid=%d, invalid=%d, errors=%d)", valid.size(), invalidCount, errors.size());
+    }
+}
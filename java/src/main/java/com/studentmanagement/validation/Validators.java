@@ -0,0 +1,78 @@
+package com.studentmanagement.validation;
+
+import java.time.LocalDate;
+
+/**
+ * Field checks for student and attendance input, written as hand-rolled scanners: no Pattern or
+ * Matcher, no exceptions and no allocation on either the accepting or the rejecting path, so they
+ * are cheap enough to run on every row of a bulk import.
+ */
+public final class Validators {
+    public static final int MAX_NAME_LENGTH = 100;
+
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private Validators() {
+    }
+
+    /** Two ASCII letters followed by one to three ASCII digits, e.g. CS101. */
+    public static boolean isValidCourse(CharSequence s) {
+        if (s == null) return false;
+        int n = s.length();
+        if (n < 3 || n > 5 || !isAsciiLetter(s.charAt(0)) || !isAsciiLetter(s.charAt(1))) return false;
+        for (int i = 2; i < n; i++) {
+            if (!isAsciiDigit(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /** Not blank, at most {@link #MAX_NAME_LENGTH} characters, and free of control characters such as line breaks. */
+    public static boolean isValidName(CharSequence s) {
+        if (s == null) return false;
+        int n = s.length();
+        if (n == 0 || n > MAX_NAME_LENGTH) return false;
+        boolean blank = true;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (Character.isISOControl(c)) return false;
+            if (blank && !Character.isWhitespace(c)) blank = false;
+        }
+        return !blank;
+    }
+
+    /** A real calendar date in strict yyyy-MM-dd form. */
+    public static boolean isValidIsoDate(CharSequence s) {
+        if (s == null || s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-') return false;
+        int year = digits(s, 0, 4), month = digits(s, 5, 7), day = digits(s, 8, 10);
+        return year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month);
+    }
+
+    /** The date in strict yyyy-MM-dd form, or null when {@link #isValidIsoDate} would reject it. */
+    public static LocalDate parseIsoDate(CharSequence s) {
+        if (!isValidIsoDate(s)) return null;
+        return LocalDate.of(digits(s, 0, 4), digits(s, 5, 7), digits(s, 8, 10));
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int digits(CharSequence s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!isAsciiDigit(c)) return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2 && (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))) return 29;
+        return DAYS_IN_MONTH[month - 1];
+    }
+}
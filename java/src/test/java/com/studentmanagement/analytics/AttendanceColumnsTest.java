@@ -0,0 +1,140 @@
+package com.studentmanagement.analytics;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.Student;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.StudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttendanceColumnsTest {
+    private static final LocalDate START = LocalDate.of(2024, 4, 1);
+    private static final LocalDate FROM = START.minusDays(30);
+    private static final LocalDate TO = START.plusDays(30);
+
+    @TempDir
+    Path dir;
+
+    private DatabaseHandler db;
+    private StudentService students;
+    private AttendanceService attendance;
+    private final List<Integer> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("test.db"), 3);
+        students = new StudentService(db);
+        attendance = new AttendanceService(db);
+        for (int i = 0; i < 10; i++) {
+            ids.add(students.addStudent(new Student("Student " + i, i % 2 == 0 ? "CS101" : "MA201")).getStudentId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void followsWritesMadeThroughTheServices() throws Exception {
+        attendance.recordAttendance(new Attendance(ids.get(0), START.toString(), AttendanceStatus.PRESENT));
+        AttendanceColumns columns = AttendanceColumns.attach(db, students, attendance);
+
+        attendance.recordAttendance(new Attendance(ids.get(0), START.toString(), AttendanceStatus.ABSENT));
+        attendance.recordAttendance(new Attendance(ids.get(1), START.minusDays(3).toString(), AttendanceStatus.PRESENT));
+        Attendance gone = attendance.recordAttendance(new Attendance(ids.get(2), START.plusDays(2).toString(), AttendanceStatus.PRESENT));
+        attendance.deleteAttendance(gone.getAttendanceId());
+        students.updateStudentsCourse(List.of(ids.get(1)), "CS101");
+        int late = students.addStudent(new Student("Late Joiner", "PH10")).getStudentId();
+        attendance.recordAttendance(new Attendance(late, START.toString(), AttendanceStatus.PRESENT));
+
+        assertMatchesDatabase(columns);
+        assertEquals(Set.of("CS101", "PH10"), columns.totalsByCourse(FROM, TO).keySet());
+
+        students.deleteStudent(late);
+        assertMatchesDatabase(columns);
+    }
+
+    @Test
+    void writesBypassingTheServicesAreSeenOnlyAfterReload() throws Exception {
+        AttendanceColumns columns = AttendanceColumns.attach(db, students, attendance);
+        db.executeUpdate("INSERT INTO attendance (student_id, date, status) VALUES (?, ?, 1);", ids.get(3), START.toEpochDay());
+
+        assertEquals(0, columns.getRecordCount());
+        columns.reload();
+        assertMatchesDatabase(columns);
+    }
+
+    @Test
+    void writesDuringReloadAreReplayedOnTheNewSnapshot() throws Exception {
+        Random seed = new Random(3);
+        for (int i = 0; i < 300; i++) record(seed);
+        AttendanceColumns columns = AttendanceColumns.attach(db, students, attendance);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            Random random = new Random(5);
+            try {
+                for (int i = 0; i < 400; i++) {
+                    if (i % 40 == 0) students.updateStudentsCourse(List.of(ids.get(random.nextInt(ids.size()))), "PH10");
+                    else record(random);
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) columns.reload();
+        writer.join();
+
+        assertNull(failure.get());
+        assertMatchesDatabase(columns);
+    }
+
+    private void record(Random random) throws SQLException {
+        attendance.recordAttendance(new Attendance(ids.get(random.nextInt(ids.size())),
+            START.plusDays(random.nextInt(20) - 10).toString(),
+            random.nextBoolean() ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT));
+    }
+
+    private void assertMatchesDatabase(AttendanceColumns columns) throws SQLException {
+        assertEquals((long) db.queryOne("SELECT COUNT(*) FROM attendance;", rs -> rs.getLong(1)), columns.getRecordCount());
+
+        Map<LocalDate, List<Long>> byDay = new TreeMap<>();
+        db.query("SELECT date, SUM(status), COUNT(*) FROM attendance GROUP BY date;",
+            rs -> byDay.put(LocalDate.ofEpochDay(rs.getLong(1)), List.of(rs.getLong(2), rs.getLong(3))));
+        assertEquals(byDay, counts(columns.totalsByDay(FROM, TO)));
+
+        Map<String, List<Long>> byCourse = new TreeMap<>();
+        db.query("SELECT s.course, SUM(a.status), COUNT(*) FROM attendance a JOIN students s " +
+                "ON s.student_id = a.student_id GROUP BY s.course;",
+            rs -> byCourse.put(rs.getString(1), List.of(rs.getLong(2), rs.getLong(3))));
+        assertEquals(byCourse, counts(columns.totalsByCourse(FROM, TO)));
+
+        StudentRates rates = columns.ratesByStudent(FROM, TO);
+        db.query("SELECT student_id, SUM(status), COUNT(*) FROM attendance GROUP BY student_id;", rs -> {
+            int i = rates.indexOf(rs.getInt(1));
+            assertTrue(i >= 0);
+            assertEquals(rs.getInt(2), rates.getPresentDays(i));
+            assertEquals(rs.getInt(3), rates.getRecordedDays(i));
+            return null;
+        });
+    }
+
+    private static <K> Map<K, List<Long>> counts(Map<K, AttendanceTotals> totals) {
+        Map<K, List<Long>> result = new TreeMap<>();
+        totals.forEach((k, t) -> result.put(k, List.of(t.getPresent(), t.getTotal())));
+        return result;
+    }
+}
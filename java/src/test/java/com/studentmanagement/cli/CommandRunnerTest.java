@@ -0,0 +1,95 @@
+package com.studentmanagement.cli;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.models.Student;
+import com.studentmanagement.services.StudentService;
+import com.studentmanagement.services.WriteDurability;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandRunnerTest {
+    @TempDir
+    Path dir;
+
+    private DatabaseHandler db;
+    private int student;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("test.db"), 2);
+        student = new StudentService(db).addStudent(new Student("Ada Lovelace", "CS101")).getStudentId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void recordUpsertsDirectly() throws Exception {
+        CommandRunner runner = runner();
+        assertEquals(CommandRunner.OK, runner.run(List.of("record", String.valueOf(student), "2024-03-04", "Present")));
+        assertEquals(CommandRunner.OK, runner.run(List.of("record", String.valueOf(student), "2024-03-04", "Absent")));
+        runner.shutdown();
+
+        assertEquals("0", storedStatus());
+    }
+
+    @Test
+    void recordGoesThroughTheWriteBehindQueue() throws Exception {
+        CommandRunner runner = new CommandRunner(db, WriteDurability.COMMITTED);
+        assertEquals(CommandRunner.OK, runner.run(List.of("record", String.valueOf(student), "2024-03-04", "Present")));
+        // A committed-durability future fails with the row error, so the exit status reflects it
+        assertEquals(CommandRunner.FAILED, runner.run(List.of("record", "999", "2024-03-04", "Present")));
+        runner.shutdown();
+
+        assertEquals("1", storedStatus());
+    }
+
+    @Test
+    void recordRejectsInvalidInput() {
+        CommandRunner runner = runner();
+        assertEquals(CommandRunner.FAILED, runner.run(List.of("record", String.valueOf(student), "2024-02-30", "Present")));
+        assertEquals(CommandRunner.FAILED, runner.run(List.of("record", String.valueOf(student), "2024-03-04", "Late")));
+        runner.shutdown();
+    }
+
+    @Test
+    void failedReportLeavesNoOutputFile() throws Exception {
+        CommandRunner runner = runner();
+        Path course = dir.resolve("course.csv");
+        Path missing = dir.resolve("missing.csv");
+        Path absent = dir.resolve("absent.csv");
+
+        assertEquals(CommandRunner.FAILED, runner.run(List.of("report", "course", "ZZ9", "--out", course.toString())));
+        assertEquals(CommandRunner.FAILED, runner.run(List.of("report", "student", "999", "--out", missing.toString())));
+        assertEquals(CommandRunner.FAILED, runner.run(List.of("report", "absent", "2024-03-09", "2024-03-01", "--out", absent.toString())));
+        assertFalse(Files.exists(course));
+        assertFalse(Files.exists(missing));
+        assertFalse(Files.exists(absent));
+
+        assertEquals(CommandRunner.OK, runner.run(List.of("report", "course", "CS101", "--out", course.toString())));
+        assertTrue(Files.readString(course).contains("Ada Lovelace"));
+        runner.shutdown();
+    }
+
+    private CommandRunner runner() {
+        return new CommandRunner(db, new ByteArrayInputStream(new byte[0]),
+            new PrintStream(new ByteArrayOutputStream()), new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    private String storedStatus() throws Exception {
+        return db.queryOne("SELECT status FROM attendance WHERE student_id = ?;", rs -> rs.getString(1), student);
+    }
+}
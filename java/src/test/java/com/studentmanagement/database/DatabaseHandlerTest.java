@@ -0,0 +1,45 @@
+package com.studentmanagement.database;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseHandlerTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void closeTwiceIsQuiet() throws Exception {
+        DatabaseHandler db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("test.db"), 1);
+        PrintStream err = System.err;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(captured, true));
+        try {
+            db.close();
+            db.close();
+        } finally {
+            System.setErr(err);
+        }
+        assertEquals("", captured.toString());
+    }
+
+    @Test
+    void upsertDoesNotReportAStaleKey() throws Exception {
+        try (DatabaseHandler db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("test.db"), 1)) {
+            int first = db.executeUpdate("INSERT INTO students (name, course) VALUES (?, ?);", "Ada Lovelace", "CS101");
+            int second = db.executeUpdate("INSERT INTO students (name, course) VALUES (?, ?);", "Alan Turing", "CS101");
+            assertNotEquals(first, second);
+            db.executeUpdate("INSERT INTO attendance (student_id, date, status) VALUES (?, ?, ?);", first, 19800L, 1);
+
+            int result = db.executeUpdate("INSERT INTO attendance (student_id, date, status) VALUES (?, ?, ?) "
+                + "ON CONFLICT(student_id, date) DO UPDATE SET status = excluded.status;", first, 19800L, 0);
+
+            assertEquals(1, result, "an upsert that updated reports its row count");
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.studentmanagement.database;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationsTest {
+    @TempDir
+    Path dir;
+
+    // The schema as it was created before versioning: TEXT dates and statuses, single-column indexes
+    private String baselineDatabase() throws Exception {
+        String url = "jdbc:sqlite:" + dir.resolve("baseline.db");
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE students (student_id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, " +
+                "course TEXT NOT NULL, enrollment_date TEXT DEFAULT CURRENT_DATE);");
+            stmt.execute("CREATE TABLE attendance (attendance_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "student_id INTEGER NOT NULL, date TEXT NOT NULL, " +
+                "status TEXT NOT NULL CHECK(status IN ('Present','Absent')), " +
+                "FOREIGN KEY(student_id) REFERENCES students(student_id) ON DELETE CASCADE, UNIQUE(student_id, date));");
+            stmt.execute("CREATE INDEX idx_attendance_date ON attendance(date);");
+            stmt.execute("CREATE INDEX idx_attendance_student_id ON attendance(student_id);");
+            stmt.execute("INSERT INTO students (name, course, enrollment_date) VALUES " +
+                "('Ada Lovelace', 'CS101', '2024-01-08'), ('Alan Turing', 'CS101', '2024-01-08'), " +
+                "('Grace Hopper', 'MA201', '2024-01-09');");
+            stmt.execute("INSERT INTO attendance (student_id, date, status) VALUES " +
+                "(1, '2024-03-04', 'Present'), (2, '2024-03-04', 'Absent'), (3, '2024-03-04', 'Present'), " +
+                "(1, '2024-02-29', 'Absent'), (3, '2023-12-31', 'Present');");
+            // Left behind by a delete while foreign keys were not enforced
+            stmt.execute("INSERT INTO attendance (student_id, date, status) VALUES (42, '2024-03-04', 'Present');");
+        }
+        return url;
+    }
+
+    @Test
+    void upgradesBaselineDatabasePreservingData() throws Exception {
+        String url = baselineDatabase();
+        try (DatabaseHandler db = new DatabaseHandler(url, 1)) {
+            assertEquals(Migrations.all().size(), db.getSchemaVersion());
+            assertEquals(3, count(db, "SELECT COUNT(*) FROM students;"));
+            assertEquals(5, count(db, "SELECT COUNT(*) FROM attendance;"));
+            assertEquals(0, count(db, "SELECT COUNT(*) FROM attendance WHERE student_id = 42;"));
+            assertEquals(0, count(db, "SELECT COUNT(*) FROM attendance WHERE typeof(date) <> 'integer' OR typeof(status) <> 'integer';"));
+
+            List<Map<String, Object>> rows = db.executeQuery("SELECT student_id, date, status FROM attendance ORDER BY attendance_id;");
+            assertEquals(List.of(
+                    List.of(1, LocalDate.of(2024, 3, 4).toEpochDay(), 1),
+                    List.of(2, LocalDate.of(2024, 3, 4).toEpochDay(), 0),
+                    List.of(3, LocalDate.of(2024, 3, 4).toEpochDay(), 1),
+                    List.of(1, LocalDate.of(2024, 2, 29).toEpochDay(), 0),
+                    List.of(3, LocalDate.of(2023, 12, 31).toEpochDay(), 1)),
+                triples(rows));
+            assertEquals(List.of(Map.of("date", "2024-02-29", "status", "Absent")),
+                db.executeQuery("SELECT date, status FROM attendance_readable WHERE student_id = 1 AND date < '2024-03-01';"));
+
+            assertEquals(0, count(db, "SELECT COUNT(*) FROM sqlite_master WHERE name IN ('idx_attendance_date', 'idx_attendance_student_id');"));
+            assertEquals(2, count(db, "SELECT COUNT(*) FROM sqlite_master WHERE name IN ('idx_attendance_date_student', 'idx_attendance_student_date');"));
+            assertEquals(0, count(db, "SELECT COUNT(*) FROM schema_backfill WHERE done = 0;"));
+            assertEquals(3, count(db, "SELECT COUNT(*) FROM attendance_daily;"));
+        }
+    }
+
+    @Test
+    void migratingAgainIsANoOp() throws Exception {
+        String url = baselineDatabase();
+        String schema;
+        try (DatabaseHandler db = new DatabaseHandler(url, 1)) {
+            schema = schema(db);
+            assertEquals(0, new MigrationRunner(db, Migrations.all()).migrate());
+        }
+        try (DatabaseHandler db = new DatabaseHandler(url, 1)) {
+            assertEquals(Migrations.all().size(), db.getSchemaVersion());
+            assertEquals(schema, schema(db));
+            assertEquals(5, count(db, "SELECT COUNT(*) FROM attendance;"));
+        }
+    }
+
+    @Test
+    void backfillRunsInChunksAndReportsProgress() throws Exception {
+        try (DatabaseHandler db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("fresh.db"), 1)) {
+            for (int i = 1; i <= 5; i++) db.executeUpdate("INSERT INTO students (name, course) VALUES (?, 'CS101');", "Student " + i);
+            List<Migration> migrations = new ArrayList<>(Migrations.all());
+            migrations.add(Migration.sql(migrations.size() + 1, "lower-case courses").withBackfill(new Migration.Backfill(
+                "lower_course", "students", "student_id",
+                "UPDATE students SET course = lower(course) WHERE student_id > ? AND student_id <= ?;")));
+            MigrationRunner runner = new MigrationRunner(db, migrations, 2);
+            int[] chunks = new int[1];
+            runner.setProgress(new MigrationRunner.Progress() {
+                @Override
+                public void migrationApplied(Migration migration, long millis) {
+                }
+
+                @Override
+                public void backfillFinished(String name, int total, long millis) {
+                    chunks[0] = total;
+                }
+
+                @Override
+                public void migrationSkipped(Migration migration, String reason) {
+                    fail("Nothing should be skipped: " + reason);
+                }
+            });
+
+            assertEquals(1, runner.migrate());
+            assertEquals(3, chunks[0]);
+            assertEquals(5, count(db, "SELECT COUNT(*) FROM students WHERE course = 'cs101';"));
+            assertEquals(migrations.size(), runner.getCurrentVersion());
+        }
+    }
+
+    @Test
+    void failedOptionalMigrationIsRolledBackAndRetried() throws Exception {
+        try (DatabaseHandler db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("fresh.db"), 1)) {
+            boolean[] available = {false};
+            List<Migration> migrations = new ArrayList<>(Migrations.all());
+            int optional = migrations.size() + 1;
+            migrations.add(Migration.of(optional, "needs a missing module", conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("CREATE TABLE half_done (id INTEGER);");
+                    if (!available[0]) stmt.execute("CREATE VIRTUAL TABLE missing USING no_such_module;");
+                }
+            }).asOptional());
+            migrations.add(Migration.sql(optional + 1, "after it", "CREATE TABLE after_it (id INTEGER);"));
+            List<String> events = new ArrayList<>();
+            MigrationRunner.Progress progress = new MigrationRunner.Progress() {
+                @Override
+                public void migrationApplied(Migration migration, long millis) {
+                    events.add("applied " + migration.getVersion());
+                }
+
+                @Override
+                public void backfillFinished(String name, int chunks, long millis) {
+                }
+
+                @Override
+                public void migrationSkipped(Migration migration, String reason) {
+                    events.add("skipped " + migration.getVersion());
+                }
+            };
+
+            MigrationRunner runner = new MigrationRunner(db, migrations);
+            runner.setProgress(progress);
+            assertEquals(2, runner.migrate());
+            assertEquals(List.of("skipped " + optional, "applied " + (optional + 1)), events);
+            assertEquals(optional + 1, runner.getCurrentVersion());
+            assertEquals(0, count(db, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'half_done';"));
+            assertEquals(1, count(db, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'after_it';"));
+
+            events.clear();
+            runner.migrate();
+            assertEquals(List.of("skipped " + optional), events);
+
+            events.clear();
+            available[0] = true;
+            assertEquals(1, runner.migrate());
+            assertEquals(List.of("applied " + optional), events);
+            assertEquals(1, count(db, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'half_done';"));
+            assertEquals(0, count(db, "SELECT COUNT(*) FROM schema_skipped;"));
+        }
+    }
+
+    @Test
+    void freshDatabaseHasFullTextSearchAndNothingSkipped() throws Exception {
+        try (DatabaseHandler db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("fresh.db"), 1)) {
+            assertTrue(db.hasFullTextSearch());
+            assertEquals(0, count(db, "SELECT COUNT(*) FROM schema_skipped;"));
+        }
+    }
+
+    @Test
+    void databaseRecordedWithoutFullTextSearchGetsItBack() throws Exception {
+        String url = "jdbc:sqlite:" + dir.resolve("no-fts.db");
+        try (DatabaseHandler db = new DatabaseHandler(url, 1)) {
+            db.executeUpdate("INSERT INTO students (name, course) VALUES ('Ada Lovelace', 'CS101');");
+        }
+        // As left by the old version 3 on a driver without FTS5
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement()) {
+            for (String name : List.of("students_fts_insert", "students_fts_delete", "students_fts_update")) {
+                stmt.execute("DROP TRIGGER " + name + ";");
+            }
+            stmt.execute("DROP TABLE students_fts;");
+            stmt.execute("PRAGMA user_version = 7;");
+        }
+        try (DatabaseHandler db = new DatabaseHandler(url, 1)) {
+            assertTrue(db.hasFullTextSearch());
+            assertEquals(1, count(db, "SELECT COUNT(*) FROM students_fts WHERE students_fts MATCH 'Lovelace';"));
+        }
+    }
+
+    private static int count(DatabaseHandler db, String sql) throws Exception {
+        return db.queryOne(sql, rs -> rs.getInt(1));
+    }
+
+    private static String schema(DatabaseHandler db) throws Exception {
+        return String.join("\n", db.query("SELECT type || ' ' || name || ' ' || COALESCE(sql, '') FROM sqlite_master ORDER BY name;",
+            rs -> rs.getString(1)));
+    }
+
+    private static List<List<Object>> triples(List<Map<String, Object>> rows) {
+        List<List<Object>> result = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            result.add(List.of(row.get("student_id"), ((Number) row.get("date")).longValue(), row.get("status")));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,159 @@
+package com.studentmanagement.database;
+
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.Student;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.StudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollupsTest {
+    private static final String[] COURSES = {"CS101", "MA201", "PH10"};
+    private static final LocalDate START = LocalDate.of(2024, 1, 29);
+
+    @TempDir
+    Path dir;
+
+    private DatabaseHandler db;
+    private StudentService students;
+    private AttendanceService attendance;
+    private final List<Integer> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("test.db"), 2);
+        students = new StudentService(db);
+        attendance = new AttendanceService(db);
+        for (int i = 0; i < 12; i++) {
+            ids.add(students.addStudent(new Student("Student " + i, COURSES[i % COURSES.length])).getStudentId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void rollupsMatchRawAttendanceAfterMixedWrites() throws Exception {
+        Random random = new Random(7);
+        for (int step = 0; step < 600; step++) {
+            int op = random.nextInt(100);
+            if (op < 50) {
+                // Spans a month boundary so the monthly rollup sees several months
+                attendance.recordAttendance(new Attendance(student(random), day(random), status(random)));
+            } else if (op < 60) {
+                List<Attendance> batch = new ArrayList<>();
+                String date = day(random);
+                for (int i = 0; i < 5; i++) batch.add(new Attendance(student(random), date, status(random)));
+                attendance.recordAttendanceBatch(batch);
+            } else if (op < 72) {
+                Integer id = randomAttendanceId(random);
+                if (id != null) attendance.deleteAttendance(id);
+            } else if (op < 84) {
+                moveRandomRecord(random);
+            } else if (op < 94) {
+                students.updateStudentsCourse(List.of(student(random), student(random)), COURSES[random.nextInt(COURSES.length)]);
+            } else if (op < 97 && ids.size() > 4) {
+                students.deleteStudent(ids.remove(random.nextInt(ids.size())));
+            } else {
+                ids.add(students.addStudent(new Student("Late " + step, COURSES[random.nextInt(COURSES.length)])).getStudentId());
+            }
+            if (step % 50 == 49) assertRollupsMatch();
+        }
+        assertRollupsMatch();
+    }
+
+    @Test
+    void rebuildMatchesTriggerMaintainedRollups() throws Exception {
+        Random random = new Random(11);
+        for (int i = 0; i < 200; i++) attendance.recordAttendance(new Attendance(student(random), day(random), status(random)));
+        students.updateStudentsCourse(List.of(ids.get(0)), "MA201");
+        List<List<Object>> before = daily();
+
+        db.inTransaction(conn -> {
+            Rollups.rebuild(conn);
+            return null;
+        });
+
+        assertEquals(before, daily());
+        assertRollupsMatch();
+    }
+
+    private void assertRollupsMatch() throws SQLException {
+        assertEquals(
+            rows("SELECT date, SUM(status), COUNT(*) FROM attendance GROUP BY date ORDER BY date;"),
+            daily());
+        assertEquals(
+            rows("SELECT s.course, a.date, SUM(a.status), COUNT(*) FROM attendance a JOIN students s " +
+                "ON s.student_id = a.student_id GROUP BY s.course, a.date ORDER BY s.course, a.date;"),
+            rows("SELECT course, date, present, total FROM attendance_course_daily WHERE total > 0 ORDER BY course, date;"));
+        assertEquals(
+            rows("SELECT student_id, " + Rollups.month("date") + " AS m, SUM(status), COUNT(*) FROM attendance " +
+                "GROUP BY student_id, m ORDER BY student_id, m;"),
+            rows("SELECT student_id, month, present, total FROM attendance_student_monthly WHERE total > 0 ORDER BY student_id, month;"));
+        // Emptied rows are kept but must be fully zeroed, never negative
+        assertEquals(Integer.valueOf(0), db.queryOne("SELECT " +
+            "(SELECT COUNT(*) FROM attendance_daily WHERE total < 0 OR present < 0 OR (total = 0 AND present <> 0)) + " +
+            "(SELECT COUNT(*) FROM attendance_course_daily WHERE total < 0 OR present < 0 OR (total = 0 AND present <> 0)) + " +
+            "(SELECT COUNT(*) FROM attendance_student_monthly WHERE total < 0 OR present < 0 OR (total = 0 AND present <> 0));",
+            rs -> rs.getInt(1)));
+    }
+
+    private List<List<Object>> daily() throws SQLException {
+        return rows("SELECT date, present, total FROM attendance_daily WHERE total > 0 ORDER BY date;");
+    }
+
+    private List<List<Object>> rows(String sql) throws SQLException {
+        return db.query(sql, rs -> {
+            List<Object> row = new ArrayList<>();
+            for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) row.add(rs.getObject(i));
+            return row;
+        });
+    }
+
+    // Changes a record's key directly, as the services never do, to exercise the key-change trigger
+    private void moveRandomRecord(Random random) throws SQLException {
+        Integer id = randomAttendanceId(random);
+        if (id == null) return;
+        try {
+            if (random.nextBoolean()) {
+                db.executeUpdate("UPDATE attendance SET date = date + ? WHERE attendance_id = ?;", random.nextInt(5) - 2, id);
+            } else {
+                db.executeUpdate("UPDATE attendance SET student_id = ?, status = ? WHERE attendance_id = ?;",
+                    student(random), status(random).getCode(), id);
+            }
+        } catch (SQLException e) {
+            // The new key is already taken; the statement changed nothing
+        }
+    }
+
+    private Integer randomAttendanceId(Random random) throws SQLException {
+        return db.queryOne("SELECT attendance_id FROM attendance ORDER BY attendance_id LIMIT 1 OFFSET " +
+            "(SELECT ? % MAX(COUNT(*), 1) FROM attendance);", rs -> rs.getInt(1), random.nextInt(1000));
+    }
+
+    private int student(Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static String day(Random random) {
+        return START.plusDays(random.nextInt(10)).toString();
+    }
+
+    private static AttendanceStatus status(Random random) {
+        return random.nextBoolean() ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT;
+    }
+}
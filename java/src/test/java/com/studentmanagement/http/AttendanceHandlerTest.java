@@ -0,0 +1,152 @@
+package com.studentmanagement.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.Student;
+import com.studentmanagement.services.AttendanceService;
+import com.studentmanagement.services.StudentService;
+import com.studentmanagement.services.WriteDurability;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttendanceHandlerTest {
+    @TempDir
+    Path dir;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private DatabaseHandler db;
+    private StudentService students;
+    private AttendanceService attendance;
+    private HttpServer server;
+    private int ada;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("test.db"), 2);
+        students = new StudentService(db);
+        attendance = new AttendanceService(db);
+        ada = students.addStudent(new Student("Ada Lovelace", "CS101")).getStudentId();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/attendance", new AttendanceHandler(students, attendance));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        attendance.disableWriteBehind();
+        db.close();
+    }
+
+    @Test
+    void unknownStudentIsNotFound() throws Exception {
+        HttpResponse<String> response = post("/api/attendance", "{\"student_id\": 999, \"date\": \"2024-03-04\", \"status\": \"Present\"}");
+        assertEquals(404, response.statusCode());
+        assertEquals("Student 999 not found", error(response));
+    }
+
+    @Test
+    void invalidBodiesAreBadRequests() throws Exception {
+        assertEquals(400, post("/api/attendance", "{not json").statusCode());
+        assertEquals(400, post("/api/attendance", "[]").statusCode());
+        assertEquals(400, post("/api/attendance", "{\"student_id\": " + ada + ", \"date\": \"2024-03-04\"}").statusCode());
+        assertEquals(400, post("/api/attendance", "{\"student_id\": \"x\", \"date\": \"2024-03-04\", \"status\": \"Present\"}").statusCode());
+        assertEquals(400, post("/api/attendance", "{\"student_id\": " + ada + ", \"date\": \"2024-03-04\", \"status\": \"Late\"}").statusCode());
+        // Rejected by the service, so this one arrives wrapped in the future's CompletionException
+        HttpResponse<String> badDate = post("/api/attendance", record(ada, "2024-02-30"));
+        assertEquals(400, badDate.statusCode());
+        assertTrue(error(badDate).contains("2024-02-30"), error(badDate));
+    }
+
+    @Test
+    void directWriteIsCreated() throws Exception {
+        HttpResponse<String> response = post("/api/attendance", record(ada, "2024-03-04"));
+        assertEquals(201, response.statusCode());
+        JsonNode body = ApiHandler.JSON.readTree(response.body());
+        assertEquals(ada, body.get("student_id").asInt());
+        assertEquals(attendance.getAttendanceByDate("2024-03-04").get(0).getAttendanceId(), body.get("attendance_id").asInt());
+    }
+
+    @Test
+    void acceptedWriteBehindIsAccepted() throws Exception {
+        attendance.enableWriteBehind(WriteDurability.ACCEPTED);
+        assertEquals(202, post("/api/attendance", record(ada, "2024-03-04")).statusCode());
+
+        attendance.disableWriteBehind();
+        attendance.enableWriteBehind(WriteDurability.COMMITTED);
+        assertEquals(201, post("/api/attendance", record(ada, "2024-03-05")).statusCode());
+        attendance.flushWrites().join();
+        assertEquals(1, attendance.getAttendanceByDate("2024-03-04").size());
+    }
+
+    @Test
+    void missingRecordedRowIsAServerError() throws Exception {
+        AttendanceService lost = new AttendanceService(db) {
+            @Override
+            public CompletableFuture<Attendance> recordAttendanceAsync(Attendance record) {
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        server.removeContext("/api/attendance");
+        server.createContext("/api/attendance", new AttendanceHandler(students, lost));
+
+        HttpResponse<String> response = post("/api/attendance", record(ada, "2024-03-04"));
+        assertEquals(500, response.statusCode());
+        assertEquals("Attendance for student " + ada + " was not recorded", error(response));
+    }
+
+    @Test
+    void completionExceptionsAreUnwrapped() throws Exception {
+        server.createContext("/api/wrapped", new ApiHandler("/api/wrapped") {
+            @Override
+            Object route(Request request) {
+                String kind = request.query("kind");
+                Exception cause = kind.equals("api") ? new ApiException(409, "conflict")
+                    : kind.equals("arg") ? new IllegalArgumentException("bad") : new IllegalStateException("broken");
+                throw new CompletionException(cause);
+            }
+        });
+
+        HttpResponse<String> api = get("/api/wrapped?kind=api");
+        assertEquals(409, api.statusCode());
+        assertEquals("conflict", error(api));
+        assertEquals(400, get("/api/wrapped?kind=arg").statusCode());
+        assertEquals(500, get("/api/wrapped?kind=state").statusCode());
+    }
+
+    private static String record(int studentId, String date) {
+        return "{\"student_id\": " + studentId + ", \"date\": \"" + date + "\", \"status\": \"Present\"}";
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private static String error(HttpResponse<String> response) throws Exception {
+        return ApiHandler.JSON.readTree(response.body()).get("error").asText();
+    }
+}
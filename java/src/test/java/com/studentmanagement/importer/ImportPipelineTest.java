@@ -0,0 +1,78 @@
+package com.studentmanagement.importer;
+
+import com.studentmanagement.services.ExportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportPipelineTest {
+    private static final RowReader.Column[] COLUMNS = {new RowReader.Column("name", true)};
+
+    private static RowReader rows(int count) throws Exception {
+        StringBuilder csv = new StringBuilder("name\n");
+        for (int i = 0; i < count; i++) csv.append("Student ").append(i).append('\n');
+        return RowReader.open(ExportFormat.CSV, new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), COLUMNS);
+    }
+
+    @Test
+    void writesEveryBatch() throws Exception {
+        AtomicInteger written = new AtomicInteger();
+        ImportPipeline<String> pipeline = new ImportPipeline<>(new String[]{"name"}, values -> values[0], batch -> {
+            ImportPipeline.Written w = new ImportPipeline.Written();
+            w.inserted = batch.size();
+            written.addAndGet(batch.size());
+            return w;
+        }, 10, null, null);
+
+        ImportResult result = pipeline.run(rows(95));
+
+        assertEquals(95, result.getInserted());
+        assertEquals(95, written.get());
+    }
+
+    @Test
+    void writerErrorFailsTheImportInsteadOfHanging() {
+        ImportPipeline<String> pipeline = new ImportPipeline<>(new String[]{"name"}, values -> values[0], batch -> {
+            throw new StackOverflowError("writer died");
+        }, 1, null, null);
+
+        // Many more batches than the queue holds, so a dead writer would block the parser for good
+        Error e = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(Error.class, () -> pipeline.run(rows(100))));
+        assertEquals("writer died", e.getMessage());
+    }
+
+    @Test
+    void malformedInputStopsTheWriterBeforeRunReturns() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 50; i++) json.append("{\"name\": \"Student ").append(i).append("\"},");
+        json.append("{\"name\": oops}]");
+        RowReader reader = RowReader.open(ExportFormat.JSON,
+            new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)), COLUMNS);
+        AtomicInteger committed = new AtomicInteger();
+        ImportPipeline<String> pipeline = new ImportPipeline<>(new String[]{"name"}, values -> values[0], batch -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            committed.addAndGet(batch.size());
+            ImportPipeline.Written w = new ImportPipeline.Written();
+            w.inserted = batch.size();
+            return w;
+        }, 10, null, null);
+
+        assertThrows(IOException.class, () -> pipeline.run(reader));
+        int atReturn = committed.get();
+        assertTrue(atReturn < 50, "committed " + atReturn);
+        Thread.sleep(200);
+        assertEquals(atReturn, committed.get());
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+            .noneMatch(t -> t.getName().equals("import-writer") && t.isAlive()));
+    }
+}
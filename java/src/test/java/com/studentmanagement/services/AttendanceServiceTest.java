@@ -0,0 +1,138 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceBatchResult;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttendanceServiceTest {
+    @TempDir
+    Path dir;
+
+    private DatabaseHandler db;
+    private AttendanceService attendance;
+    private int first;
+    private int second;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("test.db"), 2);
+        StudentService students = new StudentService(db);
+        attendance = new AttendanceService(db);
+        first = students.addStudent(new Student("Ada Lovelace", "CS101")).getStudentId();
+        second = students.addStudent(new Student("Alan Turing", "CS101")).getStudentId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void updatingAnExistingRecordReturnsThatRecord() throws Exception {
+        Attendance original = attendance.recordAttendance(new Attendance(first, "2024-03-04", AttendanceStatus.PRESENT));
+        attendance.recordAttendance(new Attendance(second, "2024-03-04", AttendanceStatus.PRESENT));
+
+        Attendance updated = attendance.recordAttendance(new Attendance(first, "2024-03-04", AttendanceStatus.ABSENT));
+
+        assertEquals(original.getAttendanceId(), updated.getAttendanceId());
+        assertEquals(first, updated.getStudentId());
+        assertEquals(AttendanceStatus.ABSENT, updated.getStatus());
+    }
+
+    @Test
+    void reRecordingAnUnchangedStatusReturnsThatRecord() throws Exception {
+        Attendance original = attendance.recordAttendance(new Attendance(first, "2024-03-04", AttendanceStatus.PRESENT));
+        attendance.recordAttendance(new Attendance(second, "2024-03-04", AttendanceStatus.ABSENT));
+
+        // The upsert's no-op guard means nothing is inserted or updated here
+        Attendance again = attendance.recordAttendance(new Attendance(first, "2024-03-04", AttendanceStatus.PRESENT));
+
+        assertEquals(original.getAttendanceId(), again.getAttendanceId());
+        assertEquals(first, again.getStudentId());
+        assertEquals(AttendanceStatus.PRESENT, again.getStatus());
+    }
+
+    @Test
+    void insertReturnsTheNewRecord() throws Exception {
+        Attendance recorded = attendance.recordAttendance(new Attendance(second, "2024-03-05", AttendanceStatus.ABSENT));
+
+        assertNotNull(recorded.getAttendanceId());
+        assertEquals(second, recorded.getStudentId());
+        assertEquals("2024-03-05", recorded.getDate());
+        assertEquals(AttendanceStatus.ABSENT, recorded.getStatus());
+    }
+
+    @Test
+    void batchReplaysRowByRowAfterAFailedRow() throws Exception {
+        attendance.recordAttendance(new Attendance(first, "2024-03-04", AttendanceStatus.ABSENT));
+
+        AttendanceBatchResult result = attendance.recordAttendanceBatch(List.of(
+            new Attendance(first, "2024-03-04", AttendanceStatus.PRESENT),
+            new Attendance(9999, "2024-03-04", AttendanceStatus.PRESENT),
+            new Attendance(second, "2024-03-04", AttendanceStatus.ABSENT),
+            new Attendance(second, "not-a-date", AttendanceStatus.ABSENT)));
+
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(2, result.getFailedCount());
+        assertEquals(9999, result.getFailures().stream().mapToInt(f -> f.getAttendance().getStudentId()).max().getAsInt());
+        List<Attendance> day = attendance.getAttendanceByDate("2024-03-04");
+        assertEquals(2, day.size());
+        assertEquals(AttendanceStatus.PRESENT, day.get(0).getStatus());
+        assertEquals(AttendanceStatus.ABSENT, day.get(1).getStatus());
+    }
+
+    @Test
+    void batchKeepsTheLastRecordForAKey() throws Exception {
+        AttendanceBatchResult result = attendance.recordAttendanceBatch(List.of(
+            new Attendance(first, "2024-03-04", AttendanceStatus.PRESENT),
+            new Attendance(first, "2024-03-04", AttendanceStatus.ABSENT)));
+
+        assertEquals(1, result.getInserted());
+        assertEquals(AttendanceStatus.ABSENT, attendance.getAttendanceByDate("2024-03-04").get(0).getStatus());
+    }
+
+    @Test
+    void unknownStudentOnlyFailsItsOwnRow() throws Exception {
+        List<String> heard = new ArrayList<>();
+        attendance.addChangeListener(new ChangeListener() {
+            @Override
+            public void attendanceRecorded(int studentId, String date, AttendanceStatus status) {
+                heard.add(studentId + "@" + date);
+            }
+        });
+
+        // The foreign key failure is the batch's first row, so nothing before it was written yet
+        AttendanceBatchResult result = attendance.recordAttendanceBatch(List.of(
+            new Attendance(9999, "2024-03-04", AttendanceStatus.PRESENT),
+            new Attendance(first, "2024-03-04", AttendanceStatus.PRESENT),
+            new Attendance(second, "2024-03-05", AttendanceStatus.ABSENT)));
+
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getFailedCount());
+        assertEquals(List.of(first + "@2024-03-04", second + "@2024-03-05"), heard);
+    }
+
+    @Test
+    void unchangedStatusCountsAsUpdated() throws Exception {
+        attendance.recordAttendance(new Attendance(first, "2024-03-04", AttendanceStatus.PRESENT));
+
+        AttendanceBatchResult result = attendance.recordAttendanceBatch(List.of(
+            new Attendance(first, "2024-03-04", AttendanceStatus.PRESENT)));
+
+        assertEquals(0, result.getInserted());
+        assertEquals(1, result.getUpdated());
+    }
+}
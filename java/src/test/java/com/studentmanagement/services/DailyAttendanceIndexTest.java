@@ -0,0 +1,104 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.database.EpochDays;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailyAttendanceIndexTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 4);
+
+    @TempDir
+    Path dir;
+
+    private DatabaseHandler db;
+    private StudentService students;
+    private AttendanceService attendance;
+    private DailyAttendanceIndex index;
+    private int ada;
+    private int alan;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("test.db"), 2);
+        students = new StudentService(db);
+        attendance = new AttendanceService(db);
+        index = new DailyAttendanceIndex(db);
+        students.addChangeListener(index);
+        attendance.addChangeListener(index);
+        ada = students.addStudent(new Student("Ada Lovelace", "CS101")).getStudentId();
+        alan = students.addStudent(new Student("Alan Turing", "CS101")).getStudentId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void cachedDayFollowsServiceWrites() throws Exception {
+        attendance.recordAttendance(new Attendance(ada, DAY.toString(), AttendanceStatus.PRESENT));
+        Attendance alanAbsent = attendance.recordAttendance(new Attendance(alan, DAY.toString(), AttendanceStatus.ABSENT));
+        DailyAttendance before = index.day(DAY);
+        assertEquals(1, before.getPresentCount());
+        assertEquals(1, before.getAbsentCount());
+
+        attendance.recordAttendance(new Attendance(ada, DAY.toString(), AttendanceStatus.ABSENT));
+        attendance.deleteAttendance(alanAbsent.getAttendanceId());
+        int grace = students.addStudent(new Student("Grace Hopper", "CS102")).getStudentId();
+
+        DailyAttendance after = index.day(DAY);
+        assertEquals(0, after.getPresentCount());
+        assertEquals(AttendanceStatus.ABSENT, after.statusOf(ada));
+        assertNull(after.statusOf(alan));
+        assertTrue(after.isOnRoster(grace));
+        assertEquals(3, after.getTotalStudents());
+        assertEquals(2, after.getNotRecordedCount());
+        // Snapshots are copies, so the earlier one is unchanged
+        assertEquals(1, before.getPresentCount());
+
+        students.deleteStudent(ada);
+        DailyAttendance withoutAda = index.day(DAY);
+        assertFalse(withoutAda.isOnRoster(ada));
+        assertEquals(0, withoutAda.getRecordedCount());
+    }
+
+    @Test
+    void rawWritesAreSeenOnlyAfterInvalidate() throws Exception {
+        assertEquals(0, index.day(DAY).getRecordedCount());
+
+        insertRaw(ada, DAY, AttendanceStatus.PRESENT);
+        assertEquals(0, index.day(DAY).getRecordedCount());
+
+        index.invalidate();
+        assertEquals(AttendanceStatus.PRESENT, index.day(DAY).statusOf(ada));
+    }
+
+    @Test
+    void leastRecentlyUsedDayIsReloaded() throws Exception {
+        assertEquals(0, index.day(DAY).getRecordedCount());
+        insertRaw(alan, DAY, AttendanceStatus.ABSENT);
+
+        // Touching DAY again keeps it cached while the other days fill the cache behind it
+        for (int i = 1; i < DailyAttendanceIndex.MAX_CACHED_DAYS; i++) index.day(DAY.plusDays(i));
+        assertEquals(0, index.day(DAY).getRecordedCount());
+
+        for (int i = 1; i <= DailyAttendanceIndex.MAX_CACHED_DAYS; i++) index.day(DAY.minusDays(i));
+        assertEquals(AttendanceStatus.ABSENT, index.day(DAY).statusOf(alan));
+    }
+
+    private void insertRaw(int studentId, LocalDate date, AttendanceStatus status) throws Exception {
+        db.executeUpdate("INSERT INTO attendance (student_id, date, status) VALUES (?, ?, ?);",
+            studentId, EpochDays.fromIso(date.toString()), status.getCode());
+    }
+}
@@ -0,0 +1,106 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.CursorPage;
+import com.studentmanagement.models.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageTokensTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void tokensRoundTrip() {
+        long[] key = {19_786, Long.MAX_VALUE, -1};
+        String token = PageTokens.encode("a", key);
+
+        assertArrayEquals(key, PageTokens.decode(token, "a", 3));
+        assertArrayEquals(key, PageTokens.decode(" " + token + " ", "a", 3));
+    }
+
+    @Test
+    void blankTokenIsTheFirstPage() {
+        assertNull(PageTokens.decode(null, "s", 1));
+        assertNull(PageTokens.decode("", "s", 1));
+        assertNull(PageTokens.decode("  ", "s", 1));
+    }
+
+    @Test
+    void tamperedAndForeignTokensAreRejected() {
+        String token = PageTokens.encode("s", 42);
+
+        assertInvalid(PageTokens.encode("a", 42), "s", 1);
+        assertInvalid(PageTokens.encode("s", 42, 7), "s", 1);
+        assertInvalid(token, "s", 2);
+        assertInvalid(raw("s:forty-two"), "s", 1);
+        assertInvalid(raw("s:42:"), "s", 2);
+        assertInvalid("not base64!", "s", 1);
+        assertInvalid(token + "*", "s", 1);
+        assertInvalid(token.substring(0, 2), "s", 1);
+    }
+
+    @Test
+    void overfetchedRowOnlyProducesAToken() {
+        CursorPage<Integer> last = PageTokens.fromOverfetch(List.of(1, 2), 2, "s", i -> new long[]{i});
+        assertFalse(last.hasMore());
+        assertNull(last.getNextToken());
+
+        CursorPage<Integer> more = PageTokens.fromOverfetch(List.of(1, 2, 3), 2, "s", i -> new long[]{i});
+        assertEquals(List.of(1, 2), more.getItems());
+        assertArrayEquals(new long[]{2}, PageTokens.decode(more.getNextToken(), "s", 1));
+    }
+
+    @Test
+    void pagesCoverEveryRowOnceAndTokensStayWithTheirListing() throws Exception {
+        DatabaseHandler db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("test.db"), 2);
+        try {
+            StudentService students = new StudentService(db);
+            AttendanceService attendance = new AttendanceService(db);
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < 7; i++) ids.add(students.addStudent(new Student("Student " + i, "CS101")).getStudentId());
+            attendance.recordAttendance(new Attendance(ids.get(0), "2024-03-04", AttendanceStatus.PRESENT));
+            attendance.recordAttendance(new Attendance(ids.get(0), "2024-03-05", AttendanceStatus.ABSENT));
+
+            List<Integer> seen = new ArrayList<>();
+            String token = null;
+            CursorPage<Student> page;
+            do {
+                page = students.getStudentsPage(token, 3);
+                for (Student s : page.getItems()) seen.add(s.getStudentId());
+                token = page.getNextToken();
+            } while (token != null);
+            assertEquals(ids, seen);
+
+            String studentToken = students.getStudentsPage(null, 3).getNextToken();
+            assertThrows(IllegalArgumentException.class,
+                () -> attendance.getAttendancePage("2024-03-01", "2024-03-31", studentToken, 3));
+            String ownToken = attendance.getStudentAttendancePage(ids.get(0), null, 1).getNextToken();
+            assertEquals(1, attendance.getStudentAttendancePage(ids.get(0), ownToken, 1).getItems().size());
+            assertThrows(IllegalArgumentException.class,
+                () -> attendance.getStudentAttendancePage(ids.get(1), ownToken, 1));
+        } finally {
+            db.close();
+        }
+    }
+
+    private static void assertInvalid(String token, String kind, int keyLength) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> PageTokens.decode(token, kind, keyLength));
+        assertTrue(e.getMessage().startsWith("Invalid page token"), e.getMessage());
+    }
+
+    private static String raw(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
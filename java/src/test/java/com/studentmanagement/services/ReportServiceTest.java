@@ -0,0 +1,129 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportServiceTest {
+    @TempDir
+    Path dir;
+
+    private DatabaseHandler db;
+    private StudentService students;
+    private AttendanceService attendance;
+    private ReportService reports;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("test.db"), 2);
+        students = new StudentService(db);
+        attendance = new AttendanceService(db);
+        reports = new ReportService(db, students, attendance);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reports.close();
+        db.close();
+    }
+
+    @Test
+    void closeStopsBatchWorkers() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 8; i++) ids.add(students.addStudent(new Student("Student " + i, "CS101")).getStudentId());
+        assertTrue(reports.generateStudentReports(ids).awaitAll().stream().allMatch(ReportBatch.Outcome::isSuccess));
+        assertTrue(workerCount() > 0);
+
+        reports.close();
+        reports.close();
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (workerCount() > 0 && System.nanoTime() < deadline) Thread.sleep(10);
+        assertEquals(0, workerCount());
+        assertThrows(IllegalStateException.class, () -> reports.generateStudentReports(ids));
+    }
+
+    @Test
+    void absentEveryDayIgnoresDaysWithoutRecords() throws Exception {
+        int ada = students.addStudent(new Student("Ada Lovelace", "CS101")).getStudentId();
+        int alan = students.addStudent(new Student("Alan Turing", "CS101")).getStudentId();
+        for (String day : List.of("2024-03-04", "2024-03-06")) {
+            attendance.recordAttendance(new Attendance(ada, day, AttendanceStatus.ABSENT));
+            attendance.recordAttendance(new Attendance(alan, day, AttendanceStatus.ABSENT));
+        }
+        assertEquals(List.of(ada, alan), absentEveryDay());
+
+        attendance.recordAttendance(new Attendance(alan, "2024-03-06", AttendanceStatus.PRESENT));
+        assertEquals(List.of(ada), absentEveryDay());
+    }
+
+    @Test
+    void writesThroughAnotherServiceInstanceAreNotSeen() throws Exception {
+        int ada = students.addStudent(new Student("Ada Lovelace", "CS101")).getStudentId();
+        attendance.recordAttendance(new Attendance(ada, "2024-03-04", AttendanceStatus.PRESENT));
+        assertEquals(1, reports.getDailyAttendance("2024-03-04").getPresentCount());
+
+        // The documented limit: the index only hears about writes made through its own services
+        AttendanceService other = new AttendanceService(db);
+        other.recordAttendance(new Attendance(ada, "2024-03-04", AttendanceStatus.ABSENT));
+        assertEquals(1, reports.getDailyAttendance("2024-03-04").getPresentCount());
+        assertEquals(AttendanceStatus.ABSENT, attendance.getAttendanceByDate("2024-03-04").get(0).getStatus());
+
+        // A write through the wired service updates the cached day as usual
+        attendance.recordAttendance(new Attendance(ada, "2024-03-04", AttendanceStatus.ABSENT));
+        assertEquals(1, reports.getDailyAttendance("2024-03-04").getAbsentCount());
+    }
+
+    @Test
+    void scalarOnlyReportExportsToPdf() throws Exception {
+        int ada = students.addStudent(new Student("Ada Lovelace", "CS101")).getStudentId();
+        attendance.recordAttendance(new Attendance(ada, "2024-03-04", AttendanceStatus.PRESENT));
+        Map<String, Object> summary = reports.generateDailyAttendanceReport("2024-03-04", false);
+
+        String path = reports.exportReportToPDF(summary, dir.resolve("daily").toString());
+
+        byte[] pdf = Files.readAllBytes(Path.of(path));
+        assertTrue(pdf.length > 0);
+        assertEquals("%PDF", new String(pdf, 0, 4, StandardCharsets.US_ASCII));
+        assertTrue(Files.size(Path.of(reports.exportReportToPDF(reports.generateCoursesOverview(),
+            dir.resolve("courses").toString()))) > 0);
+    }
+
+    @Test
+    void csvOfAScalarOnlyReportFailsWithoutLeavingAFile() throws Exception {
+        Map<String, Object> summary = reports.generateDailyAttendanceReport("2024-03-04", false);
+        Path csv = dir.resolve("daily.csv");
+
+        assertThrows(IllegalArgumentException.class, () -> reports.exportReportToCSV(summary, csv.toString()));
+        assertFalse(Files.exists(csv));
+    }
+
+    private List<Integer> absentEveryDay() throws Exception {
+        Map<String, Object> report = reports.generateAbsentEveryDayReport("2024-03-01", "2024-03-31");
+        assertEquals(2, report.get("recorded_days"));
+        List<Map<String, Object>> rows = ReportService.section(report, "students");
+        List<Integer> ids = new ArrayList<>();
+        for (Map<String, Object> row : rows) ids.add((Integer) row.get("student_id"));
+        return ids;
+    }
+
+    private static long workerCount() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(t -> t.getName().startsWith("report-worker-") && t.isAlive())
+            .count();
+    }
+}
@@ -0,0 +1,77 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.models.Student;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentCacheTest {
+    private static Student student(int id, String name, String course) {
+        return new Student(id, name, course, LocalDate.of(2024, 1, 8));
+    }
+
+    @Test
+    void putIsDroppedWhenAWriteHappenedSinceTheStamp() {
+        StudentCache cache = new StudentCache(10);
+        long stamp = cache.stamp();
+        cache.remove(1);
+
+        cache.put(student(1, "Ada Lovelace", "CS101"), stamp);
+
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    void staleFullListingDoesNotMakeTheCacheComplete() {
+        StudentCache cache = new StudentCache(10);
+        long stamp = cache.stamp();
+        cache.replace(student(2, "Alan Turing", "CS101"));
+
+        cache.loadAll(List.of(student(1, "Ada Lovelace", "CS101")), stamp);
+
+        assertFalse(cache.isComplete());
+        assertNull(cache.all());
+    }
+
+    @Test
+    void completeCacheAnswersListingsUntilAnEviction() {
+        StudentCache cache = new StudentCache(2);
+        cache.loadAll(List.of(student(1, "Ada Lovelace", "CS101"), student(2, "Alan Turing", "MA201")), cache.stamp());
+
+        assertEquals(List.of(1), cache.byCourse("CS101").stream().map(Student::getStudentId).toList());
+        assertEquals(Boolean.FALSE, cache.isNameTaken("Grace Hopper", null));
+
+        cache.replace(student(3, "Grace Hopper", "CS101"));
+
+        // Listing CS101 touched Ada last, so Alan was the eldest entry
+        assertFalse(cache.isComplete());
+        assertNull(cache.get(2));
+        assertNull(cache.isNameTaken("Alan Turing", null));
+        assertEquals(Boolean.TRUE, cache.isNameTaken("Ada Lovelace", null));
+    }
+
+    @Test
+    void courseChangeMovesStudentsBetweenIndexes() {
+        StudentCache cache = new StudentCache(10);
+        cache.loadAll(List.of(student(1, "Ada Lovelace", "CS101"), student(2, "Alan Turing", "CS101")), cache.stamp());
+
+        cache.updateCourse(List.of(1), "MA201");
+
+        assertEquals(1, cache.byCourse("CS101").size());
+        assertEquals("MA201", cache.get(1).getCourse());
+        assertEquals(1, cache.byCourse("MA201").size());
+    }
+
+    @Test
+    void returnedStudentsAreCopies() {
+        StudentCache cache = new StudentCache(10);
+        cache.replace(student(1, "Ada Lovelace", "CS101"));
+
+        cache.get(1).setCourse("MA201");
+
+        assertEquals("CS101", cache.get(1).getCourse());
+    }
+}
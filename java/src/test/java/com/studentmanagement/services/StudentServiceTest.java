@@ -0,0 +1,81 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.models.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentServiceTest {
+    @TempDir
+    Path dir;
+
+    private DatabaseHandler db;
+    private StudentService students;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("test.db"), 2);
+        students = new StudentService(db);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void cachedStudentReflectsUpdateAndDelete() throws Exception {
+        int id = students.addStudent(new Student("Ada Lovelace", "CS101")).getStudentId();
+        assertEquals("CS101", students.getStudentById(id).getCourse());
+
+        Student changed = students.getStudentById(id);
+        changed.setCourse("MA201");
+        students.updateStudent(changed);
+        assertEquals("MA201", students.getStudentById(id).getCourse());
+        assertEquals(List.of(id), ids(students.getStudentsByCourse("MA201")));
+        assertTrue(students.getStudentsByCourse("CS101").isEmpty());
+
+        assertTrue(students.deleteStudent(id));
+        assertNull(students.getStudentById(id));
+        assertTrue(students.getAllStudents().isEmpty());
+    }
+
+    @Test
+    void bulkCourseChangeUpdatesCachedListings() throws Exception {
+        int first = students.addStudent(new Student("Ada Lovelace", "CS101")).getStudentId();
+        int second = students.addStudent(new Student("Alan Turing", "CS101")).getStudentId();
+        students.getAllStudents();
+
+        students.updateStudentsCourse(List.of(first), "MA201");
+
+        assertEquals(List.of(second), ids(students.getStudentsByCourse("CS101")));
+        assertEquals(List.of(first), ids(students.getStudentsByCourse("MA201")));
+    }
+
+    @Test
+    void writesFromAnotherInstanceAreSeenOnlyAfterInvalidation() throws Exception {
+        int id = students.addStudent(new Student("Ada Lovelace", "CS101")).getStudentId();
+        students.getStudentById(id);
+        StudentService other = new StudentService(db);
+
+        Student changed = other.getStudentById(id);
+        changed.setCourse("MA201");
+        other.updateStudent(changed);
+
+        // The documented limit: this instance's cache only hears about its own writes
+        assertEquals("CS101", students.getStudentById(id).getCourse());
+        students.getCache().invalidateAll();
+        assertEquals("MA201", students.getStudentById(id).getCourse());
+    }
+
+    private static List<Integer> ids(List<Student> list) {
+        return list.stream().map(Student::getStudentId).toList();
+    }
+}
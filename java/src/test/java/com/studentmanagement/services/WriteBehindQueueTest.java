@@ -0,0 +1,87 @@
+package com.studentmanagement.services;
+
+import com.studentmanagement.database.DatabaseHandler;
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindQueueTest {
+    @TempDir
+    Path dir;
+
+    private DatabaseHandler db;
+    private AttendanceService attendance;
+    private int student;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseHandler("jdbc:sqlite:" + dir.resolve("test.db"), 2);
+        student = new StudentService(db).addStudent(new Student("Ada Lovelace", "CS101")).getStudentId();
+        attendance = new AttendanceService(db);
+    }
+
+    @AfterEach
+    void tearDown() {
+        attendance.disableWriteBehind();
+        db.close();
+    }
+
+    @Test
+    void coalescedWritesCompleteWithTheStoredRow() throws Exception {
+        attendance.enableWriteBehind(WriteDurability.COMMITTED);
+        CompletableFuture<Attendance> first = attendance.recordAttendanceAsync(new Attendance(student, "2024-03-04", AttendanceStatus.PRESENT));
+        CompletableFuture<Attendance> second = attendance.recordAttendanceAsync(new Attendance(student, "2024-03-04", AttendanceStatus.ABSENT));
+        attendance.flushWrites().get(10, TimeUnit.SECONDS);
+
+        Attendance stored = attendance.getAttendanceByDate("2024-03-04").get(0);
+        assertEquals(AttendanceStatus.ABSENT, stored.getStatus());
+        assertEquals(stored.getAttendanceId(), second.get().getAttendanceId());
+        assertEquals(stored.getStudentId(), first.get().getStudentId());
+    }
+
+    @Test
+    void errorInAGroupFailsItsFuturesAndTheWriterCarriesOn() throws Exception {
+        ChangeListener failing = new ChangeListener() {
+            @Override
+            public void attendanceRecorded(int studentId, String date, AttendanceStatus status) {
+                throw new AssertionError("listener blew up");
+            }
+        };
+        attendance.addChangeListener(failing);
+        attendance.enableWriteBehind(WriteDurability.COMMITTED);
+
+        CompletableFuture<Attendance> doomed = attendance.recordAttendanceAsync(new Attendance(student, "2024-03-04", AttendanceStatus.PRESENT));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> doomed.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(AssertionError.class, e.getCause());
+
+        attendance.removeChangeListener(failing);
+        Attendance next = attendance.recordAttendanceAsync(new Attendance(student, "2024-03-05", AttendanceStatus.ABSENT))
+            .get(10, TimeUnit.SECONDS);
+        assertEquals(AttendanceStatus.ABSENT, next.getStatus());
+        assertTimeoutPreemptively(Duration.ofSeconds(10), attendance::disableWriteBehind);
+    }
+
+    @Test
+    void closedQueueFailsLaterWritesAndClosesAgainQuietly() {
+        WriteBehindQueue queue = new WriteBehindQueue(attendance, db, WriteDurability.COMMITTED, 4, 4);
+        queue.close();
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+            () -> queue.submit(new Attendance(student, "2024-03-04", AttendanceStatus.PRESENT)).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertThrows(ExecutionException.class, () -> queue.flush().get(10, TimeUnit.SECONDS));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), queue::close);
+    }
+}
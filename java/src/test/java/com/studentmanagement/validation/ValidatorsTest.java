@@ -0,0 +1,141 @@
+package com.studentmanagement.validation;
+
+import com.studentmanagement.models.Attendance;
+import com.studentmanagement.models.AttendanceStatus;
+import com.studentmanagement.models.Student;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidatorsTest {
+    private static final Pattern COURSE = Pattern.compile("[A-Za-z]{2}\\d{1,3}");
+
+    @Test
+    void leapYears() {
+        assertFalse(Validators.isValidIsoDate("1900-02-29"));
+        assertTrue(Validators.isValidIsoDate("2000-02-29"));
+        assertTrue(Validators.isValidIsoDate("2024-02-29"));
+        assertFalse(Validators.isValidIsoDate("2023-02-29"));
+        assertEquals(LocalDate.of(2000, 2, 29), Validators.parseIsoDate("2000-02-29"));
+        assertNull(Validators.parseIsoDate("1900-02-29"));
+    }
+
+    @Test
+    void monthAndDayBounds() {
+        assertTrue(Validators.isValidIsoDate("2024-01-31"));
+        assertTrue(Validators.isValidIsoDate("2024-12-01"));
+        assertFalse(Validators.isValidIsoDate("2024-00-10"));
+        assertFalse(Validators.isValidIsoDate("2024-13-01"));
+        assertFalse(Validators.isValidIsoDate("2024-01-00"));
+        assertFalse(Validators.isValidIsoDate("2024-01-32"));
+        assertFalse(Validators.isValidIsoDate("2024-04-31"));
+        assertTrue(Validators.isValidIsoDate("2024-04-30"));
+    }
+
+    @Test
+    void malformedDates() {
+        assertFalse(Validators.isValidIsoDate(null));
+        assertFalse(Validators.isValidIsoDate(""));
+        assertFalse(Validators.isValidIsoDate("2024-1-05"));
+        assertFalse(Validators.isValidIsoDate("2024-01-5"));
+        assertFalse(Validators.isValidIsoDate("2024-01-050"));
+        assertFalse(Validators.isValidIsoDate("24-01-05"));
+        assertFalse(Validators.isValidIsoDate("2024/01/05"));
+        assertFalse(Validators.isValidIsoDate("2024-0a-05"));
+        assertFalse(Validators.isValidIsoDate("2024-01-0 "));
+        assertFalse(Validators.isValidIsoDate("+202-01-05"));
+        // Non-ASCII digits (Arabic-Indic three) are not digits here
+        assertFalse(Validators.isValidIsoDate("2024-01-0٣"));
+    }
+
+    @Test
+    void courses() {
+        assertTrue(Validators.isValidCourse("CS1"));
+        assertTrue(Validators.isValidCourse("cs101"));
+        assertFalse(Validators.isValidCourse("CS"));
+        assertFalse(Validators.isValidCourse("CS1010"));
+        assertFalse(Validators.isValidCourse("C5101"));
+        assertFalse(Validators.isValidCourse("CS 10"));
+        assertFalse(Validators.isValidCourse("ÉS101"));
+        assertFalse(Validators.isValidCourse("СS101"));
+        assertFalse(Validators.isValidCourse("CS1٣"));
+        assertFalse(Validators.isValidCourse(null));
+    }
+
+    @Test
+    void names() {
+        assertTrue(Validators.isValidName("Ada Lovelace"));
+        assertTrue(Validators.isValidName("x".repeat(Validators.MAX_NAME_LENGTH)));
+        assertFalse(Validators.isValidName("x".repeat(Validators.MAX_NAME_LENGTH + 1)));
+        assertFalse(Validators.isValidName("   "));
+        assertFalse(Validators.isValidName("Ada\nLovelace"));
+        assertFalse(Validators.isValidName(null));
+    }
+
+    // The scanners stand in for LocalDate.parse and the course regex, so they must agree on near-misses too
+    @Test
+    void scannersAgreeWithTheLibraryChecks() {
+        Random random = new Random(7);
+        String noise = "0123456789-/ aZ٣";
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder date = new StringBuilder(LocalDate.ofEpochDay(random.nextInt(800_000) - 400_000).toString());
+            if (date.length() == 10 && random.nextBoolean()) date.setCharAt(random.nextInt(10), noise.charAt(random.nextInt(noise.length())));
+            assertEquals(parses(date.toString()), Validators.isValidIsoDate(date), date::toString);
+
+            StringBuilder course = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int c = 0; c < length; c++) course.append(noise.charAt(random.nextInt(noise.length())));
+            assertEquals(COURSE.matcher(course).matches(), Validators.isValidCourse(course), course::toString);
+        }
+    }
+
+    @Test
+    void batchErrorsKeepTheirRowIndex() {
+        ValidationResult<Student> students = RecordValidator.validateStudents(List.of(
+            new Student("Ada Lovelace", "CS101"),
+            new Student(" ", "CS1010"),
+            new Student("Alan Turing", "CS102"),
+            new Student("x".repeat(Validators.MAX_NAME_LENGTH + 1), "MA201")));
+
+        assertEquals(2, students.getValid().size());
+        assertEquals(2, students.getInvalidCount());
+        assertEquals(List.of(1, 3), List.copyOf(students.getErrorsByRow().keySet()));
+        assertEquals(2, students.getErrorsByRow().get(1).size());
+        assertEquals("name", students.getErrorsByRow().get(3).get(0).getField());
+
+        ValidationResult<Attendance> records = RecordValidator.validateAttendance(List.of(
+            new Attendance(null, "2024-03-04", AttendanceStatus.PRESENT),
+            new Attendance(1, "2024-03-04", AttendanceStatus.PRESENT),
+            new Attendance(2, "2024-02-30", null)));
+
+        assertEquals(1, records.getValid().size());
+        assertEquals(List.of(0, 2), List.copyOf(records.getErrorsByRow().keySet()));
+        assertEquals(List.of("date", "status"),
+            records.getErrorsByRow().get(2).stream().map(ValidationError::getField).toList());
+        assertEquals("Invalid date (expected YYYY-MM-DD): 2024-02-30; Missing status",
+            RecordValidator.describe(records.getErrorsByRow().get(2)));
+    }
+
+    @Test
+    void requireValidThrowsWithTheReasons() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> RecordValidator.requireValid(new Student("Ada\tLovelace", "CS101")));
+        assertEquals("Name contains control characters", e.getMessage());
+        assertDoesNotThrow(() -> RecordValidator.requireValid(new Attendance(1, "2024-03-04", AttendanceStatus.ABSENT)));
+    }
+
+    private static boolean parses(String s) {
+        try {
+            LocalDate.parse(s);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}